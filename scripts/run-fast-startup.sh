@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Starts the application from the AOT-processed, CDS-archived layout produced by
+#   mvn -Pfast-startup package
+set -euo pipefail
+
+APP_DIR="$(cd "$(dirname "$0")/.." && pwd)/target/application"
+JAR="$(ls "$APP_DIR"/*.jar | head -n 1)"
+
+if [[ ! -f "$APP_DIR/application.jsa" ]]; then
+  echo "No CDS archive in $APP_DIR; run 'mvn -Pfast-startup package' first" >&2
+  exit 1
+fi
+
+exec java -XX:SharedArchiveFile="$APP_DIR/application.jsa" \
+  -Dspring.aot.enabled=true \
+  -Dspring.profiles.active=fast-startup \
+  "$@" -jar "$JAR"
@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compares cold start of the plain jar with the fast-startup (AOT + AppCDS) layout.
+#
+# For each mode the application is started RUNS times and we record:
+#   - time from JVM launch to the first successful GET /customers/{id}
+#   - resident set size (VmRSS) right after that request
+#
+# Usage: mvn -Pfast-startup package && scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+PLAIN_JAR="$(ls "$ROOT"/target/*.jar | grep -v '\.original$' | head -n 1)"
+FAST_JAR="$(ls "$ROOT"/target/application/*.jar | head -n 1)"
+ARCHIVE="$ROOT/target/application/application.jsa"
+BASE_URL="http://localhost:$PORT/customers"
+
+now_ms() { date +%s%3N; }
+
+measure() {
+  local label="$1"; shift
+  local start pid id elapsed rss
+  start="$(now_ms)"
+  java -Dserver.port="$PORT" "$@" >/dev/null 2>&1 &
+  pid=$!
+
+  # The seed data uses generated ids, so resolve one through the email lookup first
+  id=""
+  until [[ -n "$id" ]]; do
+    id="$(curl -sf "$BASE_URL?email=alice@example.com" | sed -n 's/.*"id":"\([^"]*\)".*/\1/p' || true)"
+    [[ -n "$id" ]] || sleep 0.05
+  done
+  until curl -sf -o /dev/null "$BASE_URL/$id"; do sleep 0.01; done
+  elapsed=$(( $(now_ms) - start ))
+  rss="$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")"
+
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  printf '%-14s first GET /customers/{id}: %6d ms   RSS: %7d KB\n' "$label" "$elapsed" "$rss"
+}
+
+for ((i = 1; i <= RUNS; i++)); do
+  measure "plain" -jar "$PLAIN_JAR"
+  measure "aot+appcds" -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=fast-startup -jar "$FAST_JAR"
+done
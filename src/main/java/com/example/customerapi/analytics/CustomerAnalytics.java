@@ -0,0 +1,361 @@
+package com.example.customerapi.analytics;
+
+import com.example.customerapi.dto.AnalyticsSnapshotStatus;
+import com.example.customerapi.dto.MonthlySpend;
+import com.example.customerapi.dto.MonthlySpendReport;
+import com.example.customerapi.dto.SpendBucket;
+import com.example.customerapi.dto.SpendHistogram;
+import com.example.customerapi.dto.TierDistribution;
+import com.example.customerapi.dto.TierShift;
+import com.example.customerapi.dto.TierSimulation;
+import com.example.customerapi.exception.RefreshThrottledException;
+import com.example.customerapi.exception.SnapshotUnavailableException;
+import com.example.customerapi.tier.TierEvaluator;
+import com.example.customerapi.tier.TierRuleSet;
+import com.example.customerapi.tier.TierRules;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Spend and tier aggregations for ad hoc analysis, answered from a {@link CustomerColumns} snapshot
+ * instead of SQL against the CUSTOMER table, so a report over millions of customers costs one table
+ * scan per refresh rather than one per query. The snapshot is built in the background at startup and
+ * then every {@code customer.analytics.refresh-interval-ms}; queries before the first build are refused
+ * rather than made to wait for it, and responses carry the time it was taken. A manual refresh is
+ * refused while one is running or within {@code customer.analytics.min-manual-refresh-interval-ms} of the last.
+ * Scans run on a fork-join pool of {@code customer.analytics.parallelism} threads. The snapshot reads
+ * CUSTOMER_ARCHIVE along with CUSTOMER, so a tier rule with a long or no recency window still sees the
+ * customers the archival job has moved out.
+ */
+@Service
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class CustomerAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAnalytics.class);
+
+    public static final List<BigDecimal> DEFAULT_EDGES = List.of(BigDecimal.ZERO, BigDecimal.valueOf(100),
+            BigDecimal.valueOf(500), BigDecimal.valueOf(1_000), BigDecimal.valueOf(2_500), BigDecimal.valueOf(5_000),
+            BigDecimal.valueOf(10_000), BigDecimal.valueOf(25_000), BigDecimal.valueOf(50_000), BigDecimal.valueOf(100_000));
+    public static final List<Double> DEFAULT_PERCENTILES = List.of(50.0, 90.0, 99.0);
+
+    private static final int MAX_MONTHS = 1200;
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TierRules tierRules;
+    private final ForkJoinPool pool;
+    private final ParallelScan scan;
+    private final long minManualRefreshMillis;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile CustomerColumns snapshot;
+
+    public CustomerAnalytics(JdbcTemplate jdbcTemplate,
+                             TierRules tierRules,
+                             @Value("${customer.analytics.parallelism:0}") int parallelism,
+                             @Value("${customer.analytics.min-manual-refresh-interval-ms:60000}") long minManualRefreshMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tierRules = tierRules;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.scan = new ParallelScan(pool);
+        this.minManualRefreshMillis = minManualRefreshMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // The first run builds the snapshot right after startup, off the request threads
+    @Scheduled(initialDelay = 0, fixedDelayString = "${customer.analytics.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Reads spend and last purchase date of every customer, archived or not, into a new snapshot and
+     * swaps it in. Queries keep reading the previous snapshot while the new one is built.
+     */
+    public AnalyticsSnapshotStatus refresh() {
+        refreshLock.lock();
+        try {
+            return build();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * A {@link #refresh} asked for by a client: refused instead of queued while a build is running, and
+     * within {@code customer.analytics.min-manual-refresh-interval-ms} of the last build.
+     */
+    public AnalyticsSnapshotStatus requestRefresh() {
+        if (!refreshLock.tryLock()) {
+            throw new RefreshThrottledException("An analytics snapshot is already being built", 1);
+        }
+        try {
+            CustomerColumns columns = snapshot;
+            if (columns != null) {
+                long waitMillis = minManualRefreshMillis - Duration.between(columns.builtAt(), Instant.now()).toMillis();
+                if (waitMillis > 0) {
+                    throw new RefreshThrottledException("The analytics snapshot was refreshed recently",
+                            (waitMillis + 999) / 1000);
+                }
+            }
+            return build();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private AnalyticsSnapshotStatus build() {
+        long start = System.nanoTime();
+        int expected = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM customer) + (SELECT COUNT(*) FROM customer_archive)", Integer.class);
+        Columns columns = new Columns(expected + 1024);
+        // One statement reads both tables as of the same moment, so a customer being archived or restored
+        // is counted exactly once
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT annual_spend, last_purchase_date FROM customer "
+                    + "UNION ALL SELECT annual_spend, last_purchase_date FROM customer_archive");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            BigDecimal spend = rs.getBigDecimal(1);
+            LocalDate date = rs.getObject(2, LocalDate.class);
+            columns.add(spend == null ? 0 : toCents(spend),
+                    date == null ? CustomerColumns.NO_DATE : Math.toIntExact(date.toEpochDay()));
+        });
+        CustomerColumns built = CustomerColumns.of(columns.spendCents, columns.epochDays, columns.size, Instant.now(),
+                (System.nanoTime() - start) / 1_000_000);
+        snapshot = built;
+        logger.info("Built analytics snapshot of {} customers in {} ms", built.size(), built.buildMillis());
+        return status(built);
+    }
+
+    public AnalyticsSnapshotStatus status() {
+        return status(current());
+    }
+
+    /**
+     * Customers per spend bucket; {@code edges} are the ascending lower bounds of the buckets, and
+     * customers below the first one are not counted in any bucket.
+     */
+    public SpendHistogram spendHistogram(LocalDate from, LocalDate to, List<BigDecimal> edges) {
+        validateWindow(from, to);
+        if (edges.isEmpty()) {
+            throw new IllegalArgumentException("At least one bucket edge is required");
+        }
+        for (int i = 1; i < edges.size(); i++) {
+            if (edges.get(i).compareTo(edges.get(i - 1)) <= 0) {
+                throw new IllegalArgumentException("Bucket edges must be ascending");
+            }
+        }
+        CustomerColumns columns = current();
+        int lo = columns.from(from);
+        int hi = columns.to(to);
+        long[] atLeast = edges.stream()
+                .mapToLong(edge -> columns.countAtLeast(scan, toCents(edge), lo, hi))
+                .toArray();
+        List<SpendBucket> buckets = new ArrayList<>(edges.size());
+        for (int i = 0; i < edges.size(); i++) {
+            boolean last = i == edges.size() - 1;
+            buckets.add(new SpendBucket(edges.get(i), last ? null : edges.get(i + 1),
+                    atLeast[i] - (last ? 0 : atLeast[i + 1])));
+        }
+        return new SpendHistogram(from, to, Math.max(0, hi - lo), buckets, columns.builtAt());
+    }
+
+    /**
+     * Customer count, summed spend and nearest-rank spend percentiles for each calendar month of last
+     * purchase in {@code [from, to]}; the window defaults to the first and last purchase in the snapshot.
+     */
+    public MonthlySpendReport monthlySpend(LocalDate from, LocalDate to, List<Double> percentiles) {
+        validateWindow(from, to);
+        for (double p : percentiles) {
+            if (!(p > 0 && p <= 100)) {
+                throw new IllegalArgumentException("Percentiles must be above 0 and at most 100");
+            }
+        }
+        CustomerColumns columns = current();
+        LocalDate first = from != null ? from : columns.firstDate();
+        LocalDate last = to != null ? to : columns.lastDate();
+        if (first == null || last == null || first.isAfter(last)) {
+            return new MonthlySpendReport(from, to, List.of(), columns.builtAt());
+        }
+        YearMonth firstMonth = YearMonth.from(first);
+        long monthCount = ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(last)) + 1;
+        if (monthCount > MAX_MONTHS) {
+            throw new IllegalArgumentException("At most " + MAX_MONTHS + " months per report");
+        }
+        // Months are independent slices; their percentile sorts run side by side
+        List<MonthlySpend> months = pool.submit(() -> IntStream.range(0, (int) monthCount).parallel()
+                .mapToObj(m -> {
+                    YearMonth month = firstMonth.plusMonths(m);
+                    int lo = columns.from(max(first, month.atDay(1)));
+                    int hi = columns.to(min(last, month.atEndOfMonth()));
+                    return monthlySpend(columns, month, lo, hi, percentiles);
+                })
+                .toList()).join();
+        return new MonthlySpendReport(first, last, months, columns.builtAt());
+    }
+
+    /**
+     * Tier counts with the active {@link TierRules} evaluated on {@code asOf} (default today), over the
+     * customers whose last purchase falls in {@code [from, to]}.
+     */
+    public TierDistribution tierDistribution(LocalDate from, LocalDate to, LocalDate asOf) {
+        validateWindow(from, to);
+        TierEvaluator.Day rules = tierRules.evaluator().on(asOf != null ? asOf : LocalDate.now());
+        CustomerColumns columns = current();
+        int lo = tierWindowStart(columns, from, to);
+        int hi = columns.to(to);
+        return new TierDistribution(from, to, rules.asOf(), rules.evaluator().version(), Math.max(0, hi - lo),
+                tierMap(rules.evaluator(), columns.tierCounts(scan, rules, lo, hi)), columns.builtAt());
+    }
+
+    /**
+     * Classifies the same customers as {@link #tierDistribution} under both the active rules and
+     * {@code candidate} in one parallel pass, and reports how many would move between each pair of tiers.
+     */
+    public TierSimulation simulateTiers(TierRuleSet candidate, LocalDate from, LocalDate to, LocalDate asOf) {
+        validateWindow(from, to);
+        long start = System.nanoTime();
+        LocalDate day = asOf != null ? asOf : LocalDate.now();
+        TierEvaluator.Day current = tierRules.evaluator().on(day);
+        TierEvaluator.Day proposed = TierEvaluator.compile(candidate).on(day);
+        CustomerColumns columns = current();
+        int lo = tierWindowStart(columns, from, to);
+        int hi = columns.to(to);
+        long[] shifts = columns.tierShifts(scan, current, proposed, lo, hi);
+
+        TierEvaluator before = current.evaluator();
+        TierEvaluator after = proposed.evaluator();
+        long[] beforeCounts = new long[before.tiers()];
+        long[] afterCounts = new long[after.tiers()];
+        List<TierShift> moves = new ArrayList<>();
+        for (int a = 0; a < before.tiers(); a++) {
+            for (int b = 0; b < after.tiers(); b++) {
+                long customers = shifts[a * after.tiers() + b];
+                beforeCounts[a] += customers;
+                afterCounts[b] += customers;
+                if (customers > 0 && !before.name(a).equals(after.name(b))) {
+                    moves.add(new TierShift(before.name(a), after.name(b), customers));
+                }
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Simulated tier rules {} against {} over {} customers in {} ms", after.version(), before.version(),
+                Math.max(0, hi - lo), millis);
+        return new TierSimulation(from, to, day, Math.max(0, hi - lo), before.version(), tierMap(before, beforeCounts),
+                after.version(), tierMap(after, afterCounts), moves, millis, columns.builtAt());
+    }
+
+    CustomerColumns current() {
+        CustomerColumns columns = snapshot;
+        if (columns == null) {
+            throw new SnapshotUnavailableException("The analytics snapshot is still being built");
+        }
+        return columns;
+    }
+
+    private MonthlySpend monthlySpend(CustomerColumns columns, YearMonth month, int lo, int hi, List<Double> percentiles) {
+        long customers = Math.max(0, hi - lo);
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        if (customers > 0 && !percentiles.isEmpty()) {
+            long[] sorted = columns.sortedSpend(lo, hi);
+            for (double p : percentiles) {
+                int rank = (int) Math.ceil(p / 100 * sorted.length);
+                values.put(percentileKey(p), fromCents(sorted[Math.max(rank, 1) - 1]));
+            }
+        }
+        return new MonthlySpend(month, customers, fromCents(columns.sumCents(scan, lo, hi)), values);
+    }
+
+    // Without a window every customer is counted, including those that never purchased
+    private static int tierWindowStart(CustomerColumns columns, LocalDate from, LocalDate to) {
+        return from == null && to == null ? 0 : columns.from(from);
+    }
+
+    private static Map<String, Long> tierMap(TierEvaluator rules, long[] counts) {
+        Map<String, Long> tiers = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            tiers.put(rules.name(i), counts[i]);
+        }
+        return tiers;
+    }
+
+    private static AnalyticsSnapshotStatus status(CustomerColumns columns) {
+        return new AnalyticsSnapshotStatus(columns.size(), columns.undated(), columns.firstDate(), columns.lastDate(),
+                columns.memoryBytes(), columns.buildMillis(), columns.builtAt());
+    }
+
+    private static void validateWindow(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    static String percentileKey(double p) {
+        return "p" + BigDecimal.valueOf(p).stripTrailingZeros().toPlainString();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // Growable column buffers for the scan
+    private static final class Columns {
+        long[] spendCents;
+        int[] epochDays;
+        int size;
+
+        Columns(int capacity) {
+            spendCents = new long[capacity];
+            epochDays = new int[capacity];
+        }
+
+        void add(long cents, int epochDay) {
+            if (size == spendCents.length) {
+                spendCents = Arrays.copyOf(spendCents, size + (size >> 1) + 1);
+                epochDays = Arrays.copyOf(epochDays, spendCents.length);
+            }
+            spendCents[size] = cents;
+            epochDays[size++] = epochDay;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.customerapi.analytics;
+
+import com.example.customerapi.tier.TierEvaluator;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable column snapshot of every customer's spend and last purchase date, held in two primitive
+ * arrays: spend in cents and the purchase date as an epoch day. Rows are sorted by date, customers
+ * that never purchased first, so any date window or calendar month is one contiguous index range
+ * found by binary search, and the aggregations are plain loops over a slice of a {@code long[]}
+ * without per-row filtering. The counting and summing loops have no branches so that the JIT can
+ * vectorize them.
+ */
+public final class CustomerColumns {
+
+    // Epoch day of customers without a purchase date; sorts before every real date
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final long[] spendCents;
+    private final int[] epochDays;
+    private final int firstDated;
+    private final Instant builtAt;
+    private final long buildMillis;
+
+    private CustomerColumns(long[] spendCents, int[] epochDays, Instant builtAt, long buildMillis) {
+        this.spendCents = spendCents;
+        this.epochDays = epochDays;
+        this.firstDated = lowerBound(NO_DATE + 1L);
+        this.builtAt = builtAt;
+        this.buildMillis = buildMillis;
+    }
+
+    /**
+     * Sorts the first {@code size} rows of the given arrays by date into a new snapshot. Customers
+     * without a spend are stored with 0, those without a date with {@link #NO_DATE}.
+     */
+    static CustomerColumns of(long[] spendCents, int[] epochDays, int size, Instant builtAt, long buildMillis) {
+        // The date in the high half and the row in the low half: one primitive sort orders both columns
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) epochDays[i] << 32) | i;
+        }
+        Arrays.parallelSort(order);
+        long[] sortedSpend = new long[size];
+        int[] sortedDays = new int[size];
+        for (int i = 0; i < size; i++) {
+            int row = (int) order[i];
+            sortedSpend[i] = spendCents[row];
+            sortedDays[i] = epochDays[row];
+        }
+        return new CustomerColumns(sortedSpend, sortedDays, builtAt, buildMillis);
+    }
+
+    public int size() {
+        return spendCents.length;
+    }
+
+    /**
+     * @return customers without a last purchase date
+     */
+    public int undated() {
+        return firstDated;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    public long buildMillis() {
+        return buildMillis;
+    }
+
+    public long memoryBytes() {
+        return spendCents.length * (long) (Long.BYTES + Integer.BYTES);
+    }
+
+    public LocalDate firstDate() {
+        return firstDated < epochDays.length ? LocalDate.ofEpochDay(epochDays[firstDated]) : null;
+    }
+
+    public LocalDate lastDate() {
+        return firstDated < epochDays.length ? LocalDate.ofEpochDay(epochDays[epochDays.length - 1]) : null;
+    }
+
+    /**
+     * @return the first row dated on or after {@code date}, or the first dated row for {@code null}
+     */
+    public int from(LocalDate date) {
+        return date == null ? firstDated : lowerBound(date.toEpochDay());
+    }
+
+    /**
+     * @return the row after the last one dated on or before {@code date}, or {@link #size()} for {@code null}
+     */
+    public int to(LocalDate date) {
+        return date == null ? epochDays.length : lowerBound(date.toEpochDay() + 1);
+    }
+
+    /**
+     * Rows {@code [from, to)} with at least {@code thresholdCents} spend, counted in parallel on {@code scan}.
+     */
+    long countAtLeast(ParallelScan scan, long thresholdCents, int from, int to) {
+        return scan.sum(from, to, (lo, hi) -> {
+            long count = 0;
+            for (int i = lo; i < hi; i++) {
+                count += ((spendCents[i] - thresholdCents) >>> 63) ^ 1;
+            }
+            return count;
+        });
+    }
+
+    long sumCents(ParallelScan scan, int from, int to) {
+        return scan.sum(from, to, (lo, hi) -> {
+            long sum = 0;
+            for (int i = lo; i < hi; i++) {
+                sum += spendCents[i];
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Customers of rows {@code [from, to)} per tier of {@code rules}.
+     */
+    long[] tierCounts(ParallelScan scan, TierEvaluator.Day rules, int from, int to) {
+        return scan.counts(from, to, rules.evaluator().tiers(), (lo, hi, counts) -> {
+            for (int i = lo; i < hi; i++) {
+                counts[rules.tier(spendCents[i], epochDays[i])]++;
+            }
+        });
+    }
+
+    /**
+     * Customers of rows {@code [from, to)} per pair of tiers, at {@code [a * candidate tiers + b]} for tier
+     * {@code a} of {@code current} and tier {@code b} of {@code candidate}.
+     */
+    long[] tierShifts(ParallelScan scan, TierEvaluator.Day current, TierEvaluator.Day candidate, int from, int to) {
+        int width = candidate.evaluator().tiers();
+        return scan.counts(from, to, current.evaluator().tiers() * width, (lo, hi, counts) -> {
+            for (int i = lo; i < hi; i++) {
+                counts[current.tier(spendCents[i], epochDays[i]) * width + candidate.tier(spendCents[i], epochDays[i])]++;
+            }
+        });
+    }
+
+    /**
+     * @return the spend of rows {@code [from, to)} in ascending order
+     */
+    long[] sortedSpend(int from, int to) {
+        long[] slice = Arrays.copyOfRange(spendCents, from, to);
+        Arrays.sort(slice);
+        return slice;
+    }
+
+    private int lowerBound(long epochDay) {
+        int lo = 0;
+        int hi = epochDays.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
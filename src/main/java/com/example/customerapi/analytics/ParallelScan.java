@@ -0,0 +1,77 @@
+package com.example.customerapi.analytics;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Splits an index range into chunks and runs a kernel over them on a dedicated fork-join pool, so
+ * analytics scans never compete with request threads for the common pool.
+ */
+final class ParallelScan {
+
+    @FunctionalInterface
+    interface RangeKernel {
+        long apply(int from, int to);
+    }
+
+    @FunctionalInterface
+    interface CountKernel {
+        // Adds the counts for rows [from, to) into counts
+        void apply(int from, int to, long[] counts);
+    }
+
+    // Small ranges are not worth a fork
+    private static final int MIN_CHUNK = 1 << 16;
+
+    private final ForkJoinPool pool;
+
+    ParallelScan(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    long sum(int from, int to, RangeKernel kernel) {
+        int length = to - from;
+        if (length <= 0) {
+            return 0;
+        }
+        int chunks = Math.min(pool.getParallelism() * 4, (length + MIN_CHUNK - 1) / MIN_CHUNK);
+        if (chunks <= 1) {
+            return kernel.apply(from, to);
+        }
+        long chunkSize = (length + chunks - 1) / chunks;
+        return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .mapToLong(c -> kernel.apply(from + (int) (c * chunkSize), (int) Math.min(to, from + (c + 1) * chunkSize)))
+                .sum()).join();
+    }
+
+    /**
+     * Runs {@code kernel} over the chunks with one counter array of {@code width} per chunk, and adds them up.
+     */
+    long[] counts(int from, int to, int width, CountKernel kernel) {
+        int length = to - from;
+        long[] total = new long[width];
+        if (length <= 0) {
+            return total;
+        }
+        int chunks = Math.min(pool.getParallelism() * 4, (length + MIN_CHUNK - 1) / MIN_CHUNK);
+        if (chunks <= 1) {
+            kernel.apply(from, to, total);
+            return total;
+        }
+        long chunkSize = (length + chunks - 1) / chunks;
+        List<long[]> parts = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    long[] counts = new long[width];
+                    kernel.apply(from + (int) (c * chunkSize), (int) Math.min(to, from + (c + 1) * chunkSize), counts);
+                    return counts;
+                })
+                .toList()).join();
+        for (long[] part : parts) {
+            for (int i = 0; i < width; i++) {
+                total[i] += part[i];
+            }
+        }
+        return total;
+    }
+}
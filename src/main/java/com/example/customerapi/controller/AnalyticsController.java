@@ -0,0 +1,99 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.analytics.CustomerAnalytics;
+import com.example.customerapi.dto.AnalyticsSnapshotStatus;
+import com.example.customerapi.dto.MonthlySpendReport;
+import com.example.customerapi.dto.SpendHistogram;
+import com.example.customerapi.dto.TierDistribution;
+import com.example.customerapi.dto.TierSimulation;
+import com.example.customerapi.tier.TierRuleSet;
+import com.example.customerapi.tier.TierRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private final CustomerAnalytics analytics;
+    private final TierRules tierRules;
+
+    public AnalyticsController(CustomerAnalytics analytics, TierRules tierRules) {
+        this.analytics = analytics;
+        this.tierRules = tierRules;
+    }
+
+    // GET /analytics/snapshot
+    @GetMapping("/snapshot")
+    public ResponseEntity<AnalyticsSnapshotStatus> getSnapshot() {
+        return ResponseEntity.ok(analytics.status());
+    }
+
+    // POST /analytics/snapshot
+    @PostMapping("/snapshot")
+    public ResponseEntity<AnalyticsSnapshotStatus> refreshSnapshot() {
+        logger.info("Refreshing analytics snapshot on request");
+        return ResponseEntity.ok(analytics.requestRefresh());
+    }
+
+    // GET /analytics/spend-histogram?from=2025-01-01&to=2025-06-30&edges=0,1000,10000
+    @GetMapping("/spend-histogram")
+    public ResponseEntity<SpendHistogram> getSpendHistogram(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<BigDecimal> edges) {
+        return ResponseEntity.ok(analytics.spendHistogram(from, to, edges != null ? edges : CustomerAnalytics.DEFAULT_EDGES));
+    }
+
+    // GET /analytics/monthly-spend?from=2024-07-01&to=2025-06-30&percentiles=50,90,99
+    @GetMapping("/monthly-spend")
+    public ResponseEntity<MonthlySpendReport> getMonthlySpend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Double> percentiles) {
+        return ResponseEntity.ok(analytics.monthlySpend(from, to,
+                percentiles != null ? percentiles : CustomerAnalytics.DEFAULT_PERCENTILES));
+    }
+
+    // GET /analytics/tiers?from=2025-01-01&to=2025-06-30&asOf=2025-07-01
+    @GetMapping("/tiers")
+    public ResponseEntity<TierDistribution> getTierDistribution(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(analytics.tierDistribution(from, to, asOf));
+    }
+
+    // GET /analytics/tiers/rules
+    @GetMapping("/tiers/rules")
+    public ResponseEntity<TierRuleSet> getTierRules() {
+        return ResponseEntity.ok(tierRules.ruleSet());
+    }
+
+    // POST /analytics/tiers/simulate?from=2025-01-01&asOf=2025-07-01 with a candidate rule set as the body
+    @PostMapping("/tiers/simulate")
+    public ResponseEntity<TierSimulation> simulateTiers(
+            @RequestBody TierRuleSet candidate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        logger.info("Simulating tier rules {}", candidate.version());
+        return ResponseEntity.ok(analytics.simulateTiers(candidate, from, to, asOf));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.ArchivalReport;
+import com.example.customerapi.service.ArchivalJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/archive")
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+@ConditionalOnProperty(name = "customer.admin.jobs-enabled", havingValue = "true")
+public class ArchivalController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivalController.class);
+
+    private final ArchivalJob archivalJob;
+
+    public ArchivalController(ArchivalJob archivalJob) {
+        this.archivalJob = archivalJob;
+    }
+
+    // GET /admin/archive
+    @GetMapping
+    public ResponseEntity<ArchivalReport> getLastReport() {
+        ArchivalReport report = archivalJob.lastReport();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+
+    // POST /admin/archive
+    @PostMapping
+    public ResponseEntity<ArchivalReport> run() {
+        logger.info("Running archival on request");
+        return ResponseEntity.ok(archivalJob.run());
+    }
+}
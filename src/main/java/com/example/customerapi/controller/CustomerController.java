@@ -1,15 +1,20 @@
 package com.example.customerapi.controller;
 
+import com.example.customerapi.dto.CustomerField;
 import com.example.customerapi.dto.CustomerRequest;
 import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.dto.SparseCustomerResponse;
 import com.example.customerapi.service.CustomerService;
+import com.example.customerapi.service.IdempotencyStore;
 
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 
 @RestController
@@ -18,28 +23,51 @@ public class CustomerController {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerController.class);
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final CustomerService customerService;
+    private final IdempotencyStore idempotencyStore;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, IdempotencyStore idempotencyStore) {
         this.customerService = customerService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     // POST /customers
     @PostMapping
-    public ResponseEntity<CustomerResponse> createCustomer(@RequestBody CustomerRequest request) {
+    public ResponseEntity<CustomerResponse> createCustomer(@RequestBody CustomerRequest request,
+                                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         logger.info("Creating new customer with name: {}", request.getName());
 
         // Manual email format validation
         String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
         if (!request.getEmail().matches(emailRegex)) {
             logger.warn("Invalid email format received: {}", request.getEmail());
-            return ResponseEntity.badRequest().body(null); // or throw custom exception
+            throw new IllegalArgumentException("Invalid email format: " + request.getEmail());
         }
 
-        CustomerResponse createdCustomer = customerService.createCustomer(request);
+        // Retries with the same key replay the original response instead of creating a duplicate
+        CustomerResponse createdCustomer = idempotencyKey == null || idempotencyKey.isBlank()
+                ? create(request)
+                : idempotencyStore.execute(idempotencyKey, request, () -> create(request));
         return new ResponseEntity<>(createdCustomer, HttpStatus.CREATED);
     }
 
+    private CustomerResponse create(CustomerRequest request) {
+        if (!customerService.isGroupCommitEnabled()) {
+            return customerService.createCustomer(request);
+        }
+        // The request thread waits for the batch commit, so the response is unchanged: 201 once it is durable
+        try {
+            return customerService.submitCustomer(request).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
 
     // GET /customers/{id}
     @GetMapping("/{id}")
@@ -65,7 +93,37 @@ public class CustomerController {
             return ResponseEntity.ok(customerService.getByEmail(email));
         } else {
             logger.warn("No query parameters provided for customer fetch");
-            return ResponseEntity.badRequest().body(null); // Or throw a custom exception
+            throw new IllegalArgumentException("Name or email must be provided");
+        }
+    }
+
+    // GET /customers/{id}?fields=id,tier
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<SparseCustomerResponse> getCustomerFieldsById(@PathVariable UUID id,
+                                                                        @RequestParam String fields) {
+        logger.info("Fetching fields {} of customer by ID: {}", fields, id);
+        return ResponseEntity.ok(customerService.getFieldsById(id, CustomerField.parse(fields)));
+    }
+
+    // GET /customers?name={name}&email={email}&fields=id,tier
+    @GetMapping(params = "fields")
+    public ResponseEntity<SparseCustomerResponse> getCustomerFields(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam String fields) {
+
+        logger.info("Fetching fields {} of customer by query params: name={}, email={}", fields, name, email);
+        Set<CustomerField> requested = CustomerField.parse(fields);
+
+        if (name != null && email != null) {
+            return ResponseEntity.ok(customerService.getFieldsByNameAndEmail(name, email, requested));
+        } else if (name != null) {
+            return ResponseEntity.ok(customerService.getFieldsByName(name, requested));
+        } else if (email != null) {
+            return ResponseEntity.ok(customerService.getFieldsByEmail(email, requested));
+        } else {
+            logger.warn("No query parameters provided for customer fetch");
+            throw new IllegalArgumentException("Name or email must be provided");
         }
     }
 
@@ -87,10 +145,5 @@ public class CustomerController {
         logger.info("Customer deleted successfully");
         return ResponseEntity.noContent().build();
     }
-
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
-        return ResponseEntity.badRequest().body(ex.getMessage());
-    }
 }
 
@@ -0,0 +1,43 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.DeduplicationReport;
+import com.example.customerapi.service.DeduplicationJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/dedup")
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+@ConditionalOnProperty(name = "customer.admin.jobs-enabled", havingValue = "true")
+public class DeduplicationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicationController.class);
+
+    private final DeduplicationJob deduplicationJob;
+
+    public DeduplicationController(DeduplicationJob deduplicationJob) {
+        this.deduplicationJob = deduplicationJob;
+    }
+
+    // GET /admin/dedup
+    @GetMapping
+    public ResponseEntity<DeduplicationReport> getLastReport() {
+        DeduplicationReport report = deduplicationJob.lastReport();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+
+    // POST /admin/dedup?apply=true
+    @PostMapping
+    public ResponseEntity<DeduplicationReport> run(@RequestParam(defaultValue = "false") boolean apply) {
+        logger.info("Running deduplication on request (apply={})", apply);
+        return ResponseEntity.ok(deduplicationJob.run(apply));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.EmailFilterStats;
+import com.example.customerapi.service.EmailMembershipFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/email-filter")
+public class EmailFilterController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailFilterController.class);
+
+    private final EmailMembershipFilter emailFilter;
+
+    public EmailFilterController(EmailMembershipFilter emailFilter) {
+        this.emailFilter = emailFilter;
+    }
+
+    // GET /admin/email-filter
+    @GetMapping
+    public ResponseEntity<EmailFilterStats> getStats() {
+        return ResponseEntity.ok(emailFilter.stats());
+    }
+
+    // POST /admin/email-filter/rebuild
+    @PostMapping("/rebuild")
+    public ResponseEntity<EmailFilterStats> rebuild() {
+        logger.info("Rebuilding email filter on request");
+        emailFilter.rebuild();
+        return ResponseEntity.ok(emailFilter.stats());
+    }
+}
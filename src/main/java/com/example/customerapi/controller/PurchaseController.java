@@ -0,0 +1,44 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.PurchaseRequest;
+import com.example.customerapi.exception.NotFoundException;
+import com.example.customerapi.service.CustomerService;
+import com.example.customerapi.service.PurchaseRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/customers/{id}/purchases")
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class PurchaseController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseController.class);
+
+    private final CustomerService customerService;
+    private final PurchaseRecorder purchaseRecorder;
+
+    public PurchaseController(CustomerService customerService, PurchaseRecorder purchaseRecorder) {
+        this.customerService = customerService;
+        this.purchaseRecorder = purchaseRecorder;
+    }
+
+    // POST /customers/{id}/purchases
+    @PostMapping
+    public ResponseEntity<Void> recordPurchase(@PathVariable UUID id, @RequestBody PurchaseRequest request) {
+        logger.debug("Recording purchase of {} for customer ID: {}", request.getAmount(), id);
+        if (!customerService.customerExists(id)) {
+            throw new NotFoundException("Customer not found");
+        }
+        purchaseRecorder.record(id, request.getAmount(), request.getPurchaseDate());
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.SegmentCount;
+import com.example.customerapi.dto.SegmentPage;
+import com.example.customerapi.dto.SegmentQuery;
+import com.example.customerapi.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/customers/segment")
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class SegmentController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentController.class);
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    public SegmentController(CustomerService customerService, ObjectMapper objectMapper) {
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+    }
+
+    // GET /customers/segment?from=2025-01-01&minSpend=1000&maxSpend=5000&limit=100&after={next}
+    @GetMapping
+    public ResponseEntity<SegmentPage> getSegment(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BigDecimal minSpend,
+            @RequestParam(required = false) BigDecimal maxSpend,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(customerService.getSegment(new SegmentQuery(from, to, minSpend, maxSpend), after, limit));
+    }
+
+    // GET /customers/segment/count?from=2025-01-01&minSpend=1000
+    @GetMapping("/count")
+    public ResponseEntity<SegmentCount> countSegment(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BigDecimal minSpend,
+            @RequestParam(required = false) BigDecimal maxSpend) {
+        SegmentQuery query = new SegmentQuery(from, to, minSpend, maxSpend);
+        return ResponseEntity.ok(new SegmentCount(query, customerService.countSegment(query)));
+    }
+
+    // GET /customers/segment/stream?from=2025-01-01&minSpend=1000 (one customer per line)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamSegment(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BigDecimal minSpend,
+            @RequestParam(required = false) BigDecimal maxSpend) {
+        SegmentQuery query = new SegmentQuery(from, to, minSpend, maxSpend);
+        // Checked up front, so a bad request is a 400 rather than a broken stream
+        CustomerService.validateSegment(query);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                long customers = customerService.streamSegment(query, page -> {
+                    try {
+                        writer.writeAll(page);
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                logger.info("Streamed segment {} of {} customers", query, customers);
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.ShardStats;
+import com.example.customerapi.repository.ShardedCustomerStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/shards")
+@ConditionalOnProperty(name = "customer.store.type", havingValue = "sharded")
+public class ShardController {
+
+    private final ShardedCustomerStore store;
+
+    public ShardController(ShardedCustomerStore store) {
+        this.store = store;
+    }
+
+    // GET /admin/shards
+    @GetMapping
+    public ResponseEntity<List<ShardStats>> getStats() {
+        return ResponseEntity.ok(store.stats());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.BackupResponse;
+import com.example.customerapi.service.StorageBackupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/storage")
+@Profile("file")
+public class StorageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageController.class);
+
+    private final StorageBackupService backupService;
+
+    public StorageController(StorageBackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    // POST /admin/storage/backups
+    @PostMapping("/backups")
+    public ResponseEntity<BackupResponse> createBackup() {
+        logger.info("Starting online backup");
+        return new ResponseEntity<>(backupService.backup(), HttpStatus.CREATED);
+    }
+
+    // GET /admin/storage/backups
+    @GetMapping("/backups")
+    public ResponseEntity<List<BackupResponse>> listBackups() {
+        return ResponseEntity.ok(backupService.listBackups());
+    }
+}
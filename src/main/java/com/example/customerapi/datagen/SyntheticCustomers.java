@@ -0,0 +1,131 @@
+package com.example.customerapi.datagen;
+
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic source of realistic customers. Customer {@code n} depends only on the seed, the
+ * reference date and {@code n}, so any range can be generated on any thread in any order and the
+ * data set is the same however the load is split.
+ * <p>
+ * Ids are version 7 UUIDs ten seconds apart from 2018-01-01, so they increase with {@code n}. Names
+ * favour common first and last names. Emails are unique: a common address pattern, the index and a
+ * domain weighted towards the big webmail providers. Spend is log-normal around 1,200 with a long
+ * tail (about 3% at 10,000 or more), and 8% of customers have never purchased. Purchase dates are
+ * mostly recent, with a tail spread over the six years before {@code asOf}.
+ */
+public final class SyntheticCustomers {
+
+    private static final long EPOCH_MILLIS = LocalDate.of(2018, 1, 1).atStartOfDay(ZoneOffset.UTC)
+            .toInstant().toEpochMilli();
+    private static final long ID_SPACING_MILLIS = 10_000;
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Sandra", "Mark", "Ashley", "Steven", "Emily",
+            "Andrew", "Michelle", "Joshua", "Amanda", "Kevin", "Melissa", "Brian", "Stephanie", "Wei", "Priya",
+            "Mohammed", "Fatima", "Carlos", "Sofia", "Hiroshi", "Yuki", "Olga", "Ivan", "Aisha", "Kwame",
+            "Lucas", "Chloe", "Mateo", "Ines", "Noah", "Emma", "Liam", "Olivia", "Arjun", "Ananya"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Nguyen", "Hill", "Flores", "Green",
+            "Chen", "Wang", "Kim", "Patel", "Singh", "Kumar", "Tanaka", "Sato", "Muller", "Schmidt",
+            "Rossi", "Silva", "Santos", "Novak", "Ivanov", "Okafor", "Mensah", "Dubois", "Jensen", "Kowalski"
+    };
+
+    private static final String[] DOMAINS = {
+            "gmail.com", "yahoo.com", "outlook.com", "hotmail.com", "icloud.com", "aol.com", "proton.me",
+            "gmx.de", "orange.fr", "comcast.net", "acme-corp.com", "globex.com", "initech.io", "example.org"
+    };
+    // Cumulative, out of 100
+    private static final int[] DOMAIN_WEIGHTS = {38, 50, 59, 66, 72, 74, 76, 79, 81, 84, 89, 94, 97, 100};
+
+    private static final double NEVER_PURCHASED = 0.08;
+    private static final double MEDIAN_SPEND = 1_200;
+    private static final double SPEND_SIGMA = 1.1;
+    private static final double MAX_SPEND = 5_000_000;
+    private static final double RECENT_BUYERS = 0.7;
+    private static final double RECENT_MEAN_DAYS = 120;
+    private static final int HISTORY_DAYS = 6 * 365;
+
+    private final long seed;
+    private final LocalDate asOf;
+
+    /**
+     * @param asOf the day purchase dates count back from; fix it for data that does not change from day to day
+     */
+    public SyntheticCustomers(long seed, LocalDate asOf) {
+        this.seed = seed;
+        this.asOf = asOf;
+    }
+
+    public Customer customer(long n) {
+        SplittableRandom random = new SplittableRandom(mix(seed * 0x9E3779B97F4A7C15L + n));
+        String first = skewed(FIRST_NAMES, random);
+        String last = skewed(LAST_NAMES, random);
+        Customer customer = new Customer();
+        customer.setId(TimeOrderedUuidGenerator.fromMillis(EPOCH_MILLIS + n * ID_SPACING_MILLIS, random));
+        customer.setName(first + " " + last);
+        customer.setEmail(localPart(first.toLowerCase(), last.toLowerCase(), random) + n + "@" + domain(random));
+        if (random.nextDouble() >= NEVER_PURCHASED) {
+            customer.setAnnualSpend(spend(random));
+            customer.setLastPurchaseDate(asOf.minusDays(daysSincePurchase(random)));
+        }
+        return customer;
+    }
+
+    // Low indexes are picked more often, so the first names in each list are the common ones
+    private static String skewed(String[] values, SplittableRandom random) {
+        double u = random.nextDouble();
+        return values[(int) (values.length * u * u)];
+    }
+
+    private static String localPart(String first, String last, SplittableRandom random) {
+        return switch (random.nextInt(5)) {
+            case 0 -> first + "." + last;
+            case 1 -> first + last;
+            case 2 -> first.charAt(0) + last;
+            case 3 -> first + "_" + last;
+            default -> first;
+        };
+    }
+
+    private static String domain(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        int i = 0;
+        while (roll >= DOMAIN_WEIGHTS[i]) {
+            i++;
+        }
+        return DOMAINS[i];
+    }
+
+    private static BigDecimal spend(SplittableRandom random) {
+        double spend = Math.min(MAX_SPEND, MEDIAN_SPEND * Math.exp(SPEND_SIGMA * random.nextGaussian()));
+        return BigDecimal.valueOf(spend).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static long daysSincePurchase(SplittableRandom random) {
+        if (random.nextDouble() < RECENT_BUYERS) {
+            return Math.min(HISTORY_DAYS, (long) (-RECENT_MEAN_DAYS * Math.log(1 - random.nextDouble())));
+        }
+        return random.nextInt(HISTORY_DAYS + 1);
+    }
+
+    // MurmurHash3 finalizer, so that neighbouring indexes get unrelated streams
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB93FE53A0E85L;
+        return z ^ (z >>> 33);
+    }
+}
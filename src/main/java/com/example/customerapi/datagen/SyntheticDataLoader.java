@@ -0,0 +1,205 @@
+package com.example.customerapi.datagen;
+
+import com.example.customerapi.entity.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads {@code customer.datagen.rows} customers from {@link SyntheticCustomers} into the CUSTOMER
+ * table. Producers on {@code customer.datagen.parallelism} threads each hold one connection and claim
+ * chunks of 10,000 consecutive customers, which are generated in place and inserted as JDBC batches of
+ * {@code customer.datagen.batch-size} rows with one commit per chunk. Ids grow with the customer index,
+ * so every chunk appends to the primary-key index instead of splitting pages across it.
+ * <p>
+ * Runs at startup with {@code customer.datagen.enabled=true} (the {@code synthetic} profile), before the
+ * email filter is built and the warm-up starts. Every chunk is recorded in DATAGEN_CHUNK in the
+ * transaction that inserts it, and a load only generates the rows no recorded chunk covers. A file-backed
+ * store is therefore filled once, and a load that was interrupted continues where it stopped. Customers
+ * deleted, merged or archived since then are not generated again. Tests and benchmarks create the loader
+ * directly and call {@link #load()}.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.datagen.enabled", havingValue = "true")
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class SyntheticDataLoader implements ApplicationRunner, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    private static final String INSERT = "INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) VALUES (?, ?, ?, ?, ?)";
+    private static final String RECORD_CHUNK = "MERGE INTO datagen_chunk (seed, chunk, end_row) KEY (seed, chunk) VALUES (?, ?, ?)";
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int PROGRESS_CHUNKS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SyntheticCustomers customers;
+    private final long seed;
+    private final long rows;
+    private final int parallelism;
+    private final int batchSize;
+
+    public SyntheticDataLoader(JdbcTemplate jdbcTemplate,
+                               @Value("${customer.datagen.rows:1000000}") long rows,
+                               @Value("${customer.datagen.seed:42}") long seed,
+                               @Value("${customer.datagen.as-of:}") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+                               @Value("${customer.datagen.parallelism:0}") int parallelism,
+                               @Value("${customer.datagen.batch-size:1000}") int batchSize) {
+        if (rows < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("Rows must not be negative and the batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.customers = new SyntheticCustomers(seed, asOf != null ? asOf : LocalDate.now());
+        this.seed = seed;
+        this.rows = rows;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        load();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * @return the number of customers inserted, 0 when every chunk had already been loaded
+     */
+    public long load() {
+        List<Range> pending = pendingRanges();
+        if (pending.isEmpty()) {
+            logger.info("Skipping synthetic data: all {} customers were already loaded", rows);
+            return 0;
+        }
+        long start = System.nanoTime();
+        int chunks = pending.size();
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicLong inserted = new AtomicLong();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService producers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "customer-datagen-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                running.add(producers.submit(() -> produce(pending, nextChunk, inserted)));
+            }
+            for (Future<?> producer : running) {
+                producer.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException("Synthetic data load failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading synthetic data", e);
+        } finally {
+            nextChunk.set(chunks);
+            producers.shutdownNow();
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Loaded {} synthetic customers in {} ms ({} rows/s) on {} threads",
+                inserted.get(), millis, inserted.get() * 1000 / millis, parallelism);
+        return inserted.get();
+    }
+
+    /**
+     * The rows of each chunk up to {@code rows} that no earlier load recorded, in chunk order.
+     */
+    private List<Range> pendingRanges() {
+        long chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        Map<Long, Long> loaded = new HashMap<>();
+        jdbcTemplate.query("SELECT chunk, end_row FROM datagen_chunk WHERE seed = ?",
+                (RowCallbackHandler) rs -> loaded.put(rs.getLong(1), rs.getLong(2)), seed);
+        List<Range> pending = new ArrayList<>();
+        for (long chunk = 0; chunk < chunks; chunk++) {
+            long from = Math.max(chunk * CHUNK_SIZE, loaded.getOrDefault(chunk, 0L));
+            long to = Math.min(rows, (chunk + 1) * CHUNK_SIZE);
+            if (from < to) {
+                pending.add(new Range(chunk, from, to));
+            }
+        }
+        return pending;
+    }
+
+    private void produce(List<Range> pending, AtomicInteger nextChunk, AtomicLong inserted) {
+        int chunks = pending.size();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT);
+                 PreparedStatement record = connection.prepareStatement(RECORD_CHUNK)) {
+                for (int i = nextChunk.getAndIncrement(); i < chunks; i = nextChunk.getAndIncrement()) {
+                    Range range = pending.get(i);
+                    long from = range.from();
+                    long to = range.to();
+                    for (long n = from; n < to; n++) {
+                        Customer customer = customers.customer(n);
+                        insert.setObject(1, customer.getId());
+                        insert.setString(2, customer.getName());
+                        insert.setString(3, customer.getEmail());
+                        insert.setBigDecimal(4, customer.getAnnualSpend());
+                        insert.setObject(5, customer.getLastPurchaseDate());
+                        insert.addBatch();
+                        if ((n - from + 1) % batchSize == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                    record.setLong(1, seed);
+                    record.setLong(2, range.chunk());
+                    record.setLong(3, to);
+                    record.executeUpdate();
+                    connection.commit();
+                    long done = inserted.addAndGet(to - from);
+                    if ((i + 1) % PROGRESS_CHUNKS == 0) {
+                        logger.info("Loaded {} of {} synthetic customers", done, rows);
+                    }
+                }
+            } catch (RuntimeException | SQLException e) {
+                // Stop the other producers; chunks already committed stay
+                nextChunk.set(chunks);
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private record Range(long chunk, long from, long to) {
+    }
+}
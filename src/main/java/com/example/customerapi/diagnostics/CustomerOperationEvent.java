@@ -0,0 +1,27 @@
+package com.example.customerapi.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fields shared by the service and repository events; see {@link OperationTimingInterceptor}.
+ */
+@StackTrace(false)
+abstract class CustomerOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Customer Id")
+    @Description("The first UUID argument, if any")
+    String customerId;
+
+    @Label("Row Count")
+    @Description("Customers returned or written; -1 when the result does not say")
+    int rowCount;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,49 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.dto.DiagnosticsReport;
+import com.example.customerapi.dto.RecordingStatus;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/diagnostics}: the slow-request log and on-demand flight recordings.
+ */
+@Component
+@Endpoint(id = "diagnostics")
+@ConditionalOnProperty(name = "customer.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class DiagnosticsEndpoint {
+
+    private static final long DEFAULT_RECORDING_SECONDS = 60;
+
+    private final RequestDiagnosticsFilter requests;
+    private final FlightRecordings recordings;
+
+    public DiagnosticsEndpoint(RequestDiagnosticsFilter requests, FlightRecordings recordings) {
+        this.requests = requests;
+        this.recordings = recordings;
+    }
+
+    // GET /actuator/diagnostics
+    @ReadOperation
+    public DiagnosticsReport diagnostics() {
+        return new DiagnosticsReport(requests.slowRequestThresholdMillis(), requests.slowRequestsSeen(),
+                requests.slowestRequests(), recordings.status());
+    }
+
+    // POST /actuator/diagnostics {"recordSeconds": 60}
+    @WriteOperation
+    public WebEndpointResponse<RecordingStatus> record(@Nullable Long recordSeconds) {
+        long seconds = recordSeconds == null ? DEFAULT_RECORDING_SECONDS : recordSeconds;
+        if (seconds <= 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return recordings.start(seconds)
+                .map(status -> new WebEndpointResponse<>(status, WebEndpointResponse.STATUS_OK))
+                .orElseGet(() -> new WebEndpointResponse<>(recordings.status(), 409));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.dto.RecordingStatus;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * On-demand JFR recordings, one at a time, each stopped after at most
+ * {@code customer.diagnostics.max-recording-seconds} and written to {@code customer.diagnostics.recording-dir}.
+ * Only the latest {@code customer.diagnostics.max-recording-files} recordings are kept there; older ones
+ * are deleted when a new one starts.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecordings {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordings.class);
+
+    private static final String FILE_PREFIX = "customer-api-";
+    private static final String FILE_SUFFIX = ".jfr";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final long maxSeconds;
+    private final String settings;
+    private final int maxFiles;
+
+    // Guarded by this
+    private Recording current;
+
+    public FlightRecordings(@Value("${customer.diagnostics.recording-dir:${java.io.tmpdir}/customer-api-recordings}") String directory,
+                            @Value("${customer.diagnostics.max-recording-seconds:300}") long maxSeconds,
+                            @Value("${customer.diagnostics.recording-settings:profile}") String settings,
+                            @Value("${customer.diagnostics.max-recording-files:5}") int maxFiles) {
+        if (maxFiles <= 0) {
+            throw new IllegalArgumentException("At least one recording file must be kept");
+        }
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.maxSeconds = maxSeconds;
+        this.settings = settings;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Starts a recording of {@code seconds}, capped at the configured maximum; empty if one is already running.
+     */
+    public synchronized Optional<RecordingStatus> start(long seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("Recording length must be positive");
+        }
+        if (current != null && current.getState() == RecordingState.RUNNING) {
+            return Optional.empty();
+        }
+        Recording recording;
+        try {
+            Files.createDirectories(directory);
+            deleteOldRecordings(maxFiles - 1);
+            recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName("customer-api-diagnostics");
+            recording.setDuration(Duration.ofSeconds(Math.min(seconds, maxSeconds)));
+            recording.setDestination(directory.resolve(FILE_PREFIX + FILE_TIME.format(LocalDateTime.now()) + FILE_SUFFIX));
+            recording.start();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not start flight recording", e);
+        }
+        if (current != null) {
+            current.close();
+        }
+        current = recording;
+        logger.info("Started flight recording {} for {} s to {}", recording.getId(),
+                recording.getDuration().toSeconds(), recording.getDestination());
+        return Optional.of(status(recording));
+    }
+
+    /**
+     * The latest recording, or {@code null} if none has been started.
+     */
+    public synchronized RecordingStatus status() {
+        return current == null ? null : status(current);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (current != null) {
+            // Stopping a running recording still writes what it has to the destination
+            if (current.getState() == RecordingState.RUNNING) {
+                current.stop();
+            }
+            current.close();
+            current = null;
+        }
+    }
+
+    // File names carry the start time, so name order is age order
+    private void deleteOldRecordings(int keep) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }).sorted(Comparator.reverseOrder()).toList();
+        }
+        for (Path file : files.subList(Math.min(keep, files.size()), files.size())) {
+            Files.deleteIfExists(file);
+            logger.info("Deleted old flight recording {}", file);
+        }
+    }
+
+    private static RecordingStatus status(Recording recording) {
+        return new RecordingStatus(recording.getId(), recording.getState().name(), recording.getStartTime(),
+                recording.getDuration().toSeconds(), String.valueOf(recording.getDestination()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.customerapi.diagnostics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * Times a service or repository call: a JFR event when the event type is enabled in a running recording,
+ * and a span in the current request's trace when there is one. With neither, the call goes straight through.
+ */
+final class OperationTimingInterceptor implements MethodInterceptor {
+
+    static final String SERVICE = "service";
+    static final String REPOSITORY = "repository";
+
+    private final String layer;
+    private final Supplier<CustomerOperationEvent> events;
+
+    OperationTimingInterceptor(String layer, Supplier<CustomerOperationEvent> events) {
+        this.layer = layer;
+        this.events = events;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CustomerOperationEvent event = events.get();
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null && !event.isEnabled()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            String operation = invocation.getMethod().getName();
+            int rowCount = failed ? -1 : rowCount(result);
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.customerId = customerId(invocation.getArguments());
+                event.rowCount = rowCount;
+                event.failed = failed;
+                event.commit();
+            }
+            if (trace != null) {
+                trace.add(layer, operation, start, System.nanoTime() - start, rowCount, failed);
+            }
+        }
+    }
+
+    static int rowCount(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Boolean found) {
+            return found ? 1 : 0;
+        }
+        // Nothing returned, a count, or a stream or future not yet consumed
+        if (result == null || result instanceof Number || result instanceof BaseStream<?, ?>
+                || result instanceof Future<?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static String customerId(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof UUID id) {
+                return id.toString();
+            }
+        }
+        return null;
+    }
+}
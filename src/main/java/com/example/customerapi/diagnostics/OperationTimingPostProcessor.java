@@ -0,0 +1,68 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.repository.CustomerStore;
+import com.example.customerapi.service.CustomerService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Puts an {@link OperationTimingInterceptor} in front of {@link CustomerService} and of whichever
+ * {@link CustomerStore} is configured. Beans that are already proxies (the transactional service, the
+ * Spring Data repository) get it as their outermost advice, so the time includes the transaction;
+ * others are wrapped in a class-based proxy so they can still be injected by their own type.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class OperationTimingPostProcessor implements BeanPostProcessor {
+
+    private static final Set<String> STORE_METHODS = Arrays.stream(CustomerStore.class.getMethods())
+            .map(Method::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final Advisor serviceAdvisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            // Operations, not the optional-collaborator setters or isGroupCommitEnabled
+            return method.getDeclaringClass() == CustomerService.class && Modifier.isPublic(method.getModifiers())
+                    && !method.getName().startsWith("set") && !method.getName().startsWith("is");
+        }
+    }, new OperationTimingInterceptor(OperationTimingInterceptor.SERVICE, ServiceOperationEvent::new));
+
+    private final Advisor repositoryAdvisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return STORE_METHODS.contains(method.getName());
+        }
+    }, new OperationTimingInterceptor(OperationTimingInterceptor.REPOSITORY, RepositoryCallEvent::new));
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Advisor advisor = bean instanceof CustomerService ? serviceAdvisor
+                : bean instanceof CustomerStore ? repositoryAdvisor : null;
+        if (advisor == null) {
+            return bean;
+        }
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvisor(0, advisor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        // A JDK proxy can only be proxied again through its interfaces
+        proxyFactory.setProxyTargetClass(!Proxy.isProxyClass(bean.getClass()));
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
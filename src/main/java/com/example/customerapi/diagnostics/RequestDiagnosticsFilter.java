@@ -0,0 +1,89 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.dto.SlowRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits a {@link RequestEvent} per customer request and keeps requests slower than
+ * {@code customer.diagnostics.slow-request-ms}, with the service and repository calls they made, in a
+ * ring buffer of {@code customer.diagnostics.slow-request-capacity} entries. Runs after admission
+ * control, so rejected requests are not traced.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "customer.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDiagnosticsFilter extends OncePerRequestFilter {
+
+    private final SlowRequestLog slowRequests;
+
+    public RequestDiagnosticsFilter(@Value("${customer.diagnostics.slow-request-ms:250}") long slowRequestMillis,
+                                    @Value("${customer.diagnostics.slow-request-capacity:50}") int capacity) {
+        this.slowRequests = new SlowRequestLog(slowRequestMillis, capacity);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/customers");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        RequestTrace trace = RequestTrace.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long durationNanos = trace.finish();
+            event.end();
+            boolean slow = slowRequests.isSlow(durationNanos);
+            if (slow || event.shouldCommit()) {
+                String customerId = pathCustomerId(request);
+                if (event.shouldCommit()) {
+                    event.method = request.getMethod();
+                    event.path = request.getRequestURI();
+                    event.status = response.getStatus();
+                    event.customerId = customerId;
+                    event.commit();
+                }
+                if (slow) {
+                    slowRequests.add(trace.toSlowRequest(request.getMethod(), request.getRequestURI(),
+                            response.getStatus(), customerId, durationNanos));
+                }
+            }
+        }
+    }
+
+    long slowRequestThresholdMillis() {
+        return slowRequests.thresholdMillis();
+    }
+
+    long slowRequestsSeen() {
+        return slowRequests.seen();
+    }
+
+    List<SlowRequest> slowestRequests() {
+        return slowRequests.slowest();
+    }
+
+    private static String pathCustomerId(HttpServletRequest request) {
+        // Set by the handler mapping for /customers/{id} routes
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map<?, ?> map && map.get("id") instanceof String id ? id : null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.customerapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request to the customer endpoints, from the first filter to the response being written.
+ */
+@Name("com.example.customerapi.Request")
+@Label("Customer API Request")
+@Category({"Customer API"})
+@StackTrace(false)
+class RequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Customer Id")
+    @Description("The {id} path variable, when the request has one")
+    String customerId;
+}
@@ -0,0 +1,73 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.dto.RequestSpan;
+import com.example.customerapi.dto.SlowRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The service and repository calls made on one request thread, kept for the slow-request log. Only the
+ * thread serving the request touches it.
+ */
+final class RequestTrace {
+
+    // Bounds the memory a request that loops over the repository can take
+    static final int MAX_SPANS = 64;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final List<Span> spans = new ArrayList<>();
+    private int dropped;
+
+    private RequestTrace() {
+    }
+
+    static RequestTrace start() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * The trace of the request being served on this thread, or {@code null} outside a traced request.
+     */
+    static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    long finish() {
+        CURRENT.remove();
+        return System.nanoTime() - startNanos;
+    }
+
+    void add(String layer, String operation, long callStartNanos, long durationNanos, int rowCount, boolean failed) {
+        if (spans.size() < MAX_SPANS) {
+            spans.add(new Span(layer, operation, callStartNanos - startNanos, durationNanos, rowCount, failed));
+        } else {
+            dropped++;
+        }
+    }
+
+    SlowRequest toSlowRequest(String method, String path, int status, String customerId, long durationNanos) {
+        // Calls are recorded as they end, so an outer call comes after the calls it made
+        List<RequestSpan> breakdown = spans.stream()
+                .sorted(Comparator.comparingLong(Span::offsetNanos))
+                .map(span -> new RequestSpan(span.layer(), span.operation(), millis(span.offsetNanos()),
+                        millis(span.durationNanos()), span.rowCount(), span.failed()))
+                .toList();
+        Instant startedAt = Instant.now().minusNanos(durationNanos);
+        return new SlowRequest(startedAt, method, path, status, customerId, millis(durationNanos), breakdown, dropped);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private record Span(String layer, String operation, long offsetNanos, long durationNanos, int rowCount,
+                        boolean failed) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.customerapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.customerapi.ServiceOperation")
+@Label("Customer Service Operation")
+@Category({"Customer API"})
+class ServiceOperationEvent extends CustomerOperationEvent {
+}
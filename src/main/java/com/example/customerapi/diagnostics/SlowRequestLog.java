@@ -0,0 +1,61 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.dto.SlowRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ring buffer of the most recent requests over the slow-request threshold. Requests under it never
+ * reach the lock, so keeping it costs the fast path one comparison.
+ */
+final class SlowRequestLog {
+
+    private final long thresholdNanos;
+    private final SlowRequest[] ring;
+    // Guarded by this
+    private int next;
+    private long seen;
+
+    SlowRequestLog(long thresholdMillis, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow request capacity must be positive");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.ring = new SlowRequest[capacity];
+    }
+
+    boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    long thresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    synchronized void add(SlowRequest request) {
+        ring[next] = request;
+        next = (next + 1) % ring.length;
+        seen++;
+    }
+
+    synchronized long seen() {
+        return seen;
+    }
+
+    /**
+     * The requests still in the buffer, slowest first.
+     */
+    synchronized List<SlowRequest> slowest() {
+        List<SlowRequest> requests = new ArrayList<>(ring.length);
+        for (SlowRequest request : ring) {
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        requests.sort(Comparator.comparingDouble(SlowRequest::durationMillis).reversed());
+        return requests;
+    }
+}
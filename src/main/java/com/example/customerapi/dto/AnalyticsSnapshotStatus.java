@@ -0,0 +1,11 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * The column snapshot the {@code /analytics} endpoints are answered from.
+ */
+public record AnalyticsSnapshotStatus(long customers, long withoutPurchase, LocalDate firstPurchase, LocalDate lastPurchase,
+                                      long memoryBytes, long buildMillis, Instant builtAt) {
+}
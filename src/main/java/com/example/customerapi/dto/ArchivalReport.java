@@ -0,0 +1,12 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One archival run. {@code resumed} is set when it continued a pass that an earlier run left unfinished;
+ * {@code finished} is false when the run stopped at {@code customer.archival.max-batches-per-run}.
+ */
+public record ArchivalReport(LocalDate cutoff, boolean resumed, boolean finished, int batches, long archived,
+                             long archivedInPass, long durationMillis, Instant finishedAt) {
+}
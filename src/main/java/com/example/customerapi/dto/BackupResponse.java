@@ -0,0 +1,16 @@
+package com.example.customerapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BackupResponse {
+    private String file;
+    private long sizeBytes;
+    private Instant createdAt;
+}
@@ -0,0 +1,72 @@
+package com.example.customerapi.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The fields a client can ask for with {@code ?fields=}, in response order, with the column each is read from.
+ * {@link #TIER} has no column of its own; it is derived from the spend and last purchase date.
+ */
+public enum CustomerField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    EMAIL("email", "email"),
+    ANNUAL_SPEND("annualSpend", "annual_spend"),
+    LAST_PURCHASE_DATE("lastPurchaseDate", "last_purchase_date"),
+    TIER("tier", null);
+
+    private final String jsonName;
+    private final String column;
+
+    CustomerField(String jsonName, String column) {
+        this.jsonName = jsonName;
+        this.column = column;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    /**
+     * Parses a comma-separated list of field names, e.g. {@code id,tier}.
+     */
+    public static Set<CustomerField> parse(String fields) {
+        EnumSet<CustomerField> parsed = EnumSet.noneOf(CustomerField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(fromJsonName(trimmed));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    /**
+     * The fields whose columns have to be loaded to answer {@code requested}.
+     */
+    public static Set<CustomerField> columnsFor(Set<CustomerField> requested) {
+        EnumSet<CustomerField> columns = EnumSet.copyOf(requested);
+        if (columns.remove(TIER)) {
+            columns.add(ANNUAL_SPEND);
+            columns.add(LAST_PURCHASE_DATE);
+        }
+        return columns;
+    }
+
+    private static CustomerField fromJsonName(String name) {
+        for (CustomerField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.customerapi.dto;
+
+import com.example.customerapi.entity.Customer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only projection of the columns a {@link CustomerResponse} is built from. Queries returning it
+ * select only these columns and never put a managed {@link Customer} into the persistence context.
+ */
+public record CustomerView(UUID id, String name, String email, BigDecimal annualSpend, LocalDate lastPurchaseDate) {
+
+    public static CustomerView of(Customer c) {
+        return new CustomerView(c.getId(), c.getName(), c.getEmail(), c.getAnnualSpend(), c.getLastPurchaseDate());
+    }
+}
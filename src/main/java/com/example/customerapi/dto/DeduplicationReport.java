@@ -0,0 +1,27 @@
+package com.example.customerapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeduplicationReport {
+    private boolean applied;
+    private long customersScanned;
+    private long blocks;
+    // Blocks over customer.dedup.max-block-size, skipped rather than compared pairwise
+    private long oversizedBlocks;
+    private long pairsScored;
+    private long mergeGroups;
+    private long duplicatesMerged;
+    private long reviewCandidates;
+    private long durationMillis;
+    private Instant finishedAt;
+    // At most customer.dedup.report-limit entries, merges first
+    private List<MergeCandidate> candidates;
+}
@@ -0,0 +1,11 @@
+package com.example.customerapi.dto;
+
+import java.util.List;
+
+/**
+ * Body of {@code GET /actuator/diagnostics}: the slowest recent requests, slowest first, and the latest
+ * on-demand recording if there has been one.
+ */
+public record DiagnosticsReport(long slowRequestThresholdMillis, long slowRequestsSeen, List<SlowRequest> slowestRequests,
+                                RecordingStatus recording) {
+}
@@ -0,0 +1,20 @@
+package com.example.customerapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailFilterStats {
+    private boolean ready;
+    private long insertions;
+    private long bitSize;
+    private int hashFunctions;
+    private long memoryBytes;
+    private double estimatedFalsePositiveRate;
+    private Instant lastRebuild;
+}
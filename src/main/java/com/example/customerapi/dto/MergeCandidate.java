@@ -0,0 +1,19 @@
+package com.example.customerapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MergeCandidate {
+    // The customer that is kept when merge is true
+    private UUID customerId;
+    private UUID duplicateId;
+    private double score;
+    // Scored at or above the merge threshold; merged when the job runs with apply
+    private boolean merge;
+}
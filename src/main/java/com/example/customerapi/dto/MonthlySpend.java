@@ -0,0 +1,12 @@
+package com.example.customerapi.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Customers whose last purchase was in {@code month}, with their summed spend and spend percentiles
+ * keyed like {@code p50} or {@code p99.9}.
+ */
+public record MonthlySpend(YearMonth month, long customers, BigDecimal totalSpend, Map<String, BigDecimal> percentiles) {
+}
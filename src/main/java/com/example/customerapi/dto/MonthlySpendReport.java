@@ -0,0 +1,8 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public record MonthlySpendReport(LocalDate from, LocalDate to, List<MonthlySpend> months, Instant snapshotAt) {
+}
@@ -0,0 +1,16 @@
+package com.example.customerapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PurchaseRequest {
+    private BigDecimal amount;
+    private LocalDate purchaseDate; // defaults to today
+}
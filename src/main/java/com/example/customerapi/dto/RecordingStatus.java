@@ -0,0 +1,10 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+
+/**
+ * An on-demand flight recording; the file is complete once {@code state} is no longer
+ * {@code RUNNING}.
+ */
+public record RecordingStatus(long id, String state, Instant startedAt, long durationSeconds, String destination) {
+}
@@ -0,0 +1,8 @@
+package com.example.customerapi.dto;
+
+/**
+ * One service or repository call made while serving a request; times are from the start of the request.
+ */
+public record RequestSpan(String layer, String operation, double startMillis, double durationMillis, int rowCount,
+                          boolean failed) {
+}
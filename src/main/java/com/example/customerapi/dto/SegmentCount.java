@@ -0,0 +1,4 @@
+package com.example.customerapi.dto;
+
+public record SegmentCount(SegmentQuery segment, long customers) {
+}
@@ -0,0 +1,9 @@
+package com.example.customerapi.dto;
+
+import java.util.List;
+
+/**
+ * One page of a segment; {@code next} is the cursor of the following page, or {@code null} on the last one.
+ */
+public record SegmentPage(List<CustomerResponse> customers, String next) {
+}
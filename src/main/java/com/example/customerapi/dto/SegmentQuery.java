@@ -0,0 +1,11 @@
+package com.example.customerapi.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Customers whose last purchase is in {@code [from, to]} and whose annual spend is in
+ * {@code [minSpend, maxSpend]}; a {@code null} bound is open.
+ */
+public record SegmentQuery(LocalDate from, LocalDate to, BigDecimal minSpend, BigDecimal maxSpend) {
+}
@@ -0,0 +1,12 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A request that took longer than {@code customer.diagnostics.slow-request-ms}, with the calls it made
+ * in the order they started. Calls past the per-request limit are counted in {@code droppedSpans}.
+ */
+public record SlowRequest(Instant startedAt, String method, String path, int status, String customerId,
+                          double durationMillis, List<RequestSpan> breakdown, int droppedSpans) {
+}
@@ -0,0 +1,9 @@
+package com.example.customerapi.dto;
+
+import java.util.Set;
+
+/**
+ * A customer response limited to the requested fields; the others are left {@code null} and not serialized.
+ */
+public record SparseCustomerResponse(Set<CustomerField> fields, CustomerResponse customer) {
+}
@@ -0,0 +1,9 @@
+package com.example.customerapi.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Customers with {@code from <= annualSpend < to}; {@code to} is {@code null} for the last bucket.
+ */
+public record SpendBucket(BigDecimal from, BigDecimal to, long customers) {
+}
@@ -0,0 +1,11 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Spend distribution of the customers whose last purchase falls in {@code [from, to]}.
+ */
+public record SpendHistogram(LocalDate from, LocalDate to, long customers, List<SpendBucket> buckets, Instant snapshotAt) {
+}
@@ -0,0 +1,13 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Customers per tier as they would be classified on {@code asOf} by the rules of {@code rulesVersion}.
+ * Without a date window customers that never purchased are included.
+ */
+public record TierDistribution(LocalDate from, LocalDate to, LocalDate asOf, String rulesVersion, long customers,
+                               Map<String, Long> tiers, Instant snapshotAt) {
+}
@@ -0,0 +1,7 @@
+package com.example.customerapi.dto;
+
+/**
+ * Customers that would move from tier {@code from} under the active rules to tier {@code to} under the candidate.
+ */
+public record TierShift(String from, String to, long customers) {
+}
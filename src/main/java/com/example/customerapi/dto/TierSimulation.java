@@ -0,0 +1,16 @@
+package com.example.customerapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tier counts under the active and a candidate rule set over the same customers, and the moves between
+ * tiers that account for the difference.
+ */
+public record TierSimulation(LocalDate from, LocalDate to, LocalDate asOf, long customers,
+                             String currentVersion, Map<String, Long> current,
+                             String candidateVersion, Map<String, Long> candidate,
+                             List<TierShift> shifts, long durationMillis, Instant snapshotAt) {
+}
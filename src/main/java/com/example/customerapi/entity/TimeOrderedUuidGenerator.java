@@ -0,0 +1,38 @@
+package com.example.customerapi.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp followed by random bits.
+ * Ids created close together in time sort close together, so inserts land at the right-hand edge of
+ * the primary-key B-tree instead of at random pages.
+ */
+public class TimeOrderedUuidGenerator implements UuidValueGenerator {
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        return fromMillis(System.currentTimeMillis());
+    }
+
+    public static UUID fromMillis(long epochMillis) {
+        return fromMillis(epochMillis, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Draws the random bits from {@code random}, so a seeded generator gives reproducible ids.
+     */
+    public static UUID fromMillis(long epochMillis, RandomGenerator random) {
+        long mostSigBits = (epochMillis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
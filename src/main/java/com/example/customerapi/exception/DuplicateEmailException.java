@@ -0,0 +1,15 @@
+package com.example.customerapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when creating a customer with an email that another customer already uses.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateEmailException extends StacklessException {
+
+    public DuplicateEmailException(String message) {
+        super(message);
+    }
+}
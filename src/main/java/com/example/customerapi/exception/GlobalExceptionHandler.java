@@ -0,0 +1,107 @@
+package com.example.customerapi.exception;
+
+import com.example.customerapi.dto.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps client errors of every controller to one JSON body shape, {@code {"status", "error", "message"}}.
+ * Bodies of the {@link StacklessException} outcomes and of the handlers' own messages come from a fixed
+ * set, so they are serialized once and then written as bytes. {@link IllegalArgumentException} messages
+ * can embed request input (e.g. a rejected email) and are serialized per response instead of cached.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[]> badRequestBodies = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> notFoundBodies = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> conflictBodies = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> unavailableBodies = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> tooManyRequestsBodies = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @ExceptionHandler({NotFoundException.class, NoSuchElementException.class})
+    public ResponseEntity<byte[]> handleNotFound(RuntimeException ex) {
+        return error(HttpStatus.NOT_FOUND, notFoundBodies, ex.getMessage());
+    }
+
+    @ExceptionHandler({DuplicateEmailException.class, IdempotencyConflictException.class})
+    public ResponseEntity<byte[]> handleConflict(RuntimeException ex) {
+        return error(HttpStatus.CONFLICT, conflictBodies, ex.getMessage());
+    }
+
+    // The coalesced lookup it waited on is still running; a retry shortly after is likely to be served
+    @ExceptionHandler(LookupTimeoutException.class)
+    public ResponseEntity<byte[]> handleLookupTimeout(LookupTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(HttpStatus.SERVICE_UNAVAILABLE, unavailableBodies, ex.getMessage()));
+    }
+
+    @ExceptionHandler(SnapshotUnavailableException.class)
+    public ResponseEntity<byte[]> handleSnapshotUnavailable(SnapshotUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(HttpStatus.SERVICE_UNAVAILABLE, unavailableBodies, ex.getMessage()));
+    }
+
+    @ExceptionHandler(RefreshThrottledException.class)
+    public ResponseEntity<byte[]> handleRefreshThrottled(RefreshThrottledException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(HttpStatus.TOO_MANY_REQUESTS, tooManyRequestsBodies, ex.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<byte[]> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                .body(serialize(HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return error(HttpStatus.BAD_REQUEST, badRequestBodies, "Invalid value for parameter " + ex.getName());
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        return error(HttpStatus.BAD_REQUEST, badRequestBodies, "Malformed request body");
+    }
+
+    private ResponseEntity<byte[]> error(HttpStatus status, Map<String, byte[]> cache, String message) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body(status, cache, message));
+    }
+
+    private byte[] body(HttpStatus status, Map<String, byte[]> cache, String message) {
+        String key = message == null ? "" : message;
+        byte[] body = cache.get(key);
+        return body != null ? body : cache.computeIfAbsent(key, k -> serialize(status, message));
+    }
+
+    private byte[] serialize(HttpStatus status, String message) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(status.value(), status.getReasonPhrase(), message));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.customerapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request reuses an Idempotency-Key whose original request has not finished yet.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyConflictException extends StacklessException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
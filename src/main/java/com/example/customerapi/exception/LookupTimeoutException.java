@@ -0,0 +1,12 @@
+package com.example.customerapi.exception;
+
+/**
+ * Thrown when a lookup waiting on an identical in-flight query does not get a result in time. Mapped to
+ * 503 with {@code Retry-After}.
+ */
+public class LookupTimeoutException extends StacklessException {
+
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+}
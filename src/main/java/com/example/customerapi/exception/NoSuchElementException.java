@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * Thrown when a requested resource is not found.
  */
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class NoSuchElementException extends RuntimeException {
+public class NoSuchElementException extends StacklessException {
 
     public NoSuchElementException(String message) {
         super(message);
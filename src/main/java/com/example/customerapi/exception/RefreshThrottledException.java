@@ -0,0 +1,19 @@
+package com.example.customerapi.exception;
+
+/**
+ * Thrown when a manual snapshot refresh is asked for while one is running or too soon after the last.
+ * Mapped to 429 with {@code Retry-After}.
+ */
+public class RefreshThrottledException extends StacklessException {
+
+    private final long retryAfterSeconds;
+
+    public RefreshThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.customerapi.exception;
+
+/**
+ * Thrown when an analytics query arrives before the first snapshot has been built. Mapped to 503 with
+ * {@code Retry-After}.
+ */
+public class SnapshotUnavailableException extends StacklessException {
+
+    public SnapshotUnavailableException(String message) {
+        super(message);
+    }
+}
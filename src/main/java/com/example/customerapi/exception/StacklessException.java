@@ -0,0 +1,12 @@
+package com.example.customerapi.exception;
+
+/**
+ * Base for exceptions thrown on expected outcomes and mapped straight to a response. They capture no
+ * stack trace and are not suppressible, so throwing one costs about as much as returning a value.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
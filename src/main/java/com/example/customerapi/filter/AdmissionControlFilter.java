@@ -0,0 +1,256 @@
+package com.example.customerapi.filter;
+
+import com.example.customerapi.dto.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Admission control in front of the customer endpoints. Requests are rejected before any work is
+ * done when the client has used up its token-bucket quota (429) or when the server is already
+ * saturated, measured by in-flight requests or by time spent queued upstream (503).
+ * <p>
+ * Quotas are keyed by the {@code X-API-Key} header only when it is one of the configured keys; any other
+ * request is keyed by its remote IP, so inventing a new key per request does not reset the quota. At most
+ * {@code max-clients} buckets are kept. A known client's request never takes a lock; when a new client
+ * finds the map full, one thread evicts full buckets and then the least used ones down to three quarters
+ * of the cap, so the cost of a pass is spread over the inserts that follow it. New clients that arrive
+ * while the map is full share one overflow bucket. Requests carrying a key registered with
+ * {@link #addUnmeteredKey}, such as the startup warm-up's loopback traffic, skip the quota but not the
+ * saturation checks. Rejections carry the same JSON body as
+ * {@link com.example.customerapi.exception.GlobalExceptionHandler}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+    static final String REQUEST_START_HEADER = "X-Request-Start";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // Counts entries of buckets exactly, so the cap holds under concurrent inserts
+    private final AtomicInteger tracked = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final TokenBucket overflow;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Set<String> unmeteredKeys = ConcurrentHashMap.newKeySet();
+
+    private final boolean enabled;
+    private final double ratePerSecond;
+    private final int burst;
+    private final int maxInFlight;
+    private final long maxQueueMillis;
+    private final int maxClients;
+    private final Set<String> apiKeys;
+    private final byte[] rateLimitedBody;
+    private final byte[] overloadedBody;
+
+    public AdmissionControlFilter(@Value("${customer.admission.enabled:true}") boolean enabled,
+                                  @Value("${customer.admission.rate-per-second:100}") double ratePerSecond,
+                                  @Value("${customer.admission.burst:200}") int burst,
+                                  @Value("${customer.admission.max-in-flight:256}") int maxInFlight,
+                                  @Value("${customer.admission.max-queue-millis:1000}") long maxQueueMillis,
+                                  @Value("${customer.admission.max-clients:100000}") int maxClients,
+                                  @Value("${customer.admission.api-keys:}") List<String> apiKeys,
+                                  ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.maxInFlight = maxInFlight;
+        this.maxQueueMillis = maxQueueMillis;
+        this.maxClients = maxClients;
+        this.apiKeys = apiKeys.stream().map(String::trim).filter(key -> !key.isEmpty()).collect(Collectors.toSet());
+        this.overflow = new TokenBucket(ratePerSecond, burst, System.nanoTime());
+        this.rateLimitedBody = errorBody(objectMapper, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded");
+        this.overloadedBody = errorBody(objectMapper, HttpStatus.SERVICE_UNAVAILABLE, "Server is overloaded");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/customers");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (queuedTooLong(request)) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, overloadedBody);
+            return;
+        }
+
+        if (!unmetered(request)) {
+            String client = clientKey(request);
+            long now = System.nanoTime();
+            long waitNanos = bucketFor(client, now).tryAcquire(now);
+            if (waitNanos > 0) {
+                logger.debug("Rate limit exceeded for client {}", client);
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos), rateLimitedBody);
+                return;
+            }
+        }
+
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, overloadedBody);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int trackedClients() {
+        return tracked.get();
+    }
+
+    private TokenBucket bucketFor(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (!reserveSlot()) {
+            evict(now);
+            if (!reserveSlot()) {
+                return overflow;
+            }
+        }
+        TokenBucket created = new TokenBucket(ratePerSecond, burst, now);
+        TokenBucket existing = buckets.putIfAbsent(client, created);
+        if (existing != null) {
+            tracked.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+
+    private boolean reserveSlot() {
+        if (tracked.incrementAndGet() <= maxClients) {
+            return true;
+        }
+        tracked.decrementAndGet();
+        return false;
+    }
+
+    private void evict(long now) {
+        // One evicting thread is enough; the others use the overflow bucket meanwhile
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maxClients - Math.max(1, maxClients / 4);
+            if (tracked.get() <= target) {
+                return;
+            }
+            // Full buckets are indistinguishable from new ones, so dropping them loses nothing
+            buckets.forEach((client, bucket) -> {
+                if (bucket.debtNanos(now) <= 0 && buckets.remove(client, bucket)) {
+                    tracked.decrementAndGet();
+                }
+            });
+            int excess = tracked.get() - target;
+            if (excess <= 0) {
+                return;
+            }
+            long[] debts = buckets.values().stream().mapToLong(bucket -> bucket.debtNanos(now)).sorted().toArray();
+            long cutoff = debts[Math.min(excess, debts.length) - 1];
+            buckets.forEach((client, bucket) -> {
+                if (bucket.debtNanos(now) <= cutoff && buckets.remove(client, bucket)) {
+                    tracked.decrementAndGet();
+                }
+            });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean queuedTooLong(HttpServletRequest request) {
+        String header = request.getHeader(REQUEST_START_HEADER);
+        if (header == null) {
+            return false;
+        }
+        // Load balancers send either "t=<millis>" or the bare epoch milliseconds
+        String value = header.startsWith("t=") ? header.substring(2) : header;
+        try {
+            return System.currentTimeMillis() - Long.parseLong(value) > maxQueueMillis;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Lets requests with this {@code X-API-Key} skip the per-client quota until {@link #removeUnmeteredKey}.
+     */
+    public void addUnmeteredKey(String key) {
+        unmeteredKeys.add(key);
+    }
+
+    public void removeUnmeteredKey(String key) {
+        unmeteredKeys.remove(key);
+    }
+
+    private boolean unmetered(HttpServletRequest request) {
+        if (unmeteredKeys.isEmpty()) {
+            return false;
+        }
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && unmeteredKeys.contains(apiKey);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, byte[] body)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] errorBody(ObjectMapper objectMapper, HttpStatus status, String message) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(status.value(), status.getReasonPhrase(), message));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.customerapi.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm: the whole bucket state is
+ * a single "theoretical arrival time" updated with compare-and-set, so concurrent callers never block.
+ */
+final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        if (tokensPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 when the token was granted, otherwise the nanoseconds until one becomes available
+     */
+    long tryAcquire(long nowNanos) {
+        for (;;) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * How far the bucket's theoretical arrival time is ahead of {@code nowNanos}; zero or less means the
+     * bucket is full and carries no state worth keeping. Larger values mean more recent or heavier use.
+     */
+    long debtNanos(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos;
+    }
+}
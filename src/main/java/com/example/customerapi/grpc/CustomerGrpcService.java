@@ -0,0 +1,315 @@
+package com.example.customerapi.grpc;
+
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.exception.DuplicateEmailException;
+import com.example.customerapi.exception.IdempotencyConflictException;
+import com.example.customerapi.exception.LookupTimeoutException;
+import com.example.customerapi.exception.NoSuchElementException;
+import com.example.customerapi.exception.NotFoundException;
+import com.example.customerapi.grpc.proto.CreateCustomerRequest;
+import com.example.customerapi.grpc.proto.Customer;
+import com.example.customerapi.grpc.proto.CustomerApiGrpc;
+import com.example.customerapi.grpc.proto.CustomerInput;
+import com.example.customerapi.grpc.proto.DeleteCustomerRequest;
+import com.example.customerapi.grpc.proto.GetCustomerRequest;
+import com.example.customerapi.grpc.proto.LookupError;
+import com.example.customerapi.grpc.proto.LookupRequest;
+import com.example.customerapi.grpc.proto.LookupResponse;
+import com.example.customerapi.grpc.proto.UpdateCustomerRequest;
+import com.example.customerapi.service.CustomerService;
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * gRPC front end for {@link CustomerService}, mirroring the REST controller: same validation, same
+ * group-commit choice on create, and the REST error statuses mapped onto gRPC codes.
+ * <p>
+ * {@code LookupCustomers} runs each lookup on a worker pool and streams the answer back as soon as it is
+ * ready. Inbound flow control keeps at most {@code customer.grpc.max-lookups-in-flight} lookups per stream
+ * outstanding, so a client pipelining thousands of keys is paced by the server instead of queueing them;
+ * a client that stops reading answers stops being asked for more keys. Like {@link GrpcServer}, it only
+ * exists, with its lookup pool, when {@code customer.grpc.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.grpc.enabled", havingValue = "true")
+public class CustomerGrpcService extends CustomerApiGrpc.CustomerApiImplBase implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerGrpcService.class);
+
+    private final CustomerService customerService;
+    private final int maxLookupsInFlight;
+    private final ExecutorService lookupExecutor;
+
+    public CustomerGrpcService(CustomerService customerService,
+                               @Value("${customer.grpc.lookup-threads:16}") int lookupThreads,
+                               @Value("${customer.grpc.max-lookups-in-flight:64}") int maxLookupsInFlight) {
+        this.customerService = customerService;
+        this.maxLookupsInFlight = maxLookupsInFlight;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.lookupExecutor = Executors.newFixedThreadPool(lookupThreads, runnable -> {
+            Thread thread = new Thread(runnable, "customer-grpc-lookup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void createCustomer(CreateCustomerRequest request, StreamObserver<Customer> responseObserver) {
+        unary(responseObserver, () -> {
+            CustomerRequest customer = toRequest(request.getCustomer());
+            if (!customerService.isGroupCommitEnabled()) {
+                return toProto(customerService.createCustomer(customer));
+            }
+            try {
+                return toProto(customerService.submitCustomer(customer).join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        });
+    }
+
+    @Override
+    public void getCustomer(GetCustomerRequest request, StreamObserver<Customer> responseObserver) {
+        unary(responseObserver, () -> toProto(customerService.getCustomerById(parseId(request.getId()))));
+    }
+
+    @Override
+    public void updateCustomer(UpdateCustomerRequest request, StreamObserver<Customer> responseObserver) {
+        unary(responseObserver, () -> toProto(
+                customerService.updateCustomer(parseId(request.getId()), toRequest(request.getCustomer()))));
+    }
+
+    @Override
+    public void deleteCustomer(DeleteCustomerRequest request, StreamObserver<Empty> responseObserver) {
+        unary(responseObserver, () -> {
+            customerService.deleteCustomer(parseId(request.getId()));
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public StreamObserver<LookupRequest> lookupCustomers(StreamObserver<LookupResponse> responseObserver) {
+        ServerCallStreamObserver<LookupResponse> responses = (ServerCallStreamObserver<LookupResponse>) responseObserver;
+        responses.disableAutoRequest();
+        LookupStream stream = new LookupStream(responses);
+        responses.setOnReadyHandler(stream::onReady);
+        responses.request(maxLookupsInFlight);
+        return stream;
+    }
+
+    @Override
+    public void destroy() {
+        lookupExecutor.shutdownNow();
+    }
+
+    /**
+     * One client stream. Responses are written from the worker threads, so writes to the (not thread-safe)
+     * response observer are serialized on it; the stream completes once the client has half-closed and
+     * every accepted lookup has been answered.
+     */
+    private final class LookupStream implements StreamObserver<LookupRequest> {
+
+        private final ServerCallStreamObserver<LookupResponse> responses;
+        // Lookups accepted and not yet answered, plus one until the client half-closes
+        private final AtomicInteger pending = new AtomicInteger(1);
+        // Requests for more keys held back while the client was not reading; guarded by responses
+        private int deferredRequests;
+
+        LookupStream(ServerCallStreamObserver<LookupResponse> responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public void onNext(LookupRequest request) {
+            pending.incrementAndGet();
+            try {
+                lookupExecutor.execute(() -> {
+                    try {
+                        send(lookup(request));
+                    } finally {
+                        finishOne();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                send(error(request.getRequestId(), Status.UNAVAILABLE.withDescription("Server is shutting down")));
+                finishOne();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Client cancelled; lookups still running finish and their answers are dropped
+            logger.debug("Lookup stream cancelled: {}", t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            finishOne();
+        }
+
+        private LookupResponse lookup(LookupRequest request) {
+            try {
+                CustomerResponse customer = switch (request.getKeyCase()) {
+                    case ID -> customerService.getCustomerById(parseId(request.getId()));
+                    case EMAIL -> customerService.getByEmail(request.getEmail());
+                    case KEY_NOT_SET -> throw new IllegalArgumentException("id or email must be provided");
+                };
+                return LookupResponse.newBuilder()
+                        .setRequestId(request.getRequestId())
+                        .setCustomer(toProto(customer))
+                        .build();
+            } catch (RuntimeException ex) {
+                return error(request.getRequestId(), toStatus(ex));
+            }
+        }
+
+        private void send(LookupResponse response) {
+            synchronized (responses) {
+                if (responses.isCancelled()) {
+                    return;
+                }
+                responses.onNext(response);
+                // One answer out, one more key in, unless the answers are piling up in the transport
+                if (responses.isReady()) {
+                    responses.request(1);
+                } else {
+                    deferredRequests++;
+                }
+            }
+        }
+
+        void onReady() {
+            synchronized (responses) {
+                if (deferredRequests > 0 && !responses.isCancelled()) {
+                    responses.request(deferredRequests);
+                    deferredRequests = 0;
+                }
+            }
+        }
+
+        private void finishOne() {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (responses) {
+                    if (!responses.isCancelled()) {
+                        responses.onCompleted();
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private static LookupResponse error(long requestId, Status status) {
+        return LookupResponse.newBuilder()
+                .setRequestId(requestId)
+                .setError(LookupError.newBuilder()
+                        .setCode(status.getCode().name())
+                        .setMessage(status.getDescription() == null ? "" : status.getDescription()))
+                .build();
+    }
+
+    /**
+     * The gRPC counterpart of the REST status each exception maps to in {@code GlobalExceptionHandler}.
+     */
+    static Status toStatus(RuntimeException ex) {
+        if (ex instanceof StatusRuntimeException statusException) {
+            return statusException.getStatus();
+        }
+        Status status;
+        if (ex instanceof NotFoundException || ex instanceof NoSuchElementException) {
+            status = Status.NOT_FOUND;
+        } else if (ex instanceof DuplicateEmailException || ex instanceof IdempotencyConflictException) {
+            status = Status.ALREADY_EXISTS;
+        } else if (ex instanceof IllegalArgumentException) {
+            status = Status.INVALID_ARGUMENT;
+        } else if (ex instanceof LookupTimeoutException) {
+            status = Status.UNAVAILABLE;
+        } else {
+            logger.error("gRPC call failed", ex);
+            return Status.INTERNAL.withDescription("Internal error");
+        }
+        return status.withDescription(ex.getMessage());
+    }
+
+    private static UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid value for parameter id");
+        }
+    }
+
+    private static CustomerRequest toRequest(CustomerInput input) {
+        try {
+            return new CustomerRequest(
+                    emptyToNull(input.getName()),
+                    emptyToNull(input.getEmail()),
+                    input.getAnnualSpend().isEmpty() ? null : new BigDecimal(input.getAnnualSpend()),
+                    input.getLastPurchaseDate().isEmpty() ? null : LocalDate.parse(input.getLastPurchaseDate()));
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Malformed request body");
+        }
+    }
+
+    static Customer toProto(CustomerResponse response) {
+        Customer.Builder builder = Customer.newBuilder();
+        if (response.getId() != null) {
+            builder.setId(response.getId().toString());
+        }
+        if (response.getName() != null) {
+            builder.setName(response.getName());
+        }
+        if (response.getEmail() != null) {
+            builder.setEmail(response.getEmail());
+        }
+        if (response.getAnnualSpend() != null) {
+            builder.setAnnualSpend(response.getAnnualSpend().toString());
+        }
+        if (response.getLastPurchaseDate() != null) {
+            builder.setLastPurchaseDate(response.getLastPurchaseDate().toString());
+        }
+        if (response.getTier() != null) {
+            builder.setTier(response.getTier());
+        }
+        return builder.build();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.customerapi.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves every {@link BindableService} bean over HTTP/2 on {@code customer.grpc.port} (default 9090, 0 picks
+ * a free port), next to the servlet container. Started after the application context is refreshed and
+ * stopped before it closes, letting in-flight calls finish for up to {@code customer.grpc.shutdown-grace-seconds}.
+ * Off unless {@code customer.grpc.enabled=true}: calls bypass the servlet filters, so they get no admission
+ * control, idempotency keys or request diagnostics.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.grpc.enabled", havingValue = "true")
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final List<BindableService> services;
+    private final int port;
+    private final long shutdownGraceSeconds;
+
+    private volatile Server server;
+
+    public GrpcServer(List<BindableService> services,
+                      @Value("${customer.grpc.port:9090}") int port,
+                      @Value("${customer.grpc.shutdown-grace-seconds:10}") long shutdownGraceSeconds) {
+        this.services = services;
+        this.port = port;
+        this.shutdownGraceSeconds = shutdownGraceSeconds;
+    }
+
+    @Override
+    public void start() {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port);
+        services.forEach(builder::addService);
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + port, e);
+        }
+        logger.info("gRPC server started on port {} with {} services", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that is 0.
+     */
+    public int getPort() {
+        Server running = server;
+        return running == null ? -1 : running.getPort();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.customerapi.json;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.dto.SparseCustomerResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Hand-written JSON mapping for the customer payloads, replacing the reflection-driven bean serializers.
+ * The output is byte-for-byte what the default Spring Boot {@code ObjectMapper} produces: same property
+ * order, nulls included, ISO dates and {@code BigDecimal.toString()} numbers.
+ */
+@JsonComponent
+public class CustomerJson {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString ANNUAL_SPEND = new SerializedString("annualSpend");
+    private static final SerializedString LAST_PURCHASE_DATE = new SerializedString("lastPurchaseDate");
+    private static final SerializedString TIER = new SerializedString("tier");
+
+    // Quoted and encoded once; every response carries one of these
+    private static final SerializedString SILVER = new SerializedString("Silver");
+    private static final SerializedString GOLD = new SerializedString("Gold");
+    private static final SerializedString PLATINUM = new SerializedString("Platinum");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static class Serializer extends StdSerializer<CustomerResponse> {
+
+        public Serializer() {
+            super(CustomerResponse.class);
+        }
+
+        @Override
+        public void serialize(CustomerResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeFields(value, value, null, gen, provider);
+        }
+
+        /**
+         * Writes the customer as an object; {@code fields == null} means all of them.
+         */
+        static void writeFields(Object forValue, CustomerResponse value, Set<CustomerField> fields,
+                                JsonGenerator gen, SerializerProvider provider) throws IOException {
+            char[] buffer = new char[36];
+            gen.writeStartObject(forValue);
+
+            if (fields == null || fields.contains(CustomerField.ID)) {
+                gen.writeFieldName(ID);
+                if (value.getId() == null) {
+                    gen.writeNull();
+                } else {
+                    writeUuid(value.getId(), buffer);
+                    gen.writeString(buffer, 0, 36);
+                }
+            }
+
+            if (fields == null || fields.contains(CustomerField.NAME)) {
+                gen.writeFieldName(NAME);
+                gen.writeString(value.getName());
+            }
+
+            if (fields == null || fields.contains(CustomerField.EMAIL)) {
+                gen.writeFieldName(EMAIL);
+                gen.writeString(value.getEmail());
+            }
+
+            if (fields == null || fields.contains(CustomerField.ANNUAL_SPEND)) {
+                gen.writeFieldName(ANNUAL_SPEND);
+                gen.writeNumber(value.getAnnualSpend());
+            }
+
+            if (fields == null || fields.contains(CustomerField.LAST_PURCHASE_DATE)) {
+                gen.writeFieldName(LAST_PURCHASE_DATE);
+                writeDate(value.getLastPurchaseDate(), buffer, gen, provider);
+            }
+
+            if (fields == null || fields.contains(CustomerField.TIER)) {
+                gen.writeFieldName(TIER);
+                writeTier(value.getTier(), gen);
+            }
+
+            gen.writeEndObject();
+        }
+
+        private static void writeDate(LocalDate date, char[] buffer, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            if (date == null) {
+                gen.writeNull();
+            } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    || date.getYear() < 0 || date.getYear() > 9999) {
+                // Array form and signed/expanded years are left to the registered LocalDate serializer
+                provider.defaultSerializeValue(date, gen);
+            } else {
+                int year = date.getYear();
+                buffer[0] = (char) ('0' + year / 1000);
+                buffer[1] = (char) ('0' + year / 100 % 10);
+                buffer[2] = (char) ('0' + year / 10 % 10);
+                buffer[3] = (char) ('0' + year % 10);
+                buffer[4] = '-';
+                buffer[5] = (char) ('0' + date.getMonthValue() / 10);
+                buffer[6] = (char) ('0' + date.getMonthValue() % 10);
+                buffer[7] = '-';
+                buffer[8] = (char) ('0' + date.getDayOfMonth() / 10);
+                buffer[9] = (char) ('0' + date.getDayOfMonth() % 10);
+                gen.writeString(buffer, 0, 10);
+            }
+        }
+
+        private static void writeTier(String tier, JsonGenerator gen) throws IOException {
+            if (tier == null) {
+                gen.writeNull();
+                return;
+            }
+            switch (tier) {
+                case "Silver" -> gen.writeString(SILVER);
+                case "Gold" -> gen.writeString(GOLD);
+                case "Platinum" -> gen.writeString(PLATINUM);
+                default -> gen.writeString(tier);
+            }
+        }
+
+        private static void writeUuid(UUID id, char[] buffer) {
+            long msb = id.getMostSignificantBits();
+            long lsb = id.getLeastSignificantBits();
+            writeHex(buffer, 0, msb >>> 32, 8);
+            buffer[8] = '-';
+            writeHex(buffer, 9, msb >>> 16, 4);
+            buffer[13] = '-';
+            writeHex(buffer, 14, msb, 4);
+            buffer[18] = '-';
+            writeHex(buffer, 19, lsb >>> 48, 4);
+            buffer[23] = '-';
+            writeHex(buffer, 24, lsb, 12);
+        }
+
+        private static void writeHex(char[] buffer, int offset, long value, int digits) {
+            for (int i = offset + digits - 1; i >= offset; i--) {
+                buffer[i] = HEX[(int) value & 0xF];
+                value >>>= 4;
+            }
+        }
+    }
+
+    /**
+     * Writes only the requested fields, in the same order and format as {@link Serializer}.
+     */
+    public static class SparseSerializer extends StdSerializer<SparseCustomerResponse> {
+
+        public SparseSerializer() {
+            super(SparseCustomerResponse.class);
+        }
+
+        @Override
+        public void serialize(SparseCustomerResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            Serializer.writeFields(value, value.customer(), value.fields(), gen, provider);
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<CustomerRequest> {
+
+        public Deserializer() {
+            super(CustomerRequest.class);
+        }
+
+        @Override
+        public CustomerRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+            if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                return (CustomerRequest) ctxt.handleUnexpectedToken(CustomerRequest.class, p);
+            }
+            CustomerRequest request = new CustomerRequest();
+            String field = token == JsonToken.FIELD_NAME ? p.currentName() : null;
+            for (; field != null; field = p.nextFieldName()) {
+                token = p.nextToken();
+                switch (field) {
+                    case "name" -> request.setName(readString(p, ctxt, token));
+                    case "email" -> request.setEmail(readString(p, ctxt, token));
+                    case "annualSpend" -> request.setAnnualSpend(readDecimal(p, ctxt, token));
+                    case "lastPurchaseDate" -> request.setLastPurchaseDate(readDate(p, ctxt, token));
+                    default -> ctxt.handleUnknownProperty(p, this, CustomerRequest.class, field);
+                }
+            }
+            return request;
+        }
+
+        private static String readString(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+            return switch (token) {
+                case VALUE_STRING -> p.getText();
+                case VALUE_NULL -> null;
+                default -> ctxt.readValue(p, String.class);
+            };
+        }
+
+        private static BigDecimal readDecimal(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+            return switch (token) {
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDecimalValue();
+                case VALUE_NULL -> null;
+                default -> ctxt.readValue(p, BigDecimal.class);
+            };
+        }
+
+        private static LocalDate readDate(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token == JsonToken.VALUE_STRING && p.getTextLength() == 10) {
+                LocalDate date = parseIsoDate(p.getTextCharacters(), p.getTextOffset());
+                if (date != null) {
+                    return date;
+                }
+            }
+            // Anything but a plain yyyy-MM-dd string keeps the registered deserializer's behaviour and errors
+            return ctxt.readValue(p, LocalDate.class);
+        }
+
+        private static LocalDate parseIsoDate(char[] chars, int offset) {
+            if (chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+                return null;
+            }
+            int year = digits(chars, offset, 4);
+            int month = digits(chars, offset + 5, 2);
+            int day = digits(chars, offset + 8, 2);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                    || day > Month.of(month).length(Year.isLeap(year))) {
+                return null;
+            }
+            return LocalDate.of(year, month, day);
+        }
+
+        private static int digits(char[] chars, int offset, int count) {
+            int value = 0;
+            for (int i = offset; i < offset + count; i++) {
+                char c = chars[i];
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+    }
+}
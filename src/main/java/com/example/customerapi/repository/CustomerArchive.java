@@ -0,0 +1,128 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerView;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.example.customerapi.repository.CustomerRows.VIEW_MAPPER;
+
+/**
+ * The CUSTOMER_ARCHIVE table: customers without a recent purchase, moved out of CUSTOMER by the archival
+ * job so the hot table and its indexes only hold the active working set. Rows move in both directions
+ * with one {@code INSERT ... SELECT} and one {@code DELETE} inside the caller's transaction, so a
+ * customer is always in exactly one of the two tables.
+ */
+@Component
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class CustomerArchive {
+
+    private static final String SELECT_COLUMNS = "SELECT id, name, email, annual_spend, last_purchase_date FROM customer_archive ";
+    private static final String FIND_BY_ID = SELECT_COLUMNS + "WHERE id = ?";
+    private static final String FIND_BY_NAME = SELECT_COLUMNS + "WHERE name = ? FETCH FIRST 1 ROWS ONLY";
+    private static final String FIND_BY_EMAIL = SELECT_COLUMNS + "WHERE email = ? FETCH FIRST 1 ROWS ONLY";
+    private static final String FIND_BY_NAME_AND_EMAIL = SELECT_COLUMNS + "WHERE name = ? AND email = ? FETCH FIRST 1 ROWS ONLY";
+    private static final String EXISTS_BY_ID = "SELECT 1 FROM customer_archive WHERE id = ?";
+    private static final String EXISTS_BY_EMAIL = "SELECT 1 FROM customer_archive WHERE email = ? FETCH FIRST 1 ROWS ONLY";
+
+    private static final String RESTORE = "INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) "
+            + "SELECT id, name, email, annual_spend, last_purchase_date FROM customer_archive WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerArchive(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<CustomerView> findById(UUID id) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(jdbcTemplate.query(FIND_BY_ID, VIEW_MAPPER, id)));
+    }
+
+    public Optional<CustomerView> findByName(String name) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(jdbcTemplate.query(FIND_BY_NAME, VIEW_MAPPER, name)));
+    }
+
+    public Optional<CustomerView> findByEmail(String email) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(jdbcTemplate.query(FIND_BY_EMAIL, VIEW_MAPPER, email)));
+    }
+
+    public Optional<CustomerView> findByNameAndEmail(String name, String email) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(
+                jdbcTemplate.query(FIND_BY_NAME_AND_EMAIL, VIEW_MAPPER, name, email)));
+    }
+
+    public boolean existsById(UUID id) {
+        return !jdbcTemplate.queryForList(EXISTS_BY_ID, Integer.class, id).isEmpty();
+    }
+
+    public boolean existsByEmail(String email) {
+        return !jdbcTemplate.queryForList(EXISTS_BY_EMAIL, Integer.class, email).isEmpty();
+    }
+
+    public long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_archive", Long.class);
+    }
+
+    // Must be closed and consumed inside a transaction
+    public Stream<String> streamAllEmails() {
+        return jdbcTemplate.queryForStream("SELECT email FROM customer_archive", (rs, rowNum) -> rs.getString(1));
+    }
+
+    /**
+     * Moves the given customers into the archive if their last purchase is still before {@code cutoff}.
+     * Must run in a transaction that has locked their CUSTOMER rows.
+     *
+     * @return the number of customers moved
+     */
+    public int archive(List<UUID> ids, LocalDate cutoff, Instant archivedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] args = new Object[ids.size() + 2];
+        args[0] = Timestamp.from(archivedAt);
+        args[1] = cutoff;
+        for (int i = 0; i < ids.size(); i++) {
+            args[i + 2] = ids.get(i);
+        }
+        int moved = jdbcTemplate.update("INSERT INTO customer_archive (id, name, email, annual_spend, last_purchase_date, archived_at) "
+                + "SELECT id, name, email, annual_spend, last_purchase_date, ? FROM customer "
+                + "WHERE last_purchase_date < ? AND id IN (" + in + ")", args);
+        int deleted = jdbcTemplate.update("DELETE FROM customer WHERE id IN (SELECT id FROM customer_archive WHERE id IN ("
+                + in + "))", ids.toArray());
+        if (moved != deleted) {
+            throw new IllegalStateException("Archived " + moved + " customers but removed " + deleted + " from CUSTOMER");
+        }
+        return moved;
+    }
+
+    /**
+     * Moves an archived customer back into CUSTOMER; must run in a transaction.
+     *
+     * @return {@code false} if the customer is not archived
+     */
+    public boolean restore(UUID id) {
+        if (jdbcTemplate.update(RESTORE, id) == 0) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM customer_archive WHERE id = ?", id);
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the customer is not archived
+     */
+    public boolean delete(UUID id) {
+        return jdbcTemplate.update("DELETE FROM customer_archive WHERE id = ?", id) > 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerView;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lookups that select only the given columns; the view's other fields are {@code null}. {@code columns} must
+ * be non-empty and must not contain {@link CustomerField#TIER} (see {@link CustomerField#columnsFor}).
+ */
+public interface CustomerFieldQueries {
+
+    Optional<CustomerView> findFieldsById(UUID id, Set<CustomerField> columns);
+
+    Optional<CustomerView> findFieldsByName(String name, Set<CustomerField> columns);
+
+    Optional<CustomerView> findFieldsByEmail(String email, Set<CustomerField> columns);
+
+    Optional<CustomerView> findFieldsByNameAndEmail(String name, String email, Set<CustomerField> columns);
+}
@@ -0,0 +1,64 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * JPA implementation of {@link CustomerFieldQueries}, picked up by Spring Data as a fragment of
+ * {@link CustomerRepository}. Scalar JPQL selects leave nothing in the persistence context; the query
+ * strings are reused per column combination so Hibernate's plan cache keeps hitting.
+ */
+@Transactional(readOnly = true)
+public class CustomerFieldQueriesImpl implements CustomerFieldQueries {
+
+    private static final Map<Set<CustomerField>, String> SELECT_FIELDS = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<CustomerView> findFieldsById(UUID id, Set<CustomerField> columns) {
+        return single(columns, query(columns, "where c.id = :id").setParameter("id", id));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByName(String name, Set<CustomerField> columns) {
+        return single(columns, query(columns, "where c.name = :name").setParameter("name", name));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByEmail(String email, Set<CustomerField> columns) {
+        return single(columns, query(columns, "where c.email = :email").setParameter("email", email));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByNameAndEmail(String name, String email, Set<CustomerField> columns) {
+        return single(columns, query(columns, "where c.name = :name and c.email = :email")
+                .setParameter("name", name)
+                .setParameter("email", email));
+    }
+
+    private TypedQuery<Object[]> query(Set<CustomerField> columns, String where) {
+        String select = SELECT_FIELDS.computeIfAbsent(columns, key -> key.stream()
+                .map(column -> "c." + column.jsonName())
+                .collect(Collectors.joining(", ", "select ", " from Customer c ")));
+        return entityManager.createQuery(select + where, Object[].class);
+    }
+
+    private static Optional<CustomerView> single(Set<CustomerField> columns, TypedQuery<Object[]> query) {
+        Object[] row = DataAccessUtils.singleResult(query.getResultList());
+        return Optional.ofNullable(row).map(values -> CustomerRows.toView(columns, values));
+    }
+}
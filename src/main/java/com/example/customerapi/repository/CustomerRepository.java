@@ -1,17 +1,65 @@
 package com.example.customerapi.repository;
 
+import com.example.customerapi.dto.CustomerView;
 import com.example.customerapi.entity.Customer;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// CustomerFieldQueries is listed directly so Spring Data binds it to CustomerFieldQueriesImpl
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+public interface CustomerRepository extends JpaRepository<Customer, UUID>, CustomerStore, CustomerFieldQueries {
+    String SELECT_VIEW = "select new com.example.customerapi.dto.CustomerView("
+            + "c.id, c.name, c.email, c.annualSpend, c.lastPurchaseDate) from Customer c ";
+
+    // Redeclared so calls through this interface resolve to one method, not CrudRepository's and CustomerStore's
+    @Override
+    Optional<Customer> findById(UUID id);
+
+    @Override
+    <S extends Customer> S save(S customer);
+
+    @Override
+    void deleteById(UUID id);
+
+    @Override
+    long count();
+
     Optional<Customer> findByName(String name);
     Optional<Customer> findByEmail(String email);
     Optional<Customer> findByNameAndEmail(String name, String email);
+    boolean existsByEmail(String email);
 
-}
+    // Must be consumed inside a transaction and closed
+    @Query("select c.email from Customer c")
+    Stream<String> streamAllEmails();
+
+    // Read paths: select only the response columns. Lookups by id stay on findById, whose EntityManager.find
+    // in a read-only transaction allocates less than any query. Declared JPQL keeps the plan in Hibernate's query plan
+    // cache (a derived projection query is rebuilt through the Criteria API on every call). The read-only
+    // transaction switches the session to manual flush when it starts one; inside a caller's write
+    // transaction pending changes are still flushed first.
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(SELECT_VIEW + "where c.name = :name")
+    Optional<CustomerView> findViewByName(String name);
 
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(SELECT_VIEW + "where c.email = :email")
+    Optional<CustomerView> findViewByEmail(String email);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(SELECT_VIEW + "where c.name = :name and c.email = :email")
+    Optional<CustomerView> findViewByNameAndEmail(String name, String email);
+}
@@ -0,0 +1,95 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.entity.Customer;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Column list and row mappers shared by the stores that read the {@code customer} table with plain SQL.
+ */
+final class CustomerRows {
+
+    static final String SELECT_COLUMNS = "SELECT id, name, email, annual_spend, last_purchase_date FROM customer ";
+
+    static final String MERGE_SQL = "MERGE INTO customer (id, name, email, annual_spend, last_purchase_date) KEY (id) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    // Columns are read by position, in SELECT_COLUMNS order
+    static final RowMapper<CustomerView> VIEW_MAPPER = (rs, rowNum) -> new CustomerView(
+            rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+            rs.getBigDecimal(4), rs.getObject(5, LocalDate.class));
+
+    static final RowMapper<Customer> CUSTOMER_MAPPER = (rs, rowNum) -> new Customer(
+            rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+            rs.getBigDecimal(4), rs.getObject(5, LocalDate.class));
+
+    // One SELECT list per column combination, built on first use (at most 32)
+    private static final Map<Set<CustomerField>, String> SELECT_FIELDS = new ConcurrentHashMap<>();
+
+    private CustomerRows() {
+    }
+
+    /**
+     * {@code SELECT} of just the given columns, in {@link CustomerField} order.
+     */
+    static String selectFields(Set<CustomerField> columns) {
+        return SELECT_FIELDS.computeIfAbsent(columns, key -> key.stream()
+                .map(CustomerField::column)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM customer ")));
+    }
+
+    static RowMapper<CustomerView> fieldsMapper(Set<CustomerField> columns) {
+        return (rs, rowNum) -> {
+            Object[] values = new Object[columns.size()];
+            int i = 0;
+            for (CustomerField column : columns) {
+                values[i] = rs.getObject(i + 1, javaType(column));
+                i++;
+            }
+            return toView(columns, values);
+        };
+    }
+
+    /**
+     * A view with the selected values set and every other field {@code null}.
+     */
+    static CustomerView toView(Set<CustomerField> columns, Object[] values) {
+        UUID id = null;
+        String name = null;
+        String email = null;
+        BigDecimal annualSpend = null;
+        LocalDate lastPurchaseDate = null;
+        int i = 0;
+        for (CustomerField column : columns) {
+            Object value = values[i++];
+            switch (column) {
+                case ID -> id = (UUID) value;
+                case NAME -> name = (String) value;
+                case EMAIL -> email = (String) value;
+                case ANNUAL_SPEND -> annualSpend = (BigDecimal) value;
+                case LAST_PURCHASE_DATE -> lastPurchaseDate = (LocalDate) value;
+                case TIER -> throw new IllegalArgumentException("tier is not a column");
+            }
+        }
+        return new CustomerView(id, name, email, annualSpend, lastPurchaseDate);
+    }
+
+    private static Class<?> javaType(CustomerField column) {
+        return switch (column) {
+            case ID -> UUID.class;
+            case NAME, EMAIL -> String.class;
+            case ANNUAL_SPEND -> BigDecimal.class;
+            case LAST_PURCHASE_DATE -> LocalDate.class;
+            case TIER -> throw new IllegalArgumentException("tier is not a column");
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.dto.SegmentQuery;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.customerapi.repository.CustomerRows.VIEW_MAPPER;
+
+/**
+ * Segment queries over CUSTOMER, read through IDX_CUSTOMER_SEGMENT on (last_purchase_date, annual_spend, id).
+ * The date bounds are the index range, the spend bounds are checked on the index entries, and pages are
+ * read in index order with a keyset cursor: each page starts at the last key of the previous one instead
+ * of skipping an offset, so page n costs the same as page 1. Customers without a purchase date or spend
+ * are in no segment, and neither are archived customers, which CUSTOMER_ARCHIVE has no such index for.
+ */
+@Component
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class CustomerSegments {
+
+    // The hint keeps a segment without date bounds on the index rather than a table scan
+    private static final String FROM = "FROM customer USE INDEX (idx_customer_segment) ";
+    private static final String ORDER = "ORDER BY last_purchase_date, annual_spend, id FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerSegments(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param after the key of the last customer of the previous page, or {@code null} for the first page
+     */
+    public List<CustomerView> page(SegmentQuery query, Key after, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = pageSql(query, after, args);
+        args.add(limit);
+        return jdbcTemplate.query(sql, VIEW_MAPPER, args.toArray());
+    }
+
+    public long count(SegmentQuery query) {
+        List<Object> args = new ArrayList<>();
+        return jdbcTemplate.queryForObject(countSql(query, args), Long.class, args.toArray());
+    }
+
+    // Visible for the EXPLAIN tests
+    String pageSql(SegmentQuery query, Key after, List<Object> args) {
+        return CustomerRows.SELECT_COLUMNS.replace("FROM customer ", FROM) + where(query, after, args) + ORDER;
+    }
+
+    String countSql(SegmentQuery query, List<Object> args) {
+        return "SELECT COUNT(*) " + FROM + where(query, null, args);
+    }
+
+    private static String where(SegmentQuery query, Key after, List<Object> args) {
+        StringBuilder sql = new StringBuilder("WHERE ");
+        // A cursor moves the start of the index range up to its own date
+        LocalDate from = after != null && (query.from() == null || after.date().isAfter(query.from()))
+                ? after.date() : query.from();
+        if (from != null) {
+            sql.append("last_purchase_date >= ? ");
+            args.add(from);
+        } else {
+            sql.append("last_purchase_date IS NOT NULL ");
+        }
+        if (query.to() != null) {
+            sql.append("AND last_purchase_date <= ? ");
+            args.add(query.to());
+        }
+        if (query.minSpend() != null) {
+            sql.append("AND annual_spend >= ? ");
+            args.add(query.minSpend());
+        } else {
+            sql.append("AND annual_spend IS NOT NULL ");
+        }
+        if (query.maxSpend() != null) {
+            sql.append("AND annual_spend <= ? ");
+            args.add(query.maxSpend());
+        }
+        if (after != null) {
+            sql.append("AND (last_purchase_date, annual_spend, id) > (?, ?, ?) ");
+            args.add(after.date());
+            args.add(after.spend());
+            args.add(after.id());
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Position of a customer in segment order, encoded as an opaque cursor for clients.
+     */
+    public record Key(LocalDate date, BigDecimal spend, UUID id) {
+
+        public static Key of(CustomerView customer) {
+            return new Key(customer.lastPurchaseDate(), customer.annualSpend(), customer.id());
+        }
+
+        public String encode() {
+            String key = date + "|" + spend.toPlainString() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Key decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new Key(LocalDate.parse(parts[0]), new BigDecimal(parts[1]), UUID.fromString(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.entity.Customer;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The customer storage operations the service layer depends on. {@link CustomerRepository} implements it
+ * over the single JPA datasource; {@link ShardedCustomerStore} spreads customers over several databases.
+ */
+public interface CustomerStore extends CustomerFieldQueries {
+
+    Optional<Customer> findById(UUID id);
+
+    boolean existsById(UUID id);
+
+    Optional<CustomerView> findViewByName(String name);
+
+    Optional<CustomerView> findViewByEmail(String email);
+
+    Optional<CustomerView> findViewByNameAndEmail(String name, String email);
+
+    boolean existsByEmail(String email);
+
+    <S extends Customer> S save(S customer);
+
+    void deleteById(UUID id);
+
+    long count();
+
+    // Must be closed; the JPA implementation must also be consumed inside a transaction
+    Stream<String> streamAllEmails();
+}
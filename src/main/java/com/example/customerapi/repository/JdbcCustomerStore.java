@@ -0,0 +1,129 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.example.customerapi.repository.CustomerRows.CUSTOMER_MAPPER;
+import static com.example.customerapi.repository.CustomerRows.MERGE_SQL;
+import static com.example.customerapi.repository.CustomerRows.SELECT_COLUMNS;
+import static com.example.customerapi.repository.CustomerRows.VIEW_MAPPER;
+import static com.example.customerapi.repository.CustomerRows.fieldsMapper;
+import static com.example.customerapi.repository.CustomerRows.selectFields;
+
+/**
+ * {@link CustomerStore} over the application datasource with fixed SQL and positional row mapping, bypassing
+ * Hibernate: no persistence context, dirty checking or query translation on the lookup path. The SQL strings
+ * are constants, so each pooled H2 session finds them in its parsed-statement cache after the first call.
+ * Writes join the service's transaction through the shared connection.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "customer.store.type", havingValue = "jdbc")
+public class JdbcCustomerStore implements CustomerStore {
+
+    private static final String FIND_BY_ID = SELECT_COLUMNS + "WHERE id = ?";
+    private static final String FIND_BY_NAME = SELECT_COLUMNS + "WHERE name = ?";
+    private static final String FIND_BY_EMAIL = SELECT_COLUMNS + "WHERE email = ?";
+    private static final String FIND_BY_NAME_AND_EMAIL = SELECT_COLUMNS + "WHERE name = ? AND email = ?";
+    private static final String EXISTS_BY_EMAIL = "SELECT 1 FROM customer WHERE email = ? FETCH FIRST 1 ROWS ONLY";
+    private static final String EXISTS_BY_ID = "SELECT 1 FROM customer WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcCustomerStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Customer> findById(UUID id) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(jdbcTemplate.query(FIND_BY_ID, CUSTOMER_MAPPER, id)));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return !jdbcTemplate.queryForList(EXISTS_BY_ID, Integer.class, id).isEmpty();
+    }
+
+    @Override
+    public Optional<CustomerView> findViewByName(String name) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(jdbcTemplate.query(FIND_BY_NAME, VIEW_MAPPER, name)));
+    }
+
+    @Override
+    public Optional<CustomerView> findViewByEmail(String email) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(jdbcTemplate.query(FIND_BY_EMAIL, VIEW_MAPPER, email)));
+    }
+
+    @Override
+    public Optional<CustomerView> findViewByNameAndEmail(String name, String email) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(
+                jdbcTemplate.query(FIND_BY_NAME_AND_EMAIL, VIEW_MAPPER, name, email)));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsById(UUID id, Set<CustomerField> columns) {
+        return findFields(columns, "WHERE id = ?", id);
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByName(String name, Set<CustomerField> columns) {
+        return findFields(columns, "WHERE name = ?", name);
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByEmail(String email, Set<CustomerField> columns) {
+        return findFields(columns, "WHERE email = ?", email);
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByNameAndEmail(String name, String email, Set<CustomerField> columns) {
+        return findFields(columns, "WHERE name = ? AND email = ?", name, email);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return !jdbcTemplate.queryForList(EXISTS_BY_EMAIL, Integer.class, email).isEmpty();
+    }
+
+    @Override
+    public <S extends Customer> S save(S customer) {
+        if (customer.getId() == null) {
+            customer.setId(TimeOrderedUuidGenerator.next());
+        }
+        jdbcTemplate.update(MERGE_SQL, customer.getId(), customer.getName(), customer.getEmail(),
+                customer.getAnnualSpend(), customer.getLastPurchaseDate());
+        return customer;
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        jdbcTemplate.update("DELETE FROM customer WHERE id = ?", id);
+    }
+
+    @Override
+    public long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Long.class);
+    }
+
+    @Override
+    public Stream<String> streamAllEmails() {
+        return jdbcTemplate.queryForStream("SELECT email FROM customer", (rs, rowNum) -> rs.getString(1));
+    }
+
+    private Optional<CustomerView> findFields(Set<CustomerField> columns, String where, Object... args) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(
+                jdbcTemplate.query(selectFields(columns) + where, fieldsMapper(columns), args)));
+    }
+}
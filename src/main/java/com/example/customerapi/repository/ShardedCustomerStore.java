@@ -0,0 +1,287 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.dto.ShardStats;
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.example.customerapi.repository.CustomerRows.CUSTOMER_MAPPER;
+import static com.example.customerapi.repository.CustomerRows.MERGE_SQL;
+import static com.example.customerapi.repository.CustomerRows.SELECT_COLUMNS;
+import static com.example.customerapi.repository.CustomerRows.VIEW_MAPPER;
+import static com.example.customerapi.repository.CustomerRows.fieldsMapper;
+import static com.example.customerapi.repository.CustomerRows.selectFields;
+
+/**
+ * Partitions customers over independent databases by a hash of their id. An in-memory email-to-shard
+ * index, built from all shards at startup and kept current by every write through this store, keeps
+ * email lookups and the duplicate check on a single shard. Name lookups, counts and email scans fan out
+ * to all shards in parallel. Every shard gets the {@code db/migration} schema.
+ * <p>
+ * The index is a cache, not the source of truth. An email it does not know is looked up on every shard,
+ * and a hit there is added to it, so rows written by another process are still found; the email filter in
+ * front of the store keeps most such misses off the shards. A save claims the new email in the index before
+ * the row is written and drops the old one after, so a lookup during the write may see an indexed shard
+ * without the row yet (and answer not found) or find the old email still indexed until the write returns.
+ * No constraint spans shards: two concurrent creates with the same email can both pass the duplicate check.
+ * The index holds every email in the heap and is rebuilt by a scan of all shards at startup.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "customer.store.type", havingValue = "sharded")
+public class ShardedCustomerStore implements CustomerStore, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedCustomerStore.class);
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final JdbcTemplate[] shards;
+    private final Map<String, Integer> emailIndex = new ConcurrentHashMap<>();
+    private final ExecutorService fanOut;
+
+    public ShardedCustomerStore(@Value("${customer.store.shard-urls}") List<String> shardUrls,
+                                @Value("${customer.store.shard-username:sa}") String username,
+                                @Value("${customer.store.shard-password:}") String password,
+                                @Value("${customer.store.shard-pool-size:10}") int poolSize) {
+        if (shardUrls.isEmpty()) {
+            throw new IllegalArgumentException("customer.store.shard-urls must list at least one database");
+        }
+        shards = new JdbcTemplate[shardUrls.size()];
+        for (int i = 0; i < shards.length; i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("customer-shard-" + i);
+            dataSource.setJdbcUrl(shardUrls.get(i));
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSources.add(dataSource);
+            Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+            shards[i] = new JdbcTemplate(dataSource);
+        }
+        fanOut = Executors.newFixedThreadPool(shards.length, runnable -> {
+            Thread thread = new Thread(runnable, "customer-shard-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuildEmailIndex();
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    int shardFor(UUID id) {
+        // The low 64 bits of a v7 id are random; the high bits are mostly timestamp
+        return Math.floorMod(Long.hashCode(id.getLeastSignificantBits()), shards.length);
+    }
+
+    @Override
+    public Optional<Customer> findById(UUID id) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(shards[shardFor(id)].query(
+                SELECT_COLUMNS + "WHERE id = ?", CUSTOMER_MAPPER, id)));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return !shards[shardFor(id)].queryForList("SELECT 1 FROM customer WHERE id = ?", Integer.class, id).isEmpty();
+    }
+
+    @Override
+    public Optional<CustomerView> findViewByName(String name) {
+        List<CustomerView> matches = fanOut(shard -> shards[shard].query(SELECT_COLUMNS + "WHERE name = ?", VIEW_MAPPER, name))
+                .stream().flatMap(List::stream).toList();
+        return Optional.ofNullable(DataAccessUtils.singleResult(matches));
+    }
+
+    @Override
+    public Optional<CustomerView> findViewByEmail(String email) {
+        return findByEmail(email, shard -> shards[shard].query(SELECT_COLUMNS + "WHERE email = ?", VIEW_MAPPER, email));
+    }
+
+    @Override
+    public Optional<CustomerView> findViewByNameAndEmail(String name, String email) {
+        return findByEmail(email, shard -> shards[shard].query(
+                SELECT_COLUMNS + "WHERE name = ? AND email = ?", VIEW_MAPPER, name, email));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsById(UUID id, Set<CustomerField> columns) {
+        return Optional.ofNullable(DataAccessUtils.singleResult(shards[shardFor(id)].query(
+                selectFields(columns) + "WHERE id = ?", fieldsMapper(columns), id)));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByName(String name, Set<CustomerField> columns) {
+        List<CustomerView> matches = fanOut(shard -> shards[shard].query(
+                selectFields(columns) + "WHERE name = ?", fieldsMapper(columns), name))
+                .stream().flatMap(List::stream).toList();
+        return Optional.ofNullable(DataAccessUtils.singleResult(matches));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByEmail(String email, Set<CustomerField> columns) {
+        return findByEmail(email, shard -> shards[shard].query(
+                selectFields(columns) + "WHERE email = ?", fieldsMapper(columns), email));
+    }
+
+    @Override
+    public Optional<CustomerView> findFieldsByNameAndEmail(String name, String email, Set<CustomerField> columns) {
+        return findByEmail(email, shard -> shards[shard].query(
+                selectFields(columns) + "WHERE name = ? AND email = ?", fieldsMapper(columns), name, email));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return emailIndex.containsKey(email) || findByEmail(email, shard -> shards[shard].queryForList(
+                "SELECT email FROM customer WHERE email = ? FETCH FIRST 1 ROWS ONLY", String.class, email)).isPresent();
+    }
+
+    @Override
+    public <S extends Customer> S save(S customer) {
+        if (customer.getId() == null) {
+            customer.setId(TimeOrderedUuidGenerator.next());
+        }
+        int shard = shardFor(customer.getId());
+        List<String> previousEmail = shards[shard].queryForList(
+                "SELECT email FROM customer WHERE id = ?", String.class, customer.getId());
+        // Claimed first, so a concurrent duplicate check already sees the email while the row is written
+        Integer claimed = emailIndex.put(customer.getEmail(), shard);
+        try {
+            shards[shard].update(MERGE_SQL,
+                    customer.getId(), customer.getName(), customer.getEmail(), customer.getAnnualSpend(),
+                    customer.getLastPurchaseDate());
+        } catch (RuntimeException ex) {
+            if (claimed == null) {
+                emailIndex.remove(customer.getEmail(), shard);
+            }
+            throw ex;
+        }
+        if (!previousEmail.isEmpty() && !previousEmail.get(0).equals(customer.getEmail())) {
+            emailIndex.remove(previousEmail.get(0), shard);
+        }
+        return customer;
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        int shard = shardFor(id);
+        List<String> email = shards[shard].queryForList("SELECT email FROM customer WHERE id = ?", String.class, id);
+        shards[shard].update("DELETE FROM customer WHERE id = ?", id);
+        if (!email.isEmpty()) {
+            emailIndex.remove(email.get(0), shard);
+        }
+    }
+
+    @Override
+    public long count() {
+        return shardCounts().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public Stream<String> streamAllEmails() {
+        // Shards are read one after another; each result set is closed as soon as it is exhausted
+        return IntStream.range(0, shards.length).boxed()
+                .flatMap(i -> shards[i].queryForStream("SELECT email FROM customer", (rs, rowNum) -> rs.getString(1)));
+    }
+
+    public List<ShardStats> stats() {
+        List<Long> counts = shardCounts();
+        return IntStream.range(0, shards.length)
+                .mapToObj(i -> new ShardStats(i, counts.get(i)))
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        fanOut.shutdownNow();
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    private List<Long> shardCounts() {
+        return fanOut(shard -> shards[shard].queryForObject("SELECT COUNT(*) FROM customer", Long.class));
+    }
+
+    private void rebuildEmailIndex() {
+        long start = System.nanoTime();
+        fanOut(shard -> {
+            shards[shard].query("SELECT email FROM customer",
+                    (RowCallbackHandler) rs -> emailIndex.put(rs.getString(1), shard));
+            return null;
+        });
+        logger.info("Indexed {} emails across {} shards in {} ms", emailIndex.size(), shards.length,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs an email query on the indexed shard, or on every shard when the email is not indexed, and
+     * indexes the shard it was found on.
+     */
+    private <T> Optional<T> findByEmail(String email, IntFunction<List<T>> query) {
+        Integer shard = emailIndex.get(email);
+        if (shard != null) {
+            return Optional.ofNullable(DataAccessUtils.singleResult(query.apply(shard)));
+        }
+        List<List<T>> perShard = fanOut(query);
+        List<T> matches = perShard.stream().flatMap(List::stream).toList();
+        T match = DataAccessUtils.singleResult(matches);
+        if (match != null) {
+            for (int i = 0; i < perShard.size(); i++) {
+                if (!perShard.get(i).isEmpty()) {
+                    emailIndex.putIfAbsent(email, i);
+                }
+            }
+        }
+        return Optional.ofNullable(match);
+    }
+
+    /**
+     * Runs the query on every shard in parallel and returns the results in shard order.
+     */
+    private <T> List<T> fanOut(IntFunction<T> query) {
+        List<CompletableFuture<T>> calls = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int shard = i;
+            calls.add(CompletableFuture.supplyAsync(() -> query.apply(shard), fanOut));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        for (CompletableFuture<T> call : calls) {
+            try {
+                results.add(call.join());
+            } catch (CompletionException ex) {
+                // Surface the shard's DataAccessException rather than the wrapper
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.ArchivalReport;
+import com.example.customerapi.repository.CustomerArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves customers whose last purchase is more than {@code customer.archival.horizon-days} ago from CUSTOMER
+ * into {@link CustomerArchive}. A pass walks CUSTOMER in id order and moves at most
+ * {@code customer.archival.batch-size} customers per transaction; the same transaction records the last
+ * id it moved in ARCHIVAL_CHECKPOINT, so a pass that is interrupted, or that stops after
+ * {@code customer.archival.max-batches-per-run}, resumes where it left off with the same cutoff.
+ * Customers that never purchased are kept.
+ */
+@Service
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class ArchivalJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivalJob.class);
+
+    private static final String JOB = "customer-archival";
+
+    private static final String NEXT_BATCH = "SELECT id FROM customer WHERE last_purchase_date < ? AND id > ? "
+            + "ORDER BY id FETCH FIRST ? ROWS ONLY FOR UPDATE";
+    private static final String FIRST_BATCH = "SELECT id FROM customer WHERE last_purchase_date < ? "
+            + "ORDER BY id FETCH FIRST ? ROWS ONLY FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final CustomerArchive archive;
+    private final int horizonDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private volatile ArchivalReport lastReport;
+
+    public ArchivalJob(JdbcTemplate jdbcTemplate,
+                       TransactionOperations transactions,
+                       CustomerArchive archive,
+                       @Value("${customer.archival.horizon-days:730}") int horizonDays,
+                       @Value("${customer.archival.batch-size:1000}") int batchSize,
+                       @Value("${customer.archival.max-batches-per-run:0}") int maxBatchesPerRun) {
+        if (horizonDays < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Archival horizon and batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.archive = archive;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${customer.archival.cron:-}")
+    public void scheduledRun() {
+        run();
+    }
+
+    public synchronized ArchivalReport run() {
+        long start = System.nanoTime();
+        Checkpoint checkpoint = loadCheckpoint();
+        boolean resumed = checkpoint != null && !checkpoint.finished();
+        if (!resumed) {
+            checkpoint = new Checkpoint(LocalDate.now().minusDays(horizonDays), null, 0, false);
+            Checkpoint first = checkpoint;
+            transactions.executeWithoutResult(status -> saveCheckpoint(first, true));
+        } else {
+            logger.info("Resuming archival pass with cutoff {} after {} customers", checkpoint.cutoff(), checkpoint.archived());
+        }
+        long archivedBefore = checkpoint.archived();
+        int batches = 0;
+        while (!checkpoint.finished() && (maxBatchesPerRun <= 0 || batches < maxBatchesPerRun)) {
+            Checkpoint current = checkpoint;
+            checkpoint = transactions.execute(status -> moveBatch(current));
+            batches++;
+        }
+        ArchivalReport report = new ArchivalReport(checkpoint.cutoff(), resumed, checkpoint.finished(), batches,
+                checkpoint.archived() - archivedBefore, checkpoint.archived(),
+                (System.nanoTime() - start) / 1_000_000, Instant.now());
+        lastReport = report;
+        logger.info("Archived {} customers last purchasing before {} in {} batches ({} ms){}", report.archived(),
+                report.cutoff(), batches, report.durationMillis(), report.finished() ? "" : "; pass continues next run");
+        return report;
+    }
+
+    public ArchivalReport lastReport() {
+        return lastReport;
+    }
+
+    // One transaction: lock the next batch, move it and advance the checkpoint
+    private Checkpoint moveBatch(Checkpoint checkpoint) {
+        List<UUID> ids = checkpoint.lastId() == null
+                ? jdbcTemplate.queryForList(FIRST_BATCH, UUID.class, checkpoint.cutoff(), batchSize)
+                : jdbcTemplate.queryForList(NEXT_BATCH, UUID.class, checkpoint.cutoff(), checkpoint.lastId(), batchSize);
+        Checkpoint next;
+        if (ids.isEmpty()) {
+            next = new Checkpoint(checkpoint.cutoff(), checkpoint.lastId(), checkpoint.archived(), true);
+        } else {
+            int moved = archive.archive(ids, checkpoint.cutoff(), Instant.now());
+            next = new Checkpoint(checkpoint.cutoff(), ids.get(ids.size() - 1), checkpoint.archived() + moved, false);
+        }
+        saveCheckpoint(next, false);
+        return next;
+    }
+
+    private Checkpoint loadCheckpoint() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT cutoff, last_id, archived, finished_at FROM archival_checkpoint WHERE job = ?", JOB);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+        return new Checkpoint(((Date) row.get("CUTOFF")).toLocalDate(), (UUID) row.get("LAST_ID"),
+                ((Number) row.get("ARCHIVED")).longValue(), row.get("FINISHED_AT") != null);
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint, boolean newPass) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (newPass) {
+            jdbcTemplate.update("MERGE INTO archival_checkpoint (job, cutoff, last_id, archived, started_at, finished_at) "
+                    + "KEY (job) VALUES (?, ?, NULL, 0, ?, NULL)", JOB, checkpoint.cutoff(), now);
+        } else {
+            jdbcTemplate.update("UPDATE archival_checkpoint SET last_id = ?, archived = ?, finished_at = ? WHERE job = ?",
+                    checkpoint.lastId(), checkpoint.archived(), checkpoint.finished() ? now : null, JOB);
+        }
+    }
+
+    private record Checkpoint(LocalDate cutoff, UUID lastId, long archived, boolean finished) {
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+import com.example.customerapi.exception.DuplicateEmailException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group commit for creates: concurrent creates are queued, and a single writer thread takes whatever
+ * arrived within {@code max-wait-ms} (up to {@code max-batch-size}) and inserts it with one batched
+ * statement in one transaction. Each caller gets a future that completes with its saved customer once
+ * that transaction has committed, or with {@link DuplicateEmailException} if its email was taken by an
+ * existing or archived customer or by an earlier create in the same batch.
+ */
+@Component
+@ConditionalOnExpression("${customer.create.group-commit.enabled:false} and '${customer.store.type:jpa}' != 'sharded'")
+public class CustomerCreatePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerCreatePipeline.class);
+
+    private static final String INSERT_SQL = "INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    public CustomerCreatePipeline(JdbcTemplate jdbcTemplate,
+                                  TransactionOperations transactions,
+                                  @Value("${customer.create.group-commit.max-batch-size:256}") int maxBatchSize,
+                                  @Value("${customer.create.group-commit.max-wait-ms:2}") long maxWaitMillis,
+                                  @Value("${customer.create.group-commit.queue-capacity:10000}") int queueCapacity) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Group commit batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::run, "customer-create-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues an already validated customer; blocks while the queue is full.
+     */
+    public CompletableFuture<Customer> submit(Customer customer) {
+        if (!running) {
+            throw new IllegalStateException("Create pipeline is shut down");
+        }
+        Pending pending = new Pending(customer, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing customer create", e);
+        }
+        return pending.result;
+    }
+
+    public long batchesWritten() {
+        return batches.get();
+    }
+
+    public long customersWritten() {
+        return written.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        // Not interrupted: an interrupt during a write could close the database's file channel
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Creates that raced the shutdown
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.result.completeExceptionally(
+                new IllegalStateException("Create pipeline is shut down")));
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<Pending> batch) throws InterruptedException {
+        // Wakes up regularly so that close() is noticed; queued creates are still written after it
+        Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        long start = System.nanoTime();
+        List<Pending> accepted = new ArrayList<>(batch.size());
+        List<Pending> rejected = new ArrayList<>();
+        try {
+            transactions.executeWithoutResult(status -> {
+                Set<String> taken = existingEmails(batch);
+                for (Pending pending : batch) {
+                    (taken.add(pending.customer.getEmail()) ? accepted : rejected).add(pending);
+                }
+                for (Pending pending : accepted) {
+                    pending.customer.setId(TimeOrderedUuidGenerator.next());
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, accepted, accepted.size(), (ps, pending) -> {
+                    Customer c = pending.customer;
+                    ps.setObject(1, c.getId());
+                    ps.setString(2, c.getName());
+                    ps.setString(3, c.getEmail());
+                    ps.setBigDecimal(4, c.getAnnualSpend());
+                    ps.setDate(5, c.getLastPurchaseDate() == null ? null : Date.valueOf(c.getLastPurchaseDate()));
+                });
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Failed to write batch of {} customers", batch.size(), ex);
+            batch.forEach(pending -> pending.result.completeExceptionally(ex));
+            return;
+        }
+        batches.incrementAndGet();
+        written.addAndGet(accepted.size());
+        logger.debug("Committed {} customers in one batch in {} ms", accepted.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        accepted.forEach(pending -> pending.result.complete(pending.customer));
+        rejected.forEach(pending -> pending.result.completeExceptionally(
+                new DuplicateEmailException("Customer with this email already exists")));
+    }
+
+    private Set<String> existingEmails(List<Pending> batch) {
+        Set<String> emails = new HashSet<>();
+        for (Pending pending : batch) {
+            emails.add(pending.customer.getEmail());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        List<Object> args = new ArrayList<>(emails);
+        args.addAll(emails);
+        // Archived customers keep their email
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM customer WHERE email IN (" + placeholders + ") "
+                        + "UNION SELECT email FROM customer_archive WHERE email IN (" + placeholders + ")",
+                String.class, args.toArray()));
+    }
+
+    private record Pending(Customer customer, CompletableFuture<Customer> result) {
+    }
+}
@@ -1,32 +1,115 @@
 package com.example.customerapi.service;
 
+import com.example.customerapi.dto.CustomerField;
 import com.example.customerapi.dto.CustomerRequest;
 import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.dto.SegmentPage;
+import com.example.customerapi.dto.SegmentQuery;
+import com.example.customerapi.dto.SparseCustomerResponse;
 import com.example.customerapi.entity.Customer;
+import com.example.customerapi.exception.DuplicateEmailException;
 import com.example.customerapi.exception.NoSuchElementException;
 import com.example.customerapi.exception.NotFoundException;
-import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.CustomerArchive;
+import com.example.customerapi.repository.CustomerSegments;
+import com.example.customerapi.repository.CustomerStore;
+import com.example.customerapi.tier.TierRules;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Writes run in one transaction each. Reads are deliberately not wrapped here: each repository read opens
+ * its own short read-only transaction, so callers waiting on a coalesced lookup do not hold a connection.
+ */
 @Service
 public class CustomerService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
 
+    public static final int MAX_SEGMENT_PAGE = 1000;
+
     @Autowired
-    private CustomerRepository repository;
+    private CustomerStore repository;
+
+    // Concurrent lookups for the same key share one repository call
+    private final SingleFlight<UUID, CustomerResponse> idLookups = new SingleFlight<>();
+    private final SingleFlight<String, CustomerResponse> emailLookups = new SingleFlight<>();
+
+    @Value("${customer.lookup.coalesce-timeout-ms:2000}")
+    private long coalesceTimeoutMillis = 2000;
+
+    // Answers definite misses by email without a query; absent means every email may exist
+    private EmailMembershipFilter emailFilter;
+
+    // Batches concurrent creates into one commit; absent unless customer.create.group-commit.enabled
+    private CustomerCreatePipeline createPipeline;
+
+    // Remembers which customers were returned recently, for the startup warm-up
+    private RecentCustomers recentCustomers;
+
+    // Dormant customers moved out of the customer table; lookups that miss the table fall back to it
+    private CustomerArchive customerArchive;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    private CustomerSegments customerSegments;
+
+    private TierRules tierRules = TierRules.defaults();
+
+    public CustomerService(CustomerStore customerRepository) {
         this.repository = customerRepository;
     }
 
+    @Autowired(required = false)
+    public void setEmailFilter(EmailMembershipFilter emailFilter) {
+        this.emailFilter = emailFilter;
+    }
+
+    @Autowired(required = false)
+    public void setCreatePipeline(CustomerCreatePipeline createPipeline) {
+        this.createPipeline = createPipeline;
+    }
+
+    @Autowired(required = false)
+    public void setRecentCustomers(RecentCustomers recentCustomers) {
+        this.recentCustomers = recentCustomers;
+    }
+
+    @Autowired(required = false)
+    public void setCustomerArchive(CustomerArchive customerArchive) {
+        this.customerArchive = customerArchive;
+    }
+
+    @Autowired(required = false)
+    public void setCustomerSegments(CustomerSegments customerSegments) {
+        this.customerSegments = customerSegments;
+    }
+
+    @Autowired
+    public void setTierRules(TierRules tierRules) {
+        this.tierRules = tierRules;
+    }
+
+    public boolean isGroupCommitEnabled() {
+        return createPipeline != null;
+    }
+
+    @Transactional
     public CustomerResponse createCustomer(CustomerRequest request) {
         validateRequest(request);
         logger.debug("Validating email: {}", request.getEmail());
@@ -39,26 +122,67 @@ public class CustomerService {
                 request.getLastPurchaseDate()
         );
 
+        if (mightContainEmail(request.getEmail()) && (repository.existsByEmail(request.getEmail())
+                || customerArchive != null && customerArchive.existsByEmail(request.getEmail()))) {
+            throw new DuplicateEmailException("Customer with this email already exists");
+        }
+
         Customer saved = repository.save(customer);
+        addEmail(saved.getEmail());
         logger.info("Saved customer with ID: {}", saved.getId());
 
         return mapToResponse(saved);
     }
 
+    /**
+     * Validates the request and hands it to the group-commit pipeline. The future completes once the
+     * batch it was written in has committed, or fails with {@link DuplicateEmailException}.
+     */
+    public CompletableFuture<CustomerResponse> submitCustomer(CustomerRequest request) {
+        if (createPipeline == null) {
+            throw new IllegalStateException("Group commit is not enabled");
+        }
+        validateRequest(request);
+
+        Customer customer = new Customer(
+                null,
+                request.getName(),
+                request.getEmail(),
+                request.getAnnualSpend(),
+                request.getLastPurchaseDate()
+        );
+        return createPipeline.submit(customer).thenApply(saved -> {
+            addEmail(saved.getEmail());
+            return mapToResponse(saved);
+        });
+    }
+
     public CustomerResponse getCustomerById(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("Customer ID must not be null");
         }
         logger.debug("Fetching customer by ID: {}", id);
-        return repository.findById(id)
+        return idLookups.execute(id, coalesceTimeoutMillis, () -> repository.findById(id)
                 .map(this::mapToResponse)
-                .orElseThrow(() -> new NotFoundException("Customer not found"));
+                .or(() -> archived(archive -> archive.findById(id)).map(this::mapToResponse))
+                .orElseThrow(() -> new NotFoundException("Customer not found")));
+    }
+
+    /**
+     * Existence check for writes that only need a 404, such as purchases; reads no columns and maps nothing.
+     */
+    public boolean customerExists(UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Customer ID must not be null");
+        }
+        return repository.existsById(id) || customerArchive != null && customerArchive.existsById(id);
     }
 
     public CustomerResponse getByNameAndEmail(String name, String email) {
         logger.debug("Fetching customer by name and email: {}, {}", name, email);
 
-        Customer customer = repository.findByNameAndEmail(name, email)
+        CustomerView customer = repository.findViewByNameAndEmail(name, email)
+                .or(() -> archived(archive -> archive.findByNameAndEmail(name, email)))
                 .orElseThrow(() -> new NoSuchElementException("Customer not found with name and email"));
         return mapToResponse(customer);
     }
@@ -68,7 +192,8 @@ public class CustomerService {
             throw new IllegalArgumentException("Name must not be blank");
         }
         logger.debug("Fetching customer by name: {}", name);
-        return repository.findByName(name)
+        return repository.findViewByName(name)
+                .or(() -> archived(archive -> archive.findByName(name)))
                 .map(this::mapToResponse)
                 .orElseThrow(() -> new NotFoundException("Customer not found"));
     }
@@ -76,11 +201,100 @@ public class CustomerService {
     public CustomerResponse getByEmail(String email) {
         validateEmail(email);
         logger.debug("Fetching customer by email: {}", email);
-        return repository.findByEmail(email)
+        if (!mightContainEmail(email)) {
+            throw new NotFoundException("Customer not found");
+        }
+        return emailLookups.execute(email, coalesceTimeoutMillis, () -> repository.findViewByEmail(email)
+                .or(() -> archived(archive -> archive.findByEmail(email)))
                 .map(this::mapToResponse)
+                .orElseThrow(() -> new NotFoundException("Customer not found")));
+    }
+
+    // Sparse reads (?fields=): only the columns behind the requested fields are selected, and the tier is
+    // only calculated when it was asked for. They are not coalesced, since each caller may want other fields.
+
+    public SparseCustomerResponse getFieldsById(UUID id, Set<CustomerField> fields) {
+        if (id == null) {
+            throw new IllegalArgumentException("Customer ID must not be null");
+        }
+        return repository.findFieldsById(id, CustomerField.columnsFor(fields))
+                .or(() -> archived(archive -> archive.findById(id)))
+                .map(view -> toSparse(fields, view))
                 .orElseThrow(() -> new NotFoundException("Customer not found"));
     }
 
+    public SparseCustomerResponse getFieldsByNameAndEmail(String name, String email, Set<CustomerField> fields) {
+        return repository.findFieldsByNameAndEmail(name, email, CustomerField.columnsFor(fields))
+                .or(() -> archived(archive -> archive.findByNameAndEmail(name, email)))
+                .map(view -> toSparse(fields, view))
+                .orElseThrow(() -> new NoSuchElementException("Customer not found with name and email"));
+    }
+
+    public SparseCustomerResponse getFieldsByName(String name, Set<CustomerField> fields) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name must not be blank");
+        }
+        return repository.findFieldsByName(name, CustomerField.columnsFor(fields))
+                .or(() -> archived(archive -> archive.findByName(name)))
+                .map(view -> toSparse(fields, view))
+                .orElseThrow(() -> new NotFoundException("Customer not found"));
+    }
+
+    public SparseCustomerResponse getFieldsByEmail(String email, Set<CustomerField> fields) {
+        validateEmail(email);
+        if (!mightContainEmail(email)) {
+            throw new NotFoundException("Customer not found");
+        }
+        return repository.findFieldsByEmail(email, CustomerField.columnsFor(fields))
+                .or(() -> archived(archive -> archive.findByEmail(email)))
+                .map(view -> toSparse(fields, view))
+                .orElseThrow(() -> new NotFoundException("Customer not found"));
+    }
+
+    // Segments (GET /customers/segment): range queries over purchase date and spend, paged by keyset
+
+    public SegmentPage getSegment(SegmentQuery query, String cursor, int limit) {
+        validateSegment(query);
+        if (limit < 1 || limit > MAX_SEGMENT_PAGE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEGMENT_PAGE);
+        }
+        CustomerSegments.Key after = cursor == null || cursor.isBlank() ? null : CustomerSegments.Key.decode(cursor);
+        // One row past the page tells whether there is a next one
+        List<CustomerView> rows = segments().page(query, after, limit + 1);
+        boolean more = rows.size() > limit;
+        List<CustomerView> page = more ? rows.subList(0, limit) : rows;
+        return new SegmentPage(page.stream().map(this::mapToResponse).toList(),
+                more ? CustomerSegments.Key.of(page.get(limit - 1)).encode() : null);
+    }
+
+    public long countSegment(SegmentQuery query) {
+        validateSegment(query);
+        return segments().count(query);
+    }
+
+    /**
+     * Hands every customer of the segment to {@code sink}, one page of {@link #MAX_SEGMENT_PAGE} at a time,
+     * so no connection or transaction is held while the caller writes a page out.
+     *
+     * @return the number of customers
+     */
+    public long streamSegment(SegmentQuery query, Consumer<List<CustomerResponse>> sink) {
+        validateSegment(query);
+        CustomerSegments.Key after = null;
+        long customers = 0;
+        List<CustomerView> page;
+        do {
+            page = segments().page(query, after, MAX_SEGMENT_PAGE);
+            if (!page.isEmpty()) {
+                sink.accept(page.stream().map(this::mapToResponse).toList());
+                after = CustomerSegments.Key.of(page.get(page.size() - 1));
+                customers += page.size();
+            }
+        } while (page.size() == MAX_SEGMENT_PAGE);
+        return customers;
+    }
+
+    @Transactional
     public CustomerResponse updateCustomer(UUID id, CustomerRequest request) {
         if (id == null) {
             throw new IllegalArgumentException("Customer ID must not be null");
@@ -88,7 +302,9 @@ public class CustomerService {
         logger.debug("Updating customer ID: {}", id);
         validateRequest(request);
 
+        // An archived customer becomes active again when updated
         Customer customer = repository.findById(id)
+                .or(() -> customerArchive != null && customerArchive.restore(id) ? repository.findById(id) : Optional.empty())
                 .orElseThrow(() -> new NotFoundException("Customer not found"));
 
         customer.setName(request.getName());
@@ -96,39 +312,101 @@ public class CustomerService {
         customer.setAnnualSpend(request.getAnnualSpend());
         customer.setLastPurchaseDate(request.getLastPurchaseDate());
         CustomerResponse updatedCustomer = mapToResponse(repository.save(customer));
+        addEmail(updatedCustomer.getEmail());
         logger.info("Customer updated with ID: {}", updatedCustomer.getId());
 
         return updatedCustomer;
     }
 
+    @Transactional
     public void deleteCustomer(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("Customer ID must not be null");
         }
         logger.debug("Deleting customer ID: {}", id);
-        repository.deleteById(id);
+        if (customerArchive == null || repository.findById(id).isPresent()) {
+            repository.deleteById(id);
+        } else {
+            customerArchive.delete(id);
+        }
+    }
+
+    private CustomerSegments segments() {
+        if (customerSegments == null) {
+            throw new IllegalArgumentException("Segment queries are not supported by the sharded store");
+        }
+        return customerSegments;
+    }
+
+    public static void validateSegment(SegmentQuery query) {
+        if (query.from() != null && query.to() != null && query.from().isAfter(query.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (query.minSpend() != null && query.maxSpend() != null && query.minSpend().compareTo(query.maxSpend()) > 0) {
+            throw new IllegalArgumentException("minSpend must not be above maxSpend");
+        }
+    }
+
+    private Optional<CustomerView> archived(Function<CustomerArchive, Optional<CustomerView>> lookup) {
+        return customerArchive == null ? Optional.empty() : lookup.apply(customerArchive);
+    }
+
+    private boolean mightContainEmail(String email) {
+        return emailFilter == null || emailFilter.mightContain(email);
+    }
+
+    // Only after commit: a rebuild scanning the table before then would not see the row
+    private void addEmail(String email) {
+        if (emailFilter == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailFilter.add(email);
+                }
+            });
+        } else {
+            emailFilter.add(email);
+        }
+    }
+
+    private void recordAccess(UUID id) {
+        if (recentCustomers != null) {
+            recentCustomers.record(id);
+        }
     }
 
     private CustomerResponse mapToResponse(Customer c) {
+        recordAccess(c.getId());
         return new CustomerResponse(
                 c.getId(), c.getName(), c.getEmail(), c.getAnnualSpend(), c.getLastPurchaseDate(), calculateTier(c)
         );
     }
 
+    private CustomerResponse mapToResponse(CustomerView v) {
+        recordAccess(v.id());
+        return new CustomerResponse(
+                v.id(), v.name(), v.email(), v.annualSpend(), v.lastPurchaseDate(),
+                calculateTier(v.annualSpend(), v.lastPurchaseDate())
+        );
+    }
+
+    private SparseCustomerResponse toSparse(Set<CustomerField> fields, CustomerView v) {
+        recordAccess(v.id());
+        String tier = fields.contains(CustomerField.TIER) ? calculateTier(v.annualSpend(), v.lastPurchaseDate()) : null;
+        return new SparseCustomerResponse(fields, new CustomerResponse(
+                v.id(), v.name(), v.email(), v.annualSpend(), v.lastPurchaseDate(), tier));
+    }
+
     public String calculateTier(Customer c) {
-        if (c.getAnnualSpend() == null) return "Silver";
-        LocalDate today = LocalDate.now();
-        if (c.getAnnualSpend().compareTo(BigDecimal.valueOf(10000)) >= 0 &&
-                c.getLastPurchaseDate() != null &&
-                c.getLastPurchaseDate().isAfter(today.minusMonths(6))) {
-            return "Platinum";
-        } else if (c.getAnnualSpend().compareTo(BigDecimal.valueOf(1000)) >= 0 &&
-                c.getAnnualSpend().compareTo(BigDecimal.valueOf(10000)) < 0 &&
-                c.getLastPurchaseDate() != null &&
-                c.getLastPurchaseDate().isAfter(today.minusMonths(12))) {
-            return "Gold";
-        }
-        return "Silver";
+        return calculateTier(c.getAnnualSpend(), c.getLastPurchaseDate());
+    }
+
+    // Rules from customer.tiers.*; by default Platinum from 10000 within 6 months, Gold 1000-9999.99 within 12
+    public String calculateTier(BigDecimal annualSpend, LocalDate lastPurchaseDate) {
+        return tierRules.tier(annualSpend, lastPurchaseDate);
     }
 
     private void validateRequest(CustomerRequest request) {
@@ -0,0 +1,528 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.DeduplicationReport;
+import com.example.customerapi.dto.MergeCandidate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Finds customers that are the same person under a differently written email or name, and merges them.
+ * <p>
+ * The first pass streams id, name and email of every customer and keeps only a hash of two blocking keys
+ * per row: the normalized email (case-folded, {@code +tag} dropped, dots ignored for Gmail) and the name
+ * tokens in sorted order. Sorting each key array puts customers with the same key next to each other, so
+ * candidate blocks come out of two sorts instead of a comparison of every pair. Only customers that share
+ * a block are then read in full, and the pairs inside each block are scored in parallel on a fork-join
+ * pool. Pairs scoring at least {@code customer.dedup.merge-threshold} are grouped transitively and, when
+ * applied, merged in batches of {@code merge-batch-size} groups per transaction: the most recently active
+ * customer is kept with the summed spend and the latest purchase date, and the others are deleted. Pairs
+ * that share a key but score lower are only reported for review.
+ * <p>
+ * Purchases still queued in {@link PurchaseRecorder} for a duplicate when it is merged are dropped, as
+ * they are for a deleted customer. Only CUSTOMER is scanned; archived customers are neither matched nor
+ * merged until they move back.
+ */
+@Service
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class DeduplicationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicationJob.class);
+
+    private static final String SELECT_ROWS = "SELECT id, name, email, annual_spend, last_purchase_date FROM customer WHERE id IN (";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> Row.of(
+            rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+            rs.getBigDecimal(4), rs.getObject(5, LocalDate.class));
+
+    // The low bits of a packed key hold the row's position in the scan, the high bits the key's hash
+    private static final int INDEX_BITS = 28;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long HASH_MASK = ~INDEX_MASK;
+    private static final long NO_KEY = HASH_MASK;
+
+    private static final int SCAN_FETCH_SIZE = 10_000;
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private static final double EMAIL_WEIGHT = 0.6;
+    private static final double NAME_WEIGHT = 0.4;
+    // Below this a pair shares a block only through a hash collision or a partly matching name
+    private static final double REVIEW_THRESHOLD = 0.4;
+
+    // Most recent purchase first, customers without one last, then the oldest id
+    private static final Comparator<Row> SURVIVOR_ORDER = Comparator
+            .comparing(Row::lastPurchaseDate, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()))
+            .reversed()
+            .thenComparing(Row::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final int parallelism;
+    private final int maxBlockSize;
+    private final double mergeThreshold;
+    private final int mergeBatchSize;
+    private final int reportLimit;
+
+    private volatile DeduplicationReport lastReport;
+
+    public DeduplicationJob(JdbcTemplate jdbcTemplate,
+                            TransactionOperations transactions,
+                            @Value("${customer.dedup.parallelism:0}") int parallelism,
+                            @Value("${customer.dedup.max-block-size:100}") int maxBlockSize,
+                            @Value("${customer.dedup.merge-threshold:0.8}") double mergeThreshold,
+                            @Value("${customer.dedup.merge-batch-size:500}") int mergeBatchSize,
+                            @Value("${customer.dedup.report-limit:100}") int reportLimit) {
+        if (mergeThreshold <= REVIEW_THRESHOLD || mergeThreshold > 1) {
+            throw new IllegalArgumentException("Merge threshold must be above " + REVIEW_THRESHOLD + " and at most 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxBlockSize = maxBlockSize;
+        this.mergeThreshold = mergeThreshold;
+        this.mergeBatchSize = mergeBatchSize;
+        this.reportLimit = reportLimit;
+    }
+
+    @Scheduled(cron = "${customer.dedup.cron:-}")
+    public void scheduledRun() {
+        run(true);
+    }
+
+    /**
+     * Runs a full pass; with {@code apply} false nothing is written and the report shows what would be merged.
+     */
+    public synchronized DeduplicationReport run(boolean apply) {
+        long start = System.nanoTime();
+        List<UUID[]> blocks = new ArrayList<>();
+        long scanned;
+        long oversized;
+        // Scoped so that the scan arrays can be collected once the blocks are out
+        {
+            ScanIndex index = scan();
+            scanned = index.size;
+            oversized = collectBlocks(index, index.emailKeys, blocks) + collectBlocks(index, index.nameKeys, blocks);
+        }
+        if (oversized > 0) {
+            logger.warn("Skipped {} blocks larger than {} customers", oversized, maxBlockSize);
+        }
+        Map<UUID, Row> rows = load(blocks);
+        long pairsScored = 0;
+        for (UUID[] block : blocks) {
+            pairsScored += (long) block.length * (block.length - 1) / 2;
+        }
+
+        List<Pair> pairs;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pairs = pool.submit(() -> blocks.parallelStream()
+                    .flatMap(block -> score(block, rows))
+                    .distinct()
+                    .toList()).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Union-find over the pairs that are merged, so a chain of matches becomes one group
+        Map<UUID, UUID> parent = new HashMap<>();
+        Map<UUID, Double> bestScore = new HashMap<>();
+        for (Pair pair : pairs) {
+            if (pair.score() >= mergeThreshold) {
+                union(parent, pair.first(), pair.second());
+                bestScore.merge(pair.first(), pair.score(), Math::max);
+                bestScore.merge(pair.second(), pair.score(), Math::max);
+            }
+        }
+        Map<UUID, List<UUID>> groupsByRoot = new HashMap<>();
+        for (UUID id : parent.keySet()) {
+            groupsByRoot.computeIfAbsent(find(parent, id), root -> new ArrayList<>()).add(id);
+        }
+        List<List<UUID>> groups = new ArrayList<>(groupsByRoot.values());
+
+        List<MergeCandidate> candidates = new ArrayList<>();
+        long planned = 0;
+        for (List<UUID> group : groups) {
+            Row survivor = group.stream().map(rows::get).min(SURVIVOR_ORDER).orElseThrow();
+            for (UUID id : group) {
+                if (!id.equals(survivor.id())) {
+                    planned++;
+                    if (candidates.size() < reportLimit) {
+                        candidates.add(new MergeCandidate(survivor.id(), id, bestScore.get(id), true));
+                    }
+                }
+            }
+        }
+        long reviews = 0;
+        for (Pair pair : pairs) {
+            boolean merged = pair.score() >= mergeThreshold
+                    || (parent.containsKey(pair.first()) && parent.containsKey(pair.second())
+                    && find(parent, pair.first()).equals(find(parent, pair.second())));
+            if (!merged) {
+                reviews++;
+                if (candidates.size() < reportLimit) {
+                    candidates.add(new MergeCandidate(pair.first(), pair.second(), pair.score(), false));
+                }
+            }
+        }
+
+        long mergeGroups = groups.size();
+        long duplicatesMerged = planned;
+        if (apply) {
+            mergeGroups = 0;
+            duplicatesMerged = 0;
+            for (int from = 0; from < groups.size(); from += mergeBatchSize) {
+                List<List<UUID>> batch = groups.subList(from, Math.min(from + mergeBatchSize, groups.size()));
+                long[] merged = Objects.requireNonNull(transactions.execute(status -> merge(batch)));
+                mergeGroups += merged[0];
+                duplicatesMerged += merged[1];
+            }
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Deduplication scanned {} customers in {} ms: {} blocks, {} pairs scored, {} duplicates {} in {} groups, {} for review",
+                scanned, durationMillis, blocks.size(), pairsScored, duplicatesMerged, apply ? "merged" : "found",
+                mergeGroups, reviews);
+        DeduplicationReport report = new DeduplicationReport(apply, scanned, blocks.size(), oversized, pairsScored,
+                mergeGroups, duplicatesMerged, reviews, durationMillis, Instant.now(), candidates);
+        lastReport = report;
+        return report;
+    }
+
+    public DeduplicationReport lastReport() {
+        return lastReport;
+    }
+
+    private ScanIndex scan() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Long.class);
+        // Rows created while scanning grow the arrays
+        ScanIndex index = new ScanIndex((int) Math.min(count == null ? 0 : count + 1024, INDEX_MASK + 1));
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id, name, email FROM customer");
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> index.add(
+                rs.getObject(1, UUID.class), normalizeEmail(rs.getString(3)), nameKey(rs.getString(2))));
+        return index;
+    }
+
+    /**
+     * Sorts the packed keys and adds every run of two or more customers with the same key hash as a block.
+     * Returns the number of runs skipped for being over the size limit.
+     */
+    private long collectBlocks(ScanIndex index, long[] keys, List<UUID[]> blocks) {
+        Arrays.parallelSort(keys, 0, index.size);
+        long oversized = 0;
+        int start = 0;
+        for (int i = 1; i <= index.size; i++) {
+            if (i < index.size && (keys[i] & HASH_MASK) == (keys[start] & HASH_MASK)) {
+                continue;
+            }
+            int length = i - start;
+            if (length > 1 && (keys[start] & HASH_MASK) != NO_KEY) {
+                if (length > maxBlockSize) {
+                    oversized++;
+                } else {
+                    UUID[] block = new UUID[length];
+                    for (int j = 0; j < length; j++) {
+                        block[j] = index.id((int) (keys[start + j] & INDEX_MASK));
+                    }
+                    blocks.add(block);
+                }
+            }
+            start = i;
+        }
+        return oversized;
+    }
+
+    private Map<UUID, Row> load(List<UUID[]> blocks) {
+        Set<UUID> ids = new HashSet<>();
+        for (UUID[] block : blocks) {
+            Collections.addAll(ids, block);
+        }
+        List<UUID> pending = new ArrayList<>(ids);
+        Map<UUID, Row> rows = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < pending.size(); from += LOAD_CHUNK_SIZE) {
+            List<UUID> chunk = pending.subList(from, Math.min(from + LOAD_CHUNK_SIZE, pending.size()));
+            for (Row row : jdbcTemplate.query(SELECT_ROWS + placeholders(chunk.size()) + ")", ROW_MAPPER, chunk.toArray())) {
+                rows.put(row.id(), row);
+            }
+        }
+        return rows;
+    }
+
+    private static Stream<Pair> score(UUID[] block, Map<UUID, Row> rows) {
+        List<Pair> pairs = new ArrayList<>();
+        for (int i = 0; i < block.length; i++) {
+            Row a = rows.get(block[i]);
+            for (int j = i + 1; j < block.length && a != null; j++) {
+                Row b = rows.get(block[j]);
+                if (b == null) {
+                    // Deleted since the scan
+                    continue;
+                }
+                double score = score(a, b);
+                if (score >= REVIEW_THRESHOLD) {
+                    pairs.add(Pair.of(a.id(), b.id(), score));
+                }
+            }
+        }
+        return pairs.stream();
+    }
+
+    /**
+     * Merges each group's customers into its survivor, reading them under row locks so that the sums
+     * include writes committed since the scan. Returns the number of groups merged and of customers removed.
+     */
+    private long[] merge(List<List<UUID>> groups) {
+        List<UUID> ids = groups.stream().flatMap(List::stream).toList();
+        Map<UUID, Row> current = new HashMap<>();
+        for (Row row : jdbcTemplate.query(SELECT_ROWS + placeholders(ids.size()) + ") FOR UPDATE", ROW_MAPPER, ids.toArray())) {
+            current.put(row.id(), row);
+        }
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (List<UUID> group : groups) {
+            List<Row> present = group.stream().map(current::get).filter(Objects::nonNull).sorted(SURVIVOR_ORDER).toList();
+            if (present.size() < 2) {
+                continue;
+            }
+            BigDecimal spend = null;
+            LocalDate lastPurchase = null;
+            for (Row row : present) {
+                if (row.annualSpend() != null) {
+                    spend = spend == null ? row.annualSpend() : spend.add(row.annualSpend());
+                }
+                if (row.lastPurchaseDate() != null && (lastPurchase == null || row.lastPurchaseDate().isAfter(lastPurchase))) {
+                    lastPurchase = row.lastPurchaseDate();
+                }
+            }
+            updates.add(new Object[]{spend, lastPurchase, present.get(0).id()});
+            for (Row duplicate : present.subList(1, present.size())) {
+                deletes.add(new Object[]{duplicate.id()});
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE customer SET annual_spend = ?, last_purchase_date = ? WHERE id = ?", updates);
+        jdbcTemplate.batchUpdate("DELETE FROM customer WHERE id = ?", deletes);
+        return new long[]{updates.size(), deletes.size()};
+    }
+
+    static double score(Row a, Row b) {
+        double email = !a.emailKey().isEmpty() && a.emailKey().equals(b.emailKey()) ? 1 : 0;
+        double score = EMAIL_WEIGHT * email + NAME_WEIGHT * jaccard(a.nameTokens(), b.nameTokens());
+        return Math.round(score * 1000) / 1000.0;
+    }
+
+    /**
+     * Case-folded email with any {@code +tag} removed from the local part; for Gmail, dots in the local
+     * part are ignored and googlemail.com is the same domain.
+     */
+    static String normalizeEmail(String email) {
+        if (email == null) {
+            return "";
+        }
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        int at = normalized.lastIndexOf('@');
+        if (at <= 0) {
+            return normalized;
+        }
+        String local = normalized.substring(0, at);
+        String domain = normalized.substring(at + 1);
+        int plus = local.indexOf('+');
+        if (plus > 0) {
+            local = local.substring(0, plus);
+        }
+        if (domain.equals("gmail.com") || domain.equals("googlemail.com")) {
+            local = local.replace(".", "");
+            domain = "gmail.com";
+        }
+        return local + "@" + domain;
+    }
+
+    /**
+     * The distinct name tokens, case-folded and without accents or punctuation, in sorted order.
+     */
+    static String[] nameTokens(String name) {
+        if (name == null) {
+            return new String[0];
+        }
+        String folded = name.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) > 127) {
+                folded = Normalizer.normalize(folded, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        StringBuilder token = new StringBuilder();
+        List<String> tokens = new ArrayList<>(4);
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && !token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        return tokens.stream().sorted().distinct().toArray(String[]::new);
+    }
+
+    static String nameKey(String name) {
+        return String.join(" ", nameTokens(name));
+    }
+
+    private static double jaccard(String[] a, String[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        // Both sorted and distinct
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            int cmp = a[i].compareTo(b[j]);
+            if (cmp == 0) {
+                common++;
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static long pack(String key, int index) {
+        if (key.isEmpty()) {
+            return NO_KEY | index;
+        }
+        long hash = hash(key) & HASH_MASK;
+        if (hash == NO_KEY) {
+            hash ^= 1L << INDEX_BITS;
+        }
+        return hash | index;
+    }
+
+    // 64-bit FNV-1a with a final mix, so that the high bits used for blocking are well spread
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static UUID find(Map<UUID, UUID> parent, UUID id) {
+        UUID root = id;
+        while (!parent.get(root).equals(root)) {
+            root = parent.get(root);
+        }
+        // Path compression
+        while (!id.equals(root)) {
+            id = parent.put(id, root);
+        }
+        return root;
+    }
+
+    private static void union(Map<UUID, UUID> parent, UUID a, UUID b) {
+        parent.putIfAbsent(a, a);
+        parent.putIfAbsent(b, b);
+        UUID rootA = find(parent, a);
+        UUID rootB = find(parent, b);
+        if (!rootA.equals(rootB)) {
+            parent.put(rootB, rootA);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Per scanned row: its id and one packed (key hash, row position) entry per blocking key,
+     * about 32 bytes a customer.
+     */
+    private static final class ScanIndex {
+        private long[] idHigh;
+        private long[] idLow;
+        private long[] emailKeys;
+        private long[] nameKeys;
+        private int size;
+
+        ScanIndex(int capacity) {
+            capacity = Math.max(capacity, 16);
+            idHigh = new long[capacity];
+            idLow = new long[capacity];
+            emailKeys = new long[capacity];
+            nameKeys = new long[capacity];
+        }
+
+        void add(UUID id, String emailKey, String nameKey) {
+            if (size > INDEX_MASK) {
+                throw new IllegalStateException("Too many customers for one deduplication pass");
+            }
+            if (size == idHigh.length) {
+                int capacity = (int) Math.min((long) size * 3 / 2, INDEX_MASK + 1);
+                idHigh = Arrays.copyOf(idHigh, capacity);
+                idLow = Arrays.copyOf(idLow, capacity);
+                emailKeys = Arrays.copyOf(emailKeys, capacity);
+                nameKeys = Arrays.copyOf(nameKeys, capacity);
+            }
+            idHigh[size] = id.getMostSignificantBits();
+            idLow[size] = id.getLeastSignificantBits();
+            emailKeys[size] = pack(emailKey, size);
+            nameKeys[size] = pack(nameKey, size);
+            size++;
+        }
+
+        UUID id(int index) {
+            return new UUID(idHigh[index], idLow[index]);
+        }
+    }
+
+    record Row(UUID id, String name, String email, BigDecimal annualSpend, LocalDate lastPurchaseDate,
+               String emailKey, String[] nameTokens) {
+
+        static Row of(UUID id, String name, String email, BigDecimal annualSpend, LocalDate lastPurchaseDate) {
+            return new Row(id, name, email, annualSpend, lastPurchaseDate, normalizeEmail(email), DeduplicationJob.nameTokens(name));
+        }
+    }
+
+    private record Pair(UUID first, UUID second, double score) {
+
+        static Pair of(UUID a, UUID b, double score) {
+            return a.compareTo(b) < 0 ? new Pair(a, b, score) : new Pair(b, a, score);
+        }
+    }
+}
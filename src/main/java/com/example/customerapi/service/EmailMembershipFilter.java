@@ -0,0 +1,238 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.EmailFilterStats;
+import com.example.customerapi.repository.CustomerArchive;
+import com.example.customerapi.repository.CustomerStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter over customer emails. A negative answer is definite, so lookups and the
+ * duplicate check on create can skip the database for emails that do not exist. The filter is
+ * populated at startup, extended on every create/update and rebuilt periodically to drop emails of
+ * deleted customers. Archived customers are included, since their emails are still taken. Until the
+ * first build has finished every email is reported as possibly present. Adds set bits without locking;
+ * only while a rebuild scans the table are they also recorded, under a lock, and replayed into the new
+ * filter before it is swapped in. An add that overlaps the swap itself adds to the new filter as well.
+ */
+@Component
+public class EmailMembershipFilter implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailMembershipFilter.class);
+
+    private final CustomerStore repository;
+    private final TransactionOperations transactions;
+    private final long minExpectedInsertions;
+    private final double falsePositiveRate;
+    private CustomerArchive customerArchive;
+
+    private final Object swapLock = new Object();
+    private volatile BloomBits current;
+    // Emails added since the running rebuild started, or null when none runs; guarded by swapLock
+    private List<String> addedDuringRebuild;
+    private volatile boolean rebuilding;
+    private volatile Instant lastRebuild;
+
+    public EmailMembershipFilter(CustomerStore repository,
+                                 TransactionOperations transactions,
+                                 @Value("${customer.email-filter.expected-insertions:1000000}") long minExpectedInsertions,
+                                 @Value("${customer.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.transactions = transactions;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @Autowired(required = false)
+    public void setCustomerArchive(CustomerArchive customerArchive) {
+        this.customerArchive = customerArchive;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /**
+     * @return {@code false} only if no customer has this email
+     */
+    public boolean mightContain(String email) {
+        BloomBits bits = current;
+        return bits == null || bits.mightContain(email);
+    }
+
+    /**
+     * Adds the email of a saved customer; call it once the save has committed, so that a rebuild that
+     * starts later is sure to see the row.
+     */
+    public void add(String email) {
+        BloomBits bits = current;
+        if (bits != null) {
+            bits.add(email);
+        }
+        // A rebuild that starts after this check scans a table that already holds the email
+        if (rebuilding) {
+            synchronized (swapLock) {
+                if (addedDuringRebuild != null) {
+                    addedDuringRebuild.add(email);
+                }
+            }
+        }
+        // Swapped in since the first read, possibly after the list above was replayed
+        BloomBits swapped = current;
+        if (swapped != bits && swapped != null) {
+            swapped.add(email);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${customer.email-filter.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${customer.email-filter.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Leave headroom for growth until the next rebuild
+        long customers = repository.count() + (customerArchive != null ? customerArchive.count() : 0);
+        long expected = Math.max(minExpectedInsertions, customers * 2);
+        BloomBits next = new BloomBits(expected, falsePositiveRate);
+        synchronized (swapLock) {
+            addedDuringRebuild = new ArrayList<>();
+            rebuilding = true;
+        }
+        try {
+            transactions.executeWithoutResult(status -> {
+                try (Stream<String> emails = repository.streamAllEmails()) {
+                    emails.forEach(next::add);
+                }
+                if (customerArchive != null) {
+                    try (Stream<String> emails = customerArchive.streamAllEmails()) {
+                        emails.forEach(next::add);
+                    }
+                }
+            });
+            synchronized (swapLock) {
+                addedDuringRebuild.forEach(next::add);
+                current = next;
+            }
+            lastRebuild = Instant.now();
+        } finally {
+            synchronized (swapLock) {
+                rebuilding = false;
+                addedDuringRebuild = null;
+            }
+        }
+        logger.info("Rebuilt email filter with {} emails in {} ms", next.insertions(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public EmailFilterStats stats() {
+        BloomBits bits = current;
+        if (bits == null) {
+            return new EmailFilterStats(false, 0, 0, 0, 0, 1.0, null);
+        }
+        return new EmailFilterStats(true, bits.insertions(), bits.bitSize(), bits.hashFunctions(),
+                bits.bitSize() / 8, bits.estimatedFalsePositiveRate(), lastRebuild);
+    }
+
+    /**
+     * Lock-free bit array; bits are only ever set, so concurrent adds need nothing beyond CAS on a word.
+     */
+    static final class BloomBits {
+
+        private final AtomicLongArray words;
+        private final long bitSize;
+        private final int hashFunctions;
+        private final AtomicLong insertions = new AtomicLong();
+
+        BloomBits(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitSize = (long) wordCount * 64;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        }
+
+        void add(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitSize;
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                while (((word = words.get(index)) & mask) == 0) {
+                    if (words.compareAndSet(index, word, word | mask)) {
+                        break;
+                    }
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctions; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitSize;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long insertions() {
+            return insertions.get();
+        }
+
+        long bitSize() {
+            return bitSize;
+        }
+
+        int hashFunctions() {
+            return hashFunctions;
+        }
+
+        /**
+         * Probability that an absent email passes all k probes, from the fraction of bits set.
+         */
+        double estimatedFalsePositiveRate() {
+            long setBits = 0;
+            for (int i = 0; i < words.length(); i++) {
+                setBits += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) setBits / bitSize, hashFunctions);
+        }
+
+        /**
+         * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer.
+         */
+        private static long hash64(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.exception.IdempotencyConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting store of results for requests carrying an {@code Idempotency-Key}.
+ * A retry with a known key gets the original response back; a duplicate that arrives while
+ * the first request is still running waits for it instead of racing it.
+ * <p>
+ * Only completed entries are ever evicted, oldest first: they are queued in completion order, which with a
+ * fixed TTL is also expiry order, so a long-running request does not hold back the eviction of expired
+ * entries. A request still in flight keeps its entry. A new key is admitted only while there is room; when
+ * every slot holds a request still in flight it is rejected with {@link IdempotencyConflictException}.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Slot> completionOrder = new ConcurrentLinkedQueue<>();
+    // Entries in the map, counted exactly so the bound holds under concurrent admissions
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyStore(@Value("${customer.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${customer.idempotency.ttl-seconds:600}") long ttlSeconds,
+                            @Value("${customer.idempotency.wait-timeout-seconds:5}") long waitTimeoutSeconds) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Idempotency store size must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.waitTimeoutMillis = TimeUnit.SECONDS.toMillis(waitTimeoutSeconds);
+    }
+
+    /**
+     * Runs {@code action} once per key. The {@code fingerprint} identifies the request body so
+     * that a key reused for a different request is rejected rather than silently replayed.
+     */
+    public CustomerResponse execute(String key, Object fingerprint, Supplier<CustomerResponse> action) {
+        Objects.requireNonNull(key, "Idempotency key must not be null");
+        for (;;) {
+            long now = System.currentTimeMillis();
+            evictExpired(now);
+
+            Entry existing = entries.get(key);
+            if (existing == null) {
+                if (!reserve()) {
+                    throw new IdempotencyConflictException("Too many requests with an Idempotency-Key are in progress");
+                }
+                Entry created = new Entry(fingerprint);
+                existing = entries.putIfAbsent(key, created);
+                if (existing == null) {
+                    return runFirst(key, created, action);
+                }
+                count.decrementAndGet();
+            }
+            if (existing.expiresAt <= now) {
+                remove(key, existing);
+                continue;
+            }
+            if (!Objects.equals(existing.fingerprint, fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key has already been used for a different request");
+            }
+            return await(existing);
+        }
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    private CustomerResponse runFirst(String key, Entry entry, Supplier<CustomerResponse> action) {
+        try {
+            CustomerResponse response = action.get();
+            entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+            entry.result.complete(response);
+            completionOrder.add(new Slot(key, entry));
+            return response;
+        } catch (RuntimeException ex) {
+            // Failed attempts are not remembered, so the client may retry with the same key.
+            remove(key, entry);
+            entry.expiresAt = System.currentTimeMillis();
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private CustomerResponse await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for a request with this Idempotency-Key");
+        }
+    }
+
+    /**
+     * Takes a slot for a new entry, evicting the oldest completed entries to make room.
+     *
+     * @return {@code false} if every slot holds a request still in flight
+     */
+    private boolean reserve() {
+        for (;;) {
+            if (count.incrementAndGet() <= maxEntries) {
+                return true;
+            }
+            count.decrementAndGet();
+            Slot oldest = completionOrder.poll();
+            if (oldest == null) {
+                return false;
+            }
+            remove(oldest.key(), oldest.entry());
+        }
+    }
+
+    private void evictExpired(long now) {
+        Slot head;
+        while ((head = completionOrder.peek()) != null && head.entry().expiresAt <= now) {
+            if (completionOrder.remove(head)) {
+                remove(head.key(), head.entry());
+            }
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            count.decrementAndGet();
+        }
+    }
+
+    private static final class Entry {
+        private final Object fingerprint;
+        private final CompletableFuture<CustomerResponse> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(Object fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private record Slot(String key, Entry entry) {
+    }
+}
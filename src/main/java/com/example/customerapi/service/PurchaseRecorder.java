@@ -0,0 +1,248 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.repository.CustomerArchive;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces purchases per customer in memory and applies them on a short interval as one batched
+ * {@code UPDATE ... SET annual_spend = annual_spend + ?} per customer, so a burst of purchases for the same
+ * customer costs one row write instead of one read-modify-write each. Accepted purchases are first
+ * appended to a write-ahead log (when {@code customer.purchases.wal-dir} is set) and recovered from it
+ * on startup; the id of every applied batch is recorded with it so a replayed segment is applied once.
+ * Reads see a purchase after the next flush. A purchase for an archived customer restores it first.
+ * Flushes run on a thread of their own rather than the shared scheduler, so a long archival, dedup or
+ * filter rebuild pass cannot hold purchases back.
+ */
+@Service
+@ConditionalOnExpression("'${customer.store.type:jpa}' != 'sharded'")
+public class PurchaseRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseRecorder.class);
+
+    private static final String APPLY_SQL = "UPDATE customer SET "
+            + "annual_spend = COALESCE(annual_spend, 0) + ?, "
+            + "last_purchase_date = GREATEST(COALESCE(last_purchase_date, ?), ?) "
+            + "WHERE id = ?";
+
+    private static final Duration BATCH_RETENTION = Duration.ofDays(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final PurchaseWriteAheadLog wal;
+    private CustomerArchive customerArchive;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private Map<UUID, Pending> pending = new HashMap<>();
+    // Only touched by the flushing thread (flush is synchronized)
+    private final Deque<PurchaseWriteAheadLog.Segment> unapplied = new ArrayDeque<>();
+    private Instant lastPrune = Instant.EPOCH;
+
+    @Value("${customer.purchases.flush-interval-ms:200}")
+    private long flushIntervalMillis = 200;
+    private ScheduledExecutorService flusher;
+
+    public PurchaseRecorder(JdbcTemplate jdbcTemplate,
+                            TransactionOperations transactions,
+                            @Value("${customer.purchases.wal-dir:}") String walDir,
+                            @Value("${customer.purchases.wal-sync:true}") boolean walSync) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        if (walDir.isBlank()) {
+            this.wal = null;
+        } else {
+            this.wal = new PurchaseWriteAheadLog(Paths.get(walDir).toAbsolutePath(), walSync);
+            unapplied.addAll(wal.sealedSegments());
+            wal.replayActive(entry -> merge(entry.customerId(), entry.amount(), entry.purchaseDate()));
+            logger.info("Recovered {} purchase log segments and {} pending customers", unapplied.size(), pending.size());
+        }
+    }
+
+    @Autowired(required = false)
+    public void setCustomerArchive(CustomerArchive customerArchive) {
+        this.customerArchive = customerArchive;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "purchase-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            // An exception would cancel the schedule; the batch stays queued and is retried next time
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                logger.error("Failed to flush purchases", ex);
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Accepts a purchase; it is durable (with a log) when this returns, and visible after the next flush.
+     */
+    public void record(UUID customerId, BigDecimal amount, LocalDate purchaseDate) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Purchase amount must be positive");
+        }
+        if (purchaseDate == null) {
+            purchaseDate = LocalDate.now();
+        }
+        FileChannel written = null;
+        synchronized (lock) {
+            if (wal != null) {
+                written = wal.append(customerId, amount, purchaseDate);
+            }
+            merge(customerId, amount, purchaseDate);
+        }
+        if (written != null) {
+            wal.force(written);
+        }
+    }
+
+    public int pendingCustomers() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public synchronized void flush() {
+        PurchaseWriteAheadLog.Segment batch;
+        synchronized (lock) {
+            if (!pending.isEmpty()) {
+                List<PurchaseWriteAheadLog.Entry> entries = new ArrayList<>(pending.size());
+                pending.forEach((id, p) -> entries.add(new PurchaseWriteAheadLog.Entry(id, p.amount, p.lastPurchaseDate)));
+                pending = new HashMap<>();
+                batch = wal != null ? wal.rotate(entries) : new PurchaseWriteAheadLog.Segment(null, null, entries);
+                unapplied.addLast(batch);
+            }
+        }
+        // Batches are applied in order; a failed one is retried first on the next flush
+        while (!unapplied.isEmpty()) {
+            batch = unapplied.peekFirst();
+            apply(batch);
+            unapplied.removeFirst();
+            if (wal != null) {
+                wal.delete(batch);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } finally {
+            if (wal != null) {
+                wal.close();
+            }
+        }
+    }
+
+    private void merge(UUID customerId, BigDecimal amount, LocalDate purchaseDate) {
+        pending.computeIfAbsent(customerId, id -> new Pending()).add(amount, purchaseDate);
+    }
+
+    private void apply(PurchaseWriteAheadLog.Segment batch) {
+        long start = System.nanoTime();
+        transactions.executeWithoutResult(status -> {
+            if (batch.batchId() != null) {
+                Integer applied = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM purchase_batch WHERE id = ?", Integer.class, batch.batchId());
+                if (applied != null && applied > 0) {
+                    return;
+                }
+            }
+            int[][] updated = applyEntries(batch.entries());
+            if (customerArchive != null) {
+                // Customers that were not in CUSTOMER may have been archived: restore and apply again
+                List<PurchaseWriteAheadLog.Entry> restored = new ArrayList<>();
+                int i = 0;
+                for (int[] counts : updated) {
+                    for (int count : counts) {
+                        PurchaseWriteAheadLog.Entry entry = batch.entries().get(i++);
+                        if (count == 0 && customerArchive.restore(entry.customerId())) {
+                            restored.add(entry);
+                        }
+                    }
+                }
+                if (!restored.isEmpty()) {
+                    logger.info("Restored {} archived customers with new purchases", restored.size());
+                    applyEntries(restored);
+                }
+            }
+            if (batch.batchId() != null) {
+                Instant now = Instant.now();
+                jdbcTemplate.update("INSERT INTO purchase_batch (id, applied_at) VALUES (?, ?)",
+                        batch.batchId(), Timestamp.from(now));
+                if (now.isAfter(lastPrune.plus(Duration.ofHours(1)))) {
+                    jdbcTemplate.update("DELETE FROM purchase_batch WHERE applied_at < ?",
+                            Timestamp.from(now.minus(BATCH_RETENTION)));
+                    lastPrune = now;
+                }
+            }
+        });
+        logger.debug("Applied purchases for {} customers in {} ms", batch.entries().size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int[][] applyEntries(List<PurchaseWriteAheadLog.Entry> entries) {
+        return jdbcTemplate.batchUpdate(APPLY_SQL, entries, entries.size(), (ps, entry) -> {
+            Date date = Date.valueOf(entry.purchaseDate());
+            ps.setBigDecimal(1, entry.amount());
+            ps.setDate(2, date);
+            ps.setDate(3, date);
+            ps.setObject(4, entry.customerId());
+        });
+    }
+
+    private static final class Pending {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private LocalDate lastPurchaseDate;
+
+        void add(BigDecimal delta, LocalDate purchaseDate) {
+            amount = amount.add(delta);
+            if (lastPurchaseDate == null || purchaseDate.isAfter(lastPurchaseDate)) {
+                lastPurchaseDate = purchaseDate;
+            }
+        }
+    }
+}
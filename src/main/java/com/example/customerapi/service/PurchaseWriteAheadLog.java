@@ -0,0 +1,190 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of accepted purchases, one {@code id amount date} line each. The active file
+ * {@code purchases.wal} is rotated into a sealed segment {@code purchases-<batch id>.wal} when its
+ * purchases are handed to the database, and the segment is deleted once that batch has committed.
+ * Not thread-safe; {@link PurchaseRecorder} serializes appends and rotation.
+ */
+class PurchaseWriteAheadLog {
+
+    private static final String ACTIVE = "purchases.wal";
+    private static final String SEGMENT_PREFIX = "purchases-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final boolean sync;
+    private FileChannel active;
+
+    PurchaseWriteAheadLog(Path directory, boolean sync) {
+        this.directory = directory;
+        this.sync = sync;
+        try {
+            Files.createDirectories(directory);
+            active = open();
+            terminateTornLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open purchase log in " + directory, e);
+        }
+    }
+
+    record Entry(UUID customerId, BigDecimal amount, LocalDate purchaseDate) {
+    }
+
+    record Segment(UUID batchId, Path file, List<Entry> entries) {
+    }
+
+    /**
+     * Sealed segments left by a previous run whose batch may or may not have committed, oldest first.
+     */
+    List<Segment> sealedSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Segment> segments = new ArrayList<>();
+            for (Path file : files.filter(PurchaseWriteAheadLog::isSegment).sorted().toList()) {
+                String name = file.getFileName().toString();
+                UUID batchId = UUID.fromString(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                segments.add(new Segment(batchId, file, read(file)));
+            }
+            return segments;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read purchase log segments in " + directory, e);
+        }
+    }
+
+    /**
+     * Purchases accepted by a previous run that were never handed to the database.
+     */
+    void replayActive(Consumer<Entry> consumer) {
+        try {
+            read(directory.resolve(ACTIVE)).forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read purchase log " + directory.resolve(ACTIVE), e);
+        }
+    }
+
+    /**
+     * Writes the entry and returns the channel to {@link #force} once the caller has released its lock.
+     */
+    FileChannel append(UUID customerId, BigDecimal amount, LocalDate purchaseDate) {
+        byte[] line = (customerId + " " + amount.toPlainString() + " " + purchaseDate + "\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+            return active;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to purchase log", e);
+        }
+    }
+
+    /**
+     * Concurrent appenders share one fsync instead of each holding the lock through their own.
+     */
+    void force(FileChannel channel) {
+        if (!sync) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Rotated meanwhile; rotation forces the file before closing it
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync purchase log", e);
+        }
+    }
+
+    /**
+     * Seals the active file as the segment of a new batch and starts an empty one.
+     */
+    Segment rotate(List<Entry> entries) {
+        UUID batchId = TimeOrderedUuidGenerator.next();
+        Path segment = directory.resolve(SEGMENT_PREFIX + batchId + SEGMENT_SUFFIX);
+        try {
+            active.force(true);
+            active.close();
+            Files.move(directory.resolve(ACTIVE), segment, StandardCopyOption.ATOMIC_MOVE);
+            active = open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate purchase log", e);
+        }
+        return new Segment(batchId, segment, entries);
+    }
+
+    void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete purchase log segment " + segment.file(), e);
+        }
+    }
+
+    void close() {
+        try {
+            active.force(true);
+            active.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close purchase log", e);
+        }
+    }
+
+    // Keeps the next append from being glued onto a line cut short by a crash
+    private void terminateTornLine() throws IOException {
+        long size = active.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        active.read(last, size - 1);
+        if (last.get(0) != '\n') {
+            active.write(ByteBuffer.wrap(new byte[]{'\n'}));
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(ACTIVE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return channel.position(channel.size());
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static List<Entry> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            String[] fields = line.split(" ");
+            // A torn last line from a crash mid-append was never acknowledged
+            if (fields.length == 3 && fields[2].length() == 10) {
+                entries.add(new Entry(UUID.fromString(fields[0]), new BigDecimal(fields[1]), LocalDate.parse(fields[2])));
+            }
+        }
+        return entries;
+    }
+}
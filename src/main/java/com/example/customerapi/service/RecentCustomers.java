@@ -0,0 +1,106 @@
+package com.example.customerapi.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The ids of the customers most recently returned by {@link CustomerService}, in a fixed-size ring so that
+ * recording one is a single array write. With {@code customer.warmup.snapshot-file} set, the ring is saved
+ * on shutdown and read back by the startup warm-up, so a new instance knows which customers were hot.
+ */
+@Component
+public class RecentCustomers {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentCustomers.class);
+
+    private final AtomicReferenceArray<UUID> ring;
+    private final AtomicLong next = new AtomicLong();
+    private final Path snapshotFile;
+
+    public RecentCustomers(@Value("${customer.warmup.recent-capacity:1024}") int capacity,
+                           @Value("${customer.warmup.snapshot-file:}") String snapshotFile) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Recent customer capacity must be positive");
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.snapshotFile = snapshotFile.isBlank() ? null : Paths.get(snapshotFile).toAbsolutePath();
+    }
+
+    public void record(UUID id) {
+        if (id != null) {
+            ring.lazySet((int) (next.getAndIncrement() % ring.length()), id);
+        }
+    }
+
+    /**
+     * Distinct ids, most recently recorded first.
+     */
+    public List<UUID> snapshot() {
+        Set<UUID> ids = new LinkedHashSet<>();
+        long end = next.get();
+        for (long i = end - 1; i >= Math.max(0, end - ring.length()); i--) {
+            UUID id = ring.get((int) (i % ring.length()));
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * The ids saved by the previous instance, most recent first; empty without a snapshot file.
+     */
+    public List<UUID> loadSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(snapshotFile)) {
+                if (!line.isBlank()) {
+                    ids.add(UUID.fromString(line.trim()));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable recent-customer snapshot {}: {}", snapshotFile, e.getMessage());
+            return List.of();
+        }
+        return ids;
+    }
+
+    @PreDestroy
+    public void save() {
+        if (snapshotFile == null) {
+            return;
+        }
+        List<String> lines = snapshot().stream().map(UUID::toString).toList();
+        try {
+            Path parent = snapshotFile.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            Files.write(tmp, lines);
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved {} recent customer ids to {}", lines.size(), snapshotFile);
+        } catch (IOException e) {
+            logger.warn("Could not save recent-customer snapshot {}", snapshotFile, e);
+        }
+    }
+}
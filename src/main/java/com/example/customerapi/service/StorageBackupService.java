@@ -0,0 +1,118 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.BackupResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Online backups of the file-backed store. H2's {@code BACKUP TO} copies a consistent snapshot of the
+ * database file into a zip while the application keeps serving reads and writes.
+ */
+@Service
+@Profile("file")
+public class StorageBackupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageBackupService.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private static final String PREFIX = "customers-";
+    private static final String SUFFIX = ".zip";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path backupDir;
+    private final int retention;
+
+    public StorageBackupService(JdbcTemplate jdbcTemplate,
+                                @Value("${customer.storage.backup-dir:./data/backups}") String backupDir,
+                                @Value("${customer.storage.backup-retention:7}") int retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.backupDir = Paths.get(backupDir).toAbsolutePath();
+        this.retention = retention;
+    }
+
+    public BackupResponse backup() {
+        Instant now = Instant.now();
+        Path target = backupDir.resolve(PREFIX + FILE_TIMESTAMP.format(now) + SUFFIX);
+        try {
+            Files.createDirectories(backupDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create backup directory " + backupDir, e);
+        }
+
+        long start = System.nanoTime();
+        // The file name is generated here, never taken from a request
+        jdbcTemplate.execute("BACKUP TO '" + target.toString().replace("'", "''") + "'");
+        logger.info("Backed up customer store to {} in {} ms", target, (System.nanoTime() - start) / 1_000_000);
+
+        prune();
+        return toResponse(target);
+    }
+
+    @Scheduled(cron = "${customer.storage.backup-cron:-}")
+    public void scheduledBackup() {
+        backup();
+    }
+
+    public List<BackupResponse> listBackups() {
+        return backupFiles().map(this::toResponse).toList();
+    }
+
+    private void prune() {
+        List<Path> files = backupFiles().toList();
+        for (int i = retention; i < files.size(); i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+                logger.info("Deleted old backup {}", files.get(i));
+            } catch (IOException e) {
+                logger.warn("Could not delete old backup {}", files.get(i), e);
+            }
+        }
+    }
+
+    /**
+     * Newest first; the timestamped names sort chronologically.
+     */
+    private Stream<Path> backupFiles() {
+        if (!Files.isDirectory(backupDir)) {
+            return Stream.empty();
+        }
+        try (Stream<Path> files = Files.list(backupDir)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList()
+                    .stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list backups in " + backupDir, e);
+        }
+    }
+
+    private BackupResponse toResponse(Path file) {
+        try {
+            return new BackupResponse(file.getFileName().toString(), Files.size(file),
+                    Files.getLastModifiedTime(file).toInstant());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read backup " + file, e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.customerapi.tier;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link TierRuleSet} compiled into parallel arrays. {@link #on(LocalDate)} fixes the evaluation day,
+ * turning each recency window into an epoch-day cutoff, and the resulting {@link Day} classifies a customer
+ * with a few comparisons per rule and no allocation. Tiers are numbered in rule order, the default tier last.
+ */
+public final class TierEvaluator {
+
+    private final String version;
+    private final String[] names;
+    private final BigDecimal[] minSpend;
+    private final BigDecimal[] maxSpend;
+    // Spend bounds in whole cents, rounded up: for a spend in cents, c >= ceil(100 * min) exactly when c / 100 >= min
+    private final long[] minCents;
+    private final long[] maxCents;
+    private final int[] withinMonths;
+
+    private TierEvaluator(TierRuleSet rules) {
+        List<TierRule> tiers = rules.tiers();
+        int n = tiers.size();
+        version = rules.version();
+        names = new String[n + 1];
+        minSpend = new BigDecimal[n];
+        maxSpend = new BigDecimal[n];
+        minCents = new long[n];
+        maxCents = new long[n];
+        withinMonths = new int[n];
+        for (int i = 0; i < n; i++) {
+            TierRule rule = tiers.get(i);
+            names[i] = rule.name();
+            minSpend[i] = rule.minSpend();
+            maxSpend[i] = rule.maxSpend();
+            minCents[i] = toCents(rule.minSpend());
+            maxCents[i] = rule.maxSpend() == null ? Long.MAX_VALUE : toCents(rule.maxSpend());
+            withinMonths[i] = rule.withinMonths() == null ? 0 : rule.withinMonths();
+        }
+        names[n] = rules.defaultTier();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the rule set is incomplete or inconsistent
+     */
+    public static TierEvaluator compile(TierRuleSet rules) {
+        if (rules == null || rules.version() == null || rules.version().isBlank()) {
+            throw new IllegalArgumentException("Tier rules need a version");
+        }
+        if (rules.tiers() == null || rules.defaultTier() == null || rules.defaultTier().isBlank()) {
+            throw new IllegalArgumentException("Tier rules need a list of tiers and a default tier");
+        }
+        Set<String> names = new HashSet<>();
+        names.add(rules.defaultTier());
+        for (TierRule rule : rules.tiers()) {
+            if (rule == null || rule.name() == null || rule.name().isBlank() || !names.add(rule.name())) {
+                throw new IllegalArgumentException("Tier names must be present and unique");
+            }
+            if (rule.minSpend() == null || rule.minSpend().signum() < 0) {
+                throw new IllegalArgumentException("Tier " + rule.name() + " needs a minSpend of at least 0");
+            }
+            if (rule.maxSpend() != null && rule.maxSpend().compareTo(rule.minSpend()) <= 0) {
+                throw new IllegalArgumentException("Tier " + rule.name() + " has maxSpend not above minSpend");
+            }
+            if (rule.withinMonths() != null && (rule.withinMonths() < 1 || rule.withinMonths() > 1200)) {
+                throw new IllegalArgumentException("Tier " + rule.name() + " needs withinMonths between 1 and 1200");
+            }
+        }
+        return new TierEvaluator(rules);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public int tiers() {
+        return names.length;
+    }
+
+    public String name(int tier) {
+        return names[tier];
+    }
+
+    public List<String> names() {
+        return List.of(names);
+    }
+
+    public Day on(LocalDate asOf) {
+        long[] after = new long[withinMonths.length];
+        for (int i = 0; i < after.length; i++) {
+            after[i] = withinMonths[i] == 0 ? Long.MIN_VALUE : asOf.minusMonths(withinMonths[i]).toEpochDay();
+        }
+        return new Day(asOf, after);
+    }
+
+    /**
+     * The rules evaluated on one day: a purchase counts as recent when it is after that day minus the window.
+     */
+    public final class Day {
+
+        private final LocalDate asOf;
+        private final long[] afterEpochDay;
+
+        private Day(LocalDate asOf, long[] afterEpochDay) {
+            this.asOf = asOf;
+            this.afterEpochDay = afterEpochDay;
+        }
+
+        public LocalDate asOf() {
+            return asOf;
+        }
+
+        public TierEvaluator evaluator() {
+            return TierEvaluator.this;
+        }
+
+        /**
+         * @param epochDay the last purchase date, or {@link Integer#MIN_VALUE} without one
+         * @return the tier number
+         */
+        public int tier(long spendCents, int epochDay) {
+            for (int i = 0; i < afterEpochDay.length; i++) {
+                if (spendCents >= minCents[i] && spendCents < maxCents[i] && epochDay > afterEpochDay[i]) {
+                    return i;
+                }
+            }
+            return afterEpochDay.length;
+        }
+
+        public String tier(BigDecimal annualSpend, LocalDate lastPurchaseDate) {
+            BigDecimal spend = annualSpend == null ? BigDecimal.ZERO : annualSpend;
+            long epochDay = lastPurchaseDate == null ? Integer.MIN_VALUE : lastPurchaseDate.toEpochDay();
+            for (int i = 0; i < afterEpochDay.length; i++) {
+                if (spend.compareTo(minSpend[i]) >= 0 && (maxSpend[i] == null || spend.compareTo(maxSpend[i]) < 0)
+                        && epochDay > afterEpochDay[i]) {
+                    return names[i];
+                }
+            }
+            return names[afterEpochDay.length];
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        BigInteger cents = amount.movePointRight(2).setScale(0, RoundingMode.CEILING).toBigInteger();
+        return cents.bitLength() < 64 ? cents.longValue() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.customerapi.tier;
+
+import java.math.BigDecimal;
+
+/**
+ * One tier of a {@link TierRuleSet}: customers whose annual spend is in {@code [minSpend, maxSpend)} and who
+ * purchased within the last {@code withinMonths} months. A {@code null} maxSpend is open; a {@code null}
+ * withinMonths matches regardless of the last purchase.
+ */
+public record TierRule(String name, BigDecimal minSpend, BigDecimal maxSpend, Integer withinMonths) {
+}
@@ -0,0 +1,40 @@
+package com.example.customerapi.tier;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A versioned set of tier rules. The rules are tried in order and the first match wins; customers matching
+ * none get {@code defaultTier}. A customer without a spend counts as spending 0.
+ */
+public record TierRuleSet(String version, List<TierRule> tiers, String defaultTier) {
+
+    // The rules CustomerService has always applied
+    public static final TierRuleSet DEFAULT = new TierRuleSet("default", List.of(
+            new TierRule("Platinum", BigDecimal.valueOf(10_000), null, 6),
+            new TierRule("Gold", BigDecimal.valueOf(1_000), BigDecimal.valueOf(10_000), 12)), "Silver");
+
+    /**
+     * Parses the {@code customer.tiers.rules} format: comma-separated {@code name:minSpend-maxSpend:withinMonths},
+     * where maxSpend and withinMonths may be left empty, e.g. {@code Platinum:10000-:6,Gold:1000-10000:12}.
+     */
+    public static TierRuleSet parse(String version, String rules, String defaultTier) {
+        List<TierRule> tiers = new ArrayList<>();
+        for (String rule : rules.split(",")) {
+            String[] parts = rule.trim().split(":", -1);
+            String[] spend = parts.length == 3 ? parts[1].split("-", -1) : new String[0];
+            if (spend.length != 2 || spend[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid tier rule '" + rule.trim() + "', expected name:minSpend-maxSpend:withinMonths");
+            }
+            try {
+                tiers.add(new TierRule(parts[0].trim(), new BigDecimal(spend[0].trim()),
+                        spend[1].isBlank() ? null : new BigDecimal(spend[1].trim()),
+                        parts[2].isBlank() ? null : Integer.valueOf(parts[2].trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in tier rule '" + rule.trim() + "'");
+            }
+        }
+        return new TierRuleSet(version, tiers, defaultTier);
+    }
+}
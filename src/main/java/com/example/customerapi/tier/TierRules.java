@@ -0,0 +1,65 @@
+package com.example.customerapi.tier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The active tier rules, from {@code customer.tiers.*}. The rules are compiled once at startup and the
+ * evaluation for today is kept until midnight, so classifying a customer costs no parsing or date arithmetic.
+ */
+@Component
+public class TierRules {
+
+    private static final Logger logger = LoggerFactory.getLogger(TierRules.class);
+
+    private final TierRuleSet rules;
+    private final TierEvaluator evaluator;
+
+    private volatile Today today;
+
+    @Autowired
+    public TierRules(@Value("${customer.tiers.version:default}") String version,
+                     @Value("${customer.tiers.rules:Platinum:10000-:6,Gold:1000-10000:12}") String rules,
+                     @Value("${customer.tiers.default-tier:Silver}") String defaultTier) {
+        this(TierRuleSet.parse(version, rules, defaultTier));
+        logger.info("Tier rules version {}: {}", version, rules);
+    }
+
+    public TierRules(TierRuleSet rules) {
+        this.rules = rules;
+        this.evaluator = TierEvaluator.compile(rules);
+    }
+
+    public static TierRules defaults() {
+        return new TierRules(TierRuleSet.DEFAULT);
+    }
+
+    public TierRuleSet ruleSet() {
+        return rules;
+    }
+
+    public TierEvaluator evaluator() {
+        return evaluator;
+    }
+
+    public String tier(BigDecimal annualSpend, LocalDate lastPurchaseDate) {
+        Today current = today;
+        if (current == null || System.currentTimeMillis() >= current.untilMillis()) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate day = LocalDate.now(zone);
+            current = new Today(evaluator.on(day), day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            today = current;
+        }
+        return current.rules().tier(annualSpend, lastPurchaseDate);
+    }
+
+    private record Today(TierEvaluator.Day rules, long untilMillis) {
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.customerapi.warmup;
+
+import com.example.customerapi.controller.CustomerController;
+import com.example.customerapi.filter.AdmissionControlFilter;
+import com.example.customerapi.repository.CustomerStore;
+import com.example.customerapi.service.RecentCustomers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Warms the instance up before it reports ready. Spring Boot only moves readiness to
+ * {@code ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has returned, so while this runs
+ * {@code /actuator/health/readiness} answers 503 and no traffic is routed here.
+ * <p>
+ * It opens the connection pool up to {@code customer.warmup.connections}, reads the hot customers (the
+ * configured {@code customer.warmup.customer-ids} and those saved by {@link RecentCustomers} on the last
+ * shutdown) so their pages are in the database cache, and then sends the customer lookups to the started
+ * server over loopback HTTP {@code customer.warmup.iterations} times, bounded by
+ * {@code customer.warmup.max-duration-ms}, so that the filters, message converters, controller, service,
+ * repository and JSON code are JIT-compiled before the first real request. The requests skip the
+ * per-client quota of {@link AdmissionControlFilter}, and the {@link CustomerController} request log is
+ * held at WARN while they run. Failures are logged and never keep the instance from becoming ready.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.warmup.enabled", havingValue = "true")
+public class StartupWarmUp implements ApplicationRunner, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    // Customers sampled from the store when no hot ones are known
+    private static final int SAMPLE_SIZE = 100;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final String CONTROLLER_LOGGER = CustomerController.class.getName();
+
+    private final DataSource dataSource;
+    private final CustomerStore store;
+    private final TransactionOperations transactions;
+    private final ObjectMapper objectMapper;
+    private final RecentCustomers recentCustomers;
+    private final LoggingSystem loggingSystem;
+
+    private final int connections;
+    private final List<UUID> configuredIds;
+    private final int iterations;
+    private final long maxDurationMillis;
+
+    private AdmissionControlFilter admissionControl;
+    private volatile int port = -1;
+    private volatile WarmUpResult result;
+
+    public StartupWarmUp(DataSource dataSource,
+                         CustomerStore store,
+                         TransactionOperations transactions,
+                         ObjectMapper objectMapper,
+                         RecentCustomers recentCustomers,
+                         LoggingSystem loggingSystem,
+                         @Value("${customer.warmup.connections:10}") int connections,
+                         @Value("${customer.warmup.customer-ids:}") List<UUID> configuredIds,
+                         @Value("${customer.warmup.iterations:2000}") int iterations,
+                         @Value("${customer.warmup.max-duration-ms:30000}") long maxDurationMillis) {
+        this.dataSource = dataSource;
+        this.store = store;
+        this.transactions = transactions;
+        this.objectMapper = objectMapper;
+        this.recentCustomers = recentCustomers;
+        this.loggingSystem = loggingSystem;
+        this.connections = connections;
+        this.configuredIds = configuredIds;
+        this.iterations = iterations;
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    @Autowired(required = false)
+    public void setAdmissionControl(AdmissionControlFilter admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    // The application's own server; a separate management server has a namespace
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // After the other runners, e.g. the email filter build, so their work is not raced
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+        int primed = 0;
+        int hotLoaded = 0;
+        int requests = 0;
+        try {
+            primed = primeConnections();
+            if (port <= 0) {
+                logger.warn("No web server is running; the warm-up sends no requests");
+            } else {
+                try (Loopback loopback = new Loopback(port)) {
+                    Set<UUID> hot = new LinkedHashSet<>(configuredIds);
+                    hot.addAll(recentCustomers.loadSnapshot());
+                    List<UUID> ids = new ArrayList<>();
+                    List<String> emails = new ArrayList<>();
+                    for (UUID id : hot) {
+                        if (System.nanoTime() > deadline) {
+                            break;
+                        }
+                        // null when deleted since it was hot
+                        String email = loopback.field("/customers/" + id + "?fields=email", "email");
+                        if (email != null) {
+                            ids.add(id);
+                            emails.add(email);
+                            hotLoaded++;
+                        }
+                    }
+                    if (ids.isEmpty()) {
+                        for (String email : sampleEmails()) {
+                            String id = loopback.field("/customers?fields=id&email=" + encode(email), "id");
+                            if (id != null) {
+                                ids.add(UUID.fromString(id));
+                                emails.add(email);
+                            }
+                        }
+                    }
+                    if (!ids.isEmpty()) {
+                        requests = exercise(loopback, ids, emails, deadline);
+                    }
+                }
+            }
+        } catch (RuntimeException | SQLException | IOException e) {
+            logger.warn("Warm-up stopped early; the instance becomes ready anyway", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Warm-up interrupted; the instance becomes ready anyway");
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        result = new WarmUpResult(primed, hotLoaded, requests, durationMillis);
+        logger.info("Warm-up finished in {} ms: {} connections, {} hot customers, {} requests",
+                durationMillis, primed, hotLoaded, requests);
+    }
+
+    /**
+     * What the last warm-up did; {@code null} until it has run.
+     */
+    public WarmUpResult result() {
+        return result;
+    }
+
+    /**
+     * Holds that many connections open at once so the pool creates them now rather than on first use.
+     */
+    private int primeConnections() throws SQLException {
+        int target = connections;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            target = Math.min(target, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        }
+        List<Connection> open = new ArrayList<>(target);
+        try {
+            for (int i = 0; i < target; i++) {
+                Connection connection = dataSource.getConnection();
+                open.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : open) {
+                connection.close();
+            }
+        }
+        return open.size();
+    }
+
+    private List<String> sampleEmails() {
+        return transactions.execute(status -> {
+            try (Stream<String> emails = store.streamAllEmails()) {
+                return emails.limit(SAMPLE_SIZE).toList();
+            }
+        });
+    }
+
+    /**
+     * Cycles through the lookups real traffic makes, hits and misses.
+     */
+    private int exercise(Loopback loopback, List<UUID> ids, List<String> emails, long deadline)
+            throws IOException, InterruptedException {
+        int requests = 0;
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            UUID id = ids.get(i % ids.size());
+            String email = encode(emails.get(i % emails.size()));
+            loopback.get("/customers/" + id);
+            loopback.get("/customers?email=" + email);
+            loopback.get("/customers/" + id + "?fields=id,email,tier");
+            loopback.get("/customers?email=warmup-" + i + "%40invalid.example");
+            requests += 4;
+        }
+        return requests;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Requests to this instance's own server. While it is open, their key exempts them from the per-client
+     * quota and the controller logs only warnings, so the warm-up does not log a line per request.
+     */
+    private final class Loopback implements AutoCloseable {
+
+        private final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        private final String baseUrl;
+        private final String key = "warmup-" + UUID.randomUUID();
+
+        private final LoggerConfiguration controllerLog = loggingSystem.getLoggerConfiguration(CONTROLLER_LOGGER);
+
+        Loopback(int port) {
+            this.baseUrl = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port;
+            if (admissionControl != null) {
+                admissionControl.addUnmeteredKey(key);
+            }
+            loggingSystem.setLogLevel(CONTROLLER_LOGGER, LogLevel.WARN);
+        }
+
+        @Override
+        public void close() {
+            loggingSystem.setLogLevel(CONTROLLER_LOGGER, controllerLog != null ? controllerLog.getConfiguredLevel() : null);
+            if (admissionControl != null) {
+                admissionControl.removeUnmeteredKey(key);
+            }
+        }
+
+        HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header(AdmissionControlFilter.API_KEY_HEADER, key)
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        /**
+         * One text field of a successful JSON response, or {@code null} for any other response.
+         */
+        String field(String path, String name) throws IOException, InterruptedException {
+            HttpResponse<byte[]> response = get(path);
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            JsonNode value = objectMapper.readTree(response.body()).get(name);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+
+    public record WarmUpResult(int connectionsPrimed, int hotCustomersLoaded, int requests, long durationMillis) {
+    }
+}
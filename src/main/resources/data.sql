@@ -1,36 +0,0 @@
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Alice', 'alice@example.com', 1500.00, '2024-09-15');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Bob', 'bob@example.com', 12000.00, '2025-05-01');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Charlie', 'charlie@example.com', 500.00, '2024-12-10');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Diana', 'diana@example.com', 9500.00, '2023-10-05');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Eve', 'eve@example.com', 15000.00, '2025-06-30');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Frank', 'frank@example.com', 800.00, '2025-01-01');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Grace', 'grace@example.com', 1000.00, '2024-07-15');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Hank', 'hank@example.com', 10500.00, '2024-10-20');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Ivy', 'ivy@example.com', 999.99, '2025-04-12');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Jack', 'jack@example.com', 1100.00, '2022-08-01');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Karen', 'karen@example.com', 12500.00, '2023-12-31');
-
-INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
-VALUES (RANDOM_UUID(), 'Leo', 'leo@example.com', 5000.00, '2025-02-28');
\ No newline at end of file
@@ -0,0 +1,6 @@
+-- Purchase batches already applied to CUSTOMER, so a write-ahead log segment replayed after a crash
+-- is not applied twice
+CREATE TABLE PURCHASE_BATCH (
+                                id UUID PRIMARY KEY,
+                                applied_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,23 @@
+-- Customers moved out of CUSTOMER by the archival job after a long time without a purchase. Lookups that
+-- miss CUSTOMER fall back to this table; an update or a purchase moves the customer back.
+CREATE TABLE CUSTOMER_ARCHIVE (
+                                  id UUID PRIMARY KEY,
+                                  name VARCHAR(255) NOT NULL,
+                                  email VARCHAR(255) NOT NULL,
+                                  annual_spend DECIMAL(15, 2),
+                                  last_purchase_date DATE,
+                                  archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_customer_archive_email ON CUSTOMER_ARCHIVE (email);
+
+-- Progress of the current archival pass, committed with every batch it moves so an interrupted pass
+-- resumes after the last archived id with the same cutoff
+CREATE TABLE ARCHIVAL_CHECKPOINT (
+                                     job VARCHAR(64) PRIMARY KEY,
+                                     cutoff DATE NOT NULL,
+                                     last_id UUID,
+                                     archived BIGINT NOT NULL,
+                                     started_at TIMESTAMP NOT NULL,
+                                     finished_at TIMESTAMP
+);
@@ -0,0 +1,3 @@
+-- Segment queries (GET /customers/segment) range over the purchase date and filter on spend inside the index.
+-- The id makes the index order total, so keyset pages are read straight off it without a sort.
+CREATE INDEX idx_customer_segment ON CUSTOMER (last_purchase_date, annual_spend, id);
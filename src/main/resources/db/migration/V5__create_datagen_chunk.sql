@@ -0,0 +1,8 @@
+-- Chunks of synthetic customers (customer.datagen) already inserted, each recorded in the transaction that
+-- inserted it, so a repeated or interrupted load continues with the missing rows instead of starting over
+CREATE TABLE DATAGEN_CHUNK (
+                               seed BIGINT NOT NULL,
+                               chunk BIGINT NOT NULL,
+                               end_row BIGINT NOT NULL,
+                               PRIMARY KEY (seed, chunk)
+);
@@ -0,0 +1,36 @@
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Alice', 'alice@example.com', 1500.00, '2024-09-15');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Bob', 'bob@example.com', 12000.00, '2025-05-01');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Charlie', 'charlie@example.com', 500.00, '2024-12-10');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Diana', 'diana@example.com', 9500.00, '2023-10-05');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Eve', 'eve@example.com', 15000.00, '2025-06-30');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Frank', 'frank@example.com', 800.00, '2025-01-01');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Grace', 'grace@example.com', 1000.00, '2024-07-15');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Hank', 'hank@example.com', 10500.00, '2024-10-20');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Ivy', 'ivy@example.com', 999.99, '2025-04-12');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Jack', 'jack@example.com', 1100.00, '2022-08-01');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Karen', 'karen@example.com', 12500.00, '2023-12-31');
+
+INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date)
+VALUES (RANDOM_UUID(7), 'Leo', 'leo@example.com', 5000.00, '2025-02-28');
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.example.customerapi.analytics;
+
+import com.example.customerapi.datagen.SyntheticDataLoader;
+import com.example.customerapi.dto.AnalyticsSnapshotStatus;
+import com.example.customerapi.dto.MonthlySpend;
+import com.example.customerapi.dto.MonthlySpendReport;
+import com.example.customerapi.dto.SpendHistogram;
+import com.example.customerapi.dto.TierDistribution;
+import com.example.customerapi.dto.TierShift;
+import com.example.customerapi.dto.TierSimulation;
+import com.example.customerapi.exception.RefreshThrottledException;
+import com.example.customerapi.exception.SnapshotUnavailableException;
+import com.example.customerapi.tier.TierRule;
+import com.example.customerapi.tier.TierRuleSet;
+import com.example.customerapi.tier.TierRules;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerAnalyticsTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+
+    private JdbcTemplate jdbcTemplate;
+    private CustomerAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:analytics-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Several scan chunks on two threads
+        analytics = new CustomerAnalytics(jdbcTemplate, TierRules.defaults(), 2, 60_000);
+    }
+
+    @Test
+    void testAggregatesMatchSql() {
+        new SyntheticDataLoader(jdbcTemplate, 200_000, 42, AS_OF, 1, 1000).load();
+        analytics.refresh();
+        LocalDate from = LocalDate.of(2024, 11, 15);
+        LocalDate to = LocalDate.of(2025, 2, 10);
+
+        MonthlySpendReport report = analytics.monthlySpend(from, to, List.of(50.0, 99.0));
+
+        assertEquals(List.of(YearMonth.of(2024, 11), YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 2)),
+                report.months().stream().map(MonthlySpend::month).toList());
+        for (MonthlySpend month : report.months()) {
+            LocalDate start = max(from, month.month().atDay(1));
+            LocalDate end = min(to, month.month().atEndOfMonth());
+            Map<String, Object> expected = jdbcTemplate.queryForMap("SELECT COUNT(*) AS N, SUM(annual_spend) AS TOTAL "
+                    + "FROM customer WHERE last_purchase_date BETWEEN ? AND ?", start, end);
+            assertEquals(((Number) expected.get("N")).longValue(), month.customers());
+            assertEquals(0, ((BigDecimal) expected.get("TOTAL")).compareTo(month.totalSpend()));
+            List<BigDecimal> spend = jdbcTemplate.queryForList("SELECT annual_spend FROM customer "
+                    + "WHERE last_purchase_date BETWEEN ? AND ? ORDER BY annual_spend", BigDecimal.class, start, end);
+            assertEquals(0, spend.get((int) Math.ceil(0.5 * spend.size()) - 1).compareTo(month.percentiles().get("p50")));
+            assertEquals(0, spend.get((int) Math.ceil(0.99 * spend.size()) - 1).compareTo(month.percentiles().get("p99")));
+        }
+
+        SpendHistogram histogram = analytics.spendHistogram(from, to,
+                List.of(BigDecimal.valueOf(1000), new BigDecimal("10000.00")));
+        assertEquals(count("last_purchase_date BETWEEN ? AND ?", from, to), histogram.customers());
+        assertEquals(count("last_purchase_date BETWEEN ? AND ? AND annual_spend >= 1000 AND annual_spend < 10000", from, to),
+                histogram.buckets().get(0).customers());
+        assertEquals(count("last_purchase_date BETWEEN ? AND ? AND annual_spend >= 10000", from, to),
+                histogram.buckets().get(1).customers());
+        assertNull(histogram.buckets().get(1).to());
+
+        TierDistribution tiers = analytics.tierDistribution(null, null, AS_OF);
+        assertEquals(200_000, tiers.customers());
+        assertEquals(count("annual_spend >= 10000 AND last_purchase_date > ?", AS_OF.minusMonths(6)),
+                tiers.tiers().get("Platinum"));
+        assertEquals(count("annual_spend >= 1000 AND annual_spend < 10000 AND last_purchase_date > ?", AS_OF.minusMonths(12)),
+                tiers.tiers().get("Gold"));
+
+        TierSimulation same = analytics.simulateTiers(TierRuleSet.DEFAULT, null, null, AS_OF);
+        assertEquals(tiers.tiers(), same.current());
+        assertEquals(tiers.tiers(), same.candidate());
+        assertEquals(List.of(), same.shifts());
+    }
+
+    @Test
+    void testSimulationReportsShiftsBetweenTiers() {
+        insert("15000.00", LocalDate.of(2025, 6, 1));
+        insert("2000.00", LocalDate.of(2025, 6, 1));
+        insert("2000.00", LocalDate.of(2024, 3, 1));
+        insert("50.00", LocalDate.of(2025, 5, 31));
+        insert(null, null);
+        analytics.refresh();
+        TierRuleSet candidate = new TierRuleSet("v2", List.of(
+                new TierRule("Platinum", BigDecimal.valueOf(20_000), null, 6),
+                new TierRule("Gold", BigDecimal.valueOf(500), BigDecimal.valueOf(20_000), 24),
+                new TierRule("Bronze", BigDecimal.ZERO, BigDecimal.valueOf(500), null)), "Silver");
+
+        TierSimulation simulation = analytics.simulateTiers(candidate, null, null, AS_OF);
+
+        assertEquals(5, simulation.customers());
+        assertEquals("default", simulation.currentVersion());
+        assertEquals("v2", simulation.candidateVersion());
+        assertEquals(Map.of("Platinum", 1L, "Gold", 1L, "Silver", 3L), simulation.current());
+        assertEquals(List.of("Platinum", "Gold", "Bronze", "Silver"), List.copyOf(simulation.candidate().keySet()));
+        assertEquals(Map.of("Platinum", 0L, "Gold", 3L, "Bronze", 2L, "Silver", 0L), simulation.candidate());
+        assertEquals(List.of(new TierShift("Platinum", "Gold", 1), new TierShift("Silver", "Gold", 1),
+                new TierShift("Silver", "Bronze", 2)), simulation.shifts());
+        assertThrows(IllegalArgumentException.class, () -> analytics.simulateTiers(
+                new TierRuleSet("v3", List.of(new TierRule("Silver", BigDecimal.ONE, null, null)), "Silver"), null, null, AS_OF));
+    }
+
+    @Test
+    void testWindowsAndCustomersWithoutPurchase() {
+        insert("15000.00", LocalDate.of(2025, 6, 1));
+        insert("2000.00", LocalDate.of(2025, 6, 1));
+        insert("2000.00", LocalDate.of(2024, 3, 1));
+        insert("50.00", LocalDate.of(2025, 5, 31));
+        insert(null, null);
+
+        AnalyticsSnapshotStatus status = analytics.refresh();
+        assertEquals(5, status.customers());
+        assertEquals(1, status.withoutPurchase());
+        assertEquals(LocalDate.of(2024, 3, 1), status.firstPurchase());
+        assertEquals(LocalDate.of(2025, 6, 1), status.lastPurchase());
+
+        TierDistribution all = analytics.tierDistribution(null, null, AS_OF);
+        assertEquals(Map.of("Platinum", 1L, "Gold", 1L, "Silver", 3L), all.tiers());
+        TierDistribution june = analytics.tierDistribution(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), AS_OF);
+        assertEquals(2, june.customers());
+        assertEquals(Map.of("Platinum", 1L, "Gold", 1L, "Silver", 0L), june.tiers());
+
+        MonthlySpendReport report = analytics.monthlySpend(null, null, List.of(50.0));
+        assertEquals(16, report.months().size());
+        MonthlySpend last = report.months().get(15);
+        assertEquals(2, last.customers());
+        assertEquals(new BigDecimal("17000.00"), last.totalSpend());
+        assertEquals(new BigDecimal("2000.00"), last.percentiles().get("p50"));
+        assertEquals(Map.of(), report.months().get(1).percentiles());
+
+        // Nothing is read again until the snapshot is refreshed
+        insert("99999.00", LocalDate.of(2025, 6, 2));
+        assertEquals(5, analytics.status().customers());
+        assertEquals(6, analytics.refresh().customers());
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        analytics.refresh();
+
+        assertThrows(IllegalArgumentException.class, () -> analytics.tierDistribution(day, day.minusDays(1), null));
+        assertThrows(IllegalArgumentException.class, () -> analytics.spendHistogram(null, null,
+                List.of(BigDecimal.TEN, BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class, () -> analytics.monthlySpend(null, null, List.of(0.0)));
+        assertThrows(IllegalArgumentException.class, () -> analytics.monthlySpend(LocalDate.of(1900, 1, 1), day, List.of()));
+        assertEquals(List.of(), analytics.monthlySpend(null, null, List.of(50.0)).months());
+        assertEquals("p99.9", CustomerAnalytics.percentileKey(99.9));
+        assertEquals("p50", CustomerAnalytics.percentileKey(50.0));
+    }
+
+    @Test
+    void testArchivedCustomersAreCounted() {
+        insert("15000.00", LocalDate.of(2025, 6, 1));
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customer_archive (id, name, email, annual_spend, last_purchase_date, archived_at) "
+                + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", id, "Customer", id + "@example.com",
+                new BigDecimal("9000.00"), LocalDate.of(2020, 1, 1));
+        // No recency window: the archived customer qualifies on spend alone
+        TierRuleSet candidate = new TierRuleSet("v2", List.of(
+                new TierRule("Gold", BigDecimal.valueOf(5_000), null, null)), "Silver");
+
+        assertEquals(2, analytics.refresh().customers());
+        assertEquals(LocalDate.of(2020, 1, 1), analytics.status().firstPurchase());
+        TierSimulation simulation = analytics.simulateTiers(candidate, null, null, AS_OF);
+        assertEquals(2, simulation.customers());
+        assertEquals(2L, simulation.candidate().get("Gold"));
+    }
+
+    @Test
+    void testQueriesAreRefusedUntilTheFirstBuild() {
+        insert("50.00", LocalDate.of(2025, 5, 31));
+
+        assertThrows(SnapshotUnavailableException.class, () -> analytics.status());
+        assertThrows(SnapshotUnavailableException.class, () -> analytics.tierDistribution(null, null, AS_OF));
+        analytics.scheduledRefresh();
+        assertEquals(1, analytics.status().customers());
+    }
+
+    @Test
+    void testManualRefreshIsThrottled() {
+        insert("50.00", LocalDate.of(2025, 5, 31));
+
+        assertEquals(1, analytics.requestRefresh().customers());
+        insert("60.00", LocalDate.of(2025, 5, 31));
+        RefreshThrottledException ex = assertThrows(RefreshThrottledException.class, () -> analytics.requestRefresh());
+        assertTrue(ex.getRetryAfterSeconds() > 0 && ex.getRetryAfterSeconds() <= 60);
+        // The schedule is not throttled
+        assertEquals(2, analytics.refresh().customers());
+    }
+
+    private void insert(String spend, LocalDate lastPurchaseDate) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) VALUES (?, ?, ?, ?, ?)",
+                id, "Customer", id + "@example.com", spend == null ? null : new BigDecimal(spend), lastPurchaseDate);
+    }
+
+    private long count(String where, Object... args) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer WHERE " + where, Long.class, args);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
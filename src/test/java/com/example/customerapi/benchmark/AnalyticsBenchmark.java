@@ -0,0 +1,112 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.analytics.CustomerAnalytics;
+import com.example.customerapi.datagen.SyntheticDataLoader;
+import com.example.customerapi.dto.MonthlySpendReport;
+import com.example.customerapi.dto.TierDistribution;
+import com.example.customerapi.dto.TierSimulation;
+import com.example.customerapi.tier.TierRule;
+import com.example.customerapi.tier.TierRuleSet;
+import com.example.customerapi.tier.TierRules;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A year of monthly spend with percentiles, a tier distribution and a what-if run of candidate tier rules
+ * over {@code customers} synthetic customers, answered from the {@link CustomerAnalytics} column snapshot against the equivalent SQL on
+ * the CUSTOMER table:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="AnalyticsBenchmark -p customers=10000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AnalyticsBenchmark {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+    private static final LocalDate FROM = LocalDate.of(2024, 7, 1);
+    private static final TierRuleSet CANDIDATE = new TierRuleSet("candidate", List.of(
+            new TierRule("Platinum", BigDecimal.valueOf(8_000), null, 9),
+            new TierRule("Gold", BigDecimal.valueOf(800), BigDecimal.valueOf(8_000), 18)), "Silver");
+
+    @Param("1000000")
+    public int customers;
+
+    private JdbcTemplate jdbcTemplate;
+    private CustomerAnalytics analytics;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:analytics-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        new SyntheticDataLoader(jdbcTemplate, customers, 42, AS_OF, 0, 1000).load();
+        analytics = new CustomerAnalytics(jdbcTemplate, TierRules.defaults(), 0, 0);
+        analytics.refresh();
+    }
+
+    @Benchmark
+    public MonthlySpendReport snapshotMonthlySpend() {
+        return analytics.monthlySpend(FROM, AS_OF, List.of(50.0, 99.0));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlMonthlySpend() {
+        return jdbcTemplate.queryForList("SELECT YEAR(last_purchase_date), MONTH(last_purchase_date), COUNT(*), "
+                + "SUM(annual_spend), PERCENTILE_DISC(0.5) WITHIN GROUP (ORDER BY annual_spend), "
+                + "PERCENTILE_DISC(0.99) WITHIN GROUP (ORDER BY annual_spend) FROM customer "
+                + "WHERE last_purchase_date BETWEEN ? AND ? "
+                + "GROUP BY YEAR(last_purchase_date), MONTH(last_purchase_date) ORDER BY 1, 2", FROM, AS_OF);
+    }
+
+    @Benchmark
+    public TierDistribution snapshotTiers() {
+        return analytics.tierDistribution(null, null, AS_OF);
+    }
+
+    @Benchmark
+    public Map<String, Object> sqlTiers() {
+        return jdbcTemplate.queryForMap("SELECT "
+                + "COUNT(CASE WHEN annual_spend >= 10000 AND last_purchase_date > ? THEN 1 END), "
+                + "COUNT(CASE WHEN annual_spend >= 1000 AND annual_spend < 10000 AND last_purchase_date > ? THEN 1 END), "
+                + "COUNT(*) FROM customer", AS_OF.minusMonths(6), AS_OF.minusMonths(12));
+    }
+
+    @Benchmark
+    public TierSimulation snapshotTierSimulation() {
+        return analytics.simulateTiers(CANDIDATE, null, null, AS_OF);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlTierSimulation() {
+        return jdbcTemplate.queryForList("SELECT current_tier, candidate_tier, COUNT(*) FROM (SELECT "
+                + "CASE WHEN annual_spend >= 10000 AND last_purchase_date > ? THEN 'Platinum' "
+                + "WHEN annual_spend >= 1000 AND annual_spend < 10000 AND last_purchase_date > ? THEN 'Gold' "
+                + "ELSE 'Silver' END AS current_tier, "
+                + "CASE WHEN annual_spend >= 8000 AND last_purchase_date > ? THEN 'Platinum' "
+                + "WHEN annual_spend >= 800 AND annual_spend < 8000 AND last_purchase_date > ? THEN 'Gold' "
+                + "ELSE 'Silver' END AS candidate_tier FROM customer) GROUP BY current_tier, candidate_tier",
+                AS_OF.minusMonths(6), AS_OF.minusMonths(12), AS_OF.minusMonths(9), AS_OF.minusMonths(18));
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        analytics.shutdown();
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+}
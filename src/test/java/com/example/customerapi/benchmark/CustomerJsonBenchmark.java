@@ -0,0 +1,69 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+import com.example.customerapi.json.CustomerJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of the default bean (de)serializers against {@link CustomerJson} for one
+ * {@code CustomerResponse} written to bytes and one {@code CustomerRequest} read from bytes.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="CustomerJsonBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CustomerJsonBenchmark {
+
+    @Param({"default", "customer-json"})
+    public String mapping;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private CustomerResponse response;
+    private byte[] requestJson;
+
+    @Setup(Level.Trial)
+    public void createMapper() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (mapping.equals("customer-json")) {
+            builder.serializerByType(CustomerResponse.class, new CustomerJson.Serializer())
+                    .deserializerByType(CustomerRequest.class, new CustomerJson.Deserializer());
+        }
+        ObjectMapper mapper = builder.build();
+        writer = mapper.writerFor(CustomerResponse.class);
+        reader = mapper.readerFor(CustomerRequest.class);
+        response = new CustomerResponse(TimeOrderedUuidGenerator.next(), "Alice Johnson", "alice.johnson@example.com",
+                new BigDecimal("12500.00"), LocalDate.of(2024, 5, 20), "Platinum");
+        requestJson = mapper.writeValueAsBytes(new CustomerRequest("Alice Johnson", "alice.johnson@example.com",
+                new BigDecimal("12500.00"), LocalDate.of(2024, 5, 20)));
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public CustomerRequest deserializeRequest() throws IOException {
+        return reader.readValue(requestJson);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.datagen.SyntheticDataLoader;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time for {@link SyntheticDataLoader} to fill a fresh file-backed store (the {@code file} profile's
+ * page cache and write delay) with {@code rows} customers on {@code parallelism} producers:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DataLoadBenchmark -p rows=10000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class DataLoadBenchmark {
+
+    @Param("1000000")
+    public long rows;
+
+    @Param("0")
+    public int parallelism;
+
+    private Path directory;
+    private JdbcTemplate jdbcTemplate;
+    private SyntheticDataLoader loader;
+
+    @Setup(Level.Iteration)
+    public void createDatabase() throws IOException {
+        directory = Files.createTempDirectory("data-load-benchmark");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:file:" + directory.resolve("customers")
+                + ";CACHE_SIZE=524288;WRITE_DELAY=500", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        loader = new SyntheticDataLoader(jdbcTemplate, rows, 42, LocalDate.of(2025, 6, 30), parallelism, 1000);
+    }
+
+    @Benchmark
+    public long load() {
+        return loader.load();
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropDatabase() throws IOException {
+        jdbcTemplate.execute("SHUTDOWN");
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.dto.DeduplicationReport;
+import com.example.customerapi.service.DeduplicationJob;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full {@link DeduplicationJob} pass with merges applied, over an in-memory database of
+ * {@code customers} rows of which 2% have a second row under a {@code +tag} email:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DeduplicationBenchmark -p customers=1000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class DeduplicationBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int customers;
+
+    private JdbcTemplate jdbcTemplate;
+    private DeduplicationJob job;
+
+    @Setup(Level.Iteration)
+    public void populate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:dedup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) "
+                + "SELECT RANDOM_UUID(), 'First' || X || ' Last' || MOD(X, 997), 'customer' || X || '@example.com', "
+                + "MOD(X, 20000), DATEADD(DAY, -MOD(X, 700), DATE '2024-12-31') FROM SYSTEM_RANGE(1, ?)", customers);
+        jdbcTemplate.update("INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) "
+                + "SELECT RANDOM_UUID(), 'Last' || MOD(X, 997) || ' first' || X, 'Customer' || X || '+shop@example.com', "
+                + "100, DATE '2025-01-01' FROM SYSTEM_RANGE(1, ?) WHERE MOD(X, 50) = 0", customers);
+        job = new DeduplicationJob(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                0, 100, 0.8, 500, 100);
+    }
+
+    @Benchmark
+    public DeduplicationReport deduplicate() {
+        return job.run(true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropDatabase() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+}
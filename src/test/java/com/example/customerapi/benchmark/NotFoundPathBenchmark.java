@@ -0,0 +1,67 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code GET /customers/{id}} over HTTP against the running application for a customer
+ * that exists and for one that does not, including the error response on a miss.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="NotFoundPathBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class NotFoundPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest foundRequest;
+    private HttpRequest missingRequest;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .run("--server.port=0", "--customer.admission.enabled=false", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        UUID existing = context.getBean(CustomerRepository.class).findAll().stream()
+                .map(Customer::getId).findFirst().orElseThrow();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        foundRequest = HttpRequest.newBuilder(URI.create(base + "/customers/" + existing)).build();
+        missingRequest = HttpRequest.newBuilder(URI.create(base + "/customers/" + UUID.randomUUID())).build();
+    }
+
+    @Benchmark
+    public byte[] found() throws IOException, InterruptedException {
+        return client.send(foundRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public byte[] notFound() throws IOException, InterruptedException {
+        return client.send(missingRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.service.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per lookup by email for the entity read path (managed {@code Customer} copied into a
+ * {@code CustomerResponse}) against the projection read path ({@code CustomerView} in a read-only
+ * transaction). Run with the GC profiler and compare {@code gc.alloc.rate.norm}:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ReadPathBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository repository;
+    private CustomerService service;
+    private String[] emails;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.org.hibernate.SQL=WARN");
+        repository = context.getBean(CustomerRepository.class);
+        service = context.getBean(CustomerService.class);
+        List<Customer> customers = repository.findAll();
+        emails = customers.stream().map(Customer::getEmail).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public CustomerResponse entityPath() {
+        Customer c = repository.findByEmail(emails[nextIndex()]).orElseThrow();
+        return new CustomerResponse(c.getId(), c.getName(), c.getEmail(), c.getAnnualSpend(),
+                c.getLastPurchaseDate(), service.calculateTier(c));
+    }
+
+    @Benchmark
+    public CustomerResponse projectionPath() {
+        return repository.findViewByEmail(emails[nextIndex()])
+                .map(v -> new CustomerResponse(v.id(), v.name(), v.email(), v.annualSpend(),
+                        v.lastPurchaseDate(), service.calculateTier(v.annualSpend(), v.lastPurchaseDate())))
+                .orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % emails.length;
+        return next;
+    }
+}
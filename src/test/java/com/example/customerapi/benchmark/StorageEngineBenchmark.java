@@ -0,0 +1,82 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.JdbcCustomerStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and allocation of the hot lookups through the JPA {@link CustomerRepository} against the
+ * plain-JDBC {@link JdbcCustomerStore}, on the same seeded in-memory database:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="StorageEngineBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StorageEngineBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository repository;
+    private JdbcCustomerStore jdbcStore;
+    private UUID[] ids;
+    private String[] emails;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        repository = context.getBean(CustomerRepository.class);
+        jdbcStore = new JdbcCustomerStore(context.getBean(JdbcTemplate.class));
+        List<Customer> customers = repository.findAll();
+        ids = customers.stream().map(Customer::getId).toArray(UUID[]::new);
+        emails = customers.stream().map(Customer::getEmail).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public Customer jpaFindById() {
+        return repository.findById(ids[nextIndex()]).orElseThrow();
+    }
+
+    @Benchmark
+    public Customer jdbcFindById() {
+        return jdbcStore.findById(ids[nextIndex()]).orElseThrow();
+    }
+
+    @Benchmark
+    public CustomerView jpaFindViewByEmail() {
+        return repository.findViewByEmail(emails[nextIndex()]).orElseThrow();
+    }
+
+    @Benchmark
+    public CustomerView jdbcFindViewByEmail() {
+        return jdbcStore.findViewByEmail(emails[nextIndex()]).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % ids.length;
+        return next;
+    }
+}
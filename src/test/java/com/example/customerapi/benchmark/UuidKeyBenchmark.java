@@ -0,0 +1,112 @@
+package com.example.customerapi.benchmark;
+
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput and on-disk size of the CUSTOMER table for the old key layout (random UUIDs in
+ * VARCHAR(36)) against the new one (time-ordered UUIDs in a native 16-byte UUID column).
+ * Each iteration loads {@code rows} customers into a fresh file-backed H2 database; the score is the
+ * time for the whole load, and the table plus index size is printed after each iteration.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="UuidKeyBenchmark -p rows=10000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class UuidKeyBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 10_000;
+
+    @Param({"varchar-random", "uuid-v7"})
+    public String keyLayout;
+
+    @Param("1000000")
+    public int rows;
+
+    private Path directory;
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void createDatabase() throws IOException, SQLException {
+        directory = Files.createTempDirectory("uuid-key-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("customers"), "sa", "");
+        connection.setAutoCommit(false);
+        boolean v7 = keyLayout.equals("uuid-v7");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE CUSTOMER ("
+                    + "id " + (v7 ? "UUID" : "VARCHAR(36)") + " PRIMARY KEY, "
+                    + "name VARCHAR(255) NOT NULL, "
+                    + "email VARCHAR(255) NOT NULL, "
+                    + "annual_spend DECIMAL(15, 2), "
+                    + "last_purchase_date " + (v7 ? "DATE" : "TIMESTAMP") + ")");
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void insertCustomers() throws SQLException {
+        boolean v7 = keyLayout.equals("uuid-v7");
+        Date purchaseDate = Date.valueOf(LocalDate.of(2024, 6, 1));
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO CUSTOMER (id, name, email, annual_spend, last_purchase_date) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                if (v7) {
+                    insert.setObject(1, TimeOrderedUuidGenerator.next());
+                } else {
+                    insert.setString(1, UUID.randomUUID().toString());
+                }
+                insert.setString(2, "Customer " + i);
+                insert.setString(3, "customer" + i + "@example.com");
+                insert.setBigDecimal(4, BigDecimal.valueOf(i % 20_000, 2));
+                insert.setDate(5, purchaseDate);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                if ((i + 1) % COMMIT_EVERY == 0) {
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportSizeAndDrop() throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT SYNC");
+            try (ResultSet size = statement.executeQuery("SELECT DISK_SPACE_USED('CUSTOMER')")) {
+                size.next();
+                System.out.printf("%n%s, %d rows: table + primary key index = %.1f MB%n",
+                        keyLayout, rows, size.getLong(1) / (1024.0 * 1024.0));
+            }
+        }
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.service.ArchivalJob;
+import com.example.customerapi.service.DeduplicationJob;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdminJobControllersTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withBean(DeduplicationJob.class, () -> Mockito.mock(DeduplicationJob.class))
+            .withBean(ArchivalJob.class, () -> Mockito.mock(ArchivalJob.class))
+            .withUserConfiguration(DeduplicationController.class, ArchivalController.class);
+
+    @Test
+    void testEndpointsAreOffByDefault() {
+        runner.run(context -> {
+            assertEquals(0, context.getBeanNamesForType(DeduplicationController.class).length);
+            assertEquals(0, context.getBeanNamesForType(ArchivalController.class).length);
+        });
+    }
+
+    @Test
+    void testEndpointsCanBeTurnedOn() {
+        runner.withPropertyValues("customer.admin.jobs-enabled=true").run(context -> {
+            assertEquals(1, context.getBeanNamesForType(DeduplicationController.class).length);
+            assertEquals(1, context.getBeanNamesForType(ArchivalController.class).length);
+        });
+    }
+}
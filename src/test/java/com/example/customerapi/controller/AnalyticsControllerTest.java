@@ -0,0 +1,111 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.analytics.CustomerAnalytics;
+import com.example.customerapi.dto.MonthlySpend;
+import com.example.customerapi.exception.RefreshThrottledException;
+import com.example.customerapi.exception.SnapshotUnavailableException;
+import com.example.customerapi.dto.MonthlySpendReport;
+import com.example.customerapi.dto.TierDistribution;
+import com.example.customerapi.dto.TierShift;
+import com.example.customerapi.dto.TierSimulation;
+import com.example.customerapi.tier.TierRule;
+import com.example.customerapi.tier.TierRuleSet;
+import com.example.customerapi.tier.TierRules;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalyticsController.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerAnalytics analytics;
+
+    @MockBean
+    private TierRules tierRules;
+
+    @Test
+    void testMonthlySpendBindsWindowAndPercentiles() throws Exception {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        Mockito.when(analytics.monthlySpend(from, to, List.of(50.0, 99.9))).thenReturn(new MonthlySpendReport(from, to,
+                List.of(new MonthlySpend(YearMonth.of(2025, 1), 2, new BigDecimal("300.00"),
+                        Map.of("p50", new BigDecimal("100.00")))), Instant.EPOCH));
+
+        mockMvc.perform(get("/analytics/monthly-spend?from=2025-01-01&to=2025-01-31&percentiles=50,99.9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.months[0].month").value("2025-01"))
+                .andExpect(jsonPath("$.months[0].totalSpend").value(300.00))
+                .andExpect(jsonPath("$.months[0].percentiles.p50").value(100.00));
+    }
+
+    @Test
+    void testDefaultsAndInvalidDates() throws Exception {
+        Mockito.when(analytics.tierDistribution(null, null, null)).thenReturn(new TierDistribution(null, null,
+                LocalDate.of(2025, 6, 30), "default", 3, Map.of("Platinum", 1L, "Gold", 1L, "Silver", 1L), Instant.EPOCH));
+
+        mockMvc.perform(get("/analytics/tiers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tiers.Gold").value(1));
+        mockMvc.perform(get("/analytics/spend-histogram?from=yesterday"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(analytics, Mockito.never()).spendHistogram(any(), any(), anyList());
+    }
+
+    @Test
+    void testSimulateBindsCandidateRules() throws Exception {
+        TierRuleSet candidate = new TierRuleSet("v2", List.of(
+                new TierRule("Gold", new BigDecimal("500"), null, 24)), "Silver");
+        Mockito.when(analytics.simulateTiers(candidate, LocalDate.of(2025, 1, 1), null, null)).thenReturn(new TierSimulation(
+                LocalDate.of(2025, 1, 1), null, LocalDate.of(2025, 6, 30), 2, "default",
+                Map.of("Gold", 1L, "Silver", 1L), "v2", Map.of("Gold", 2L, "Silver", 0L),
+                List.of(new TierShift("Silver", "Gold", 1)), 3, Instant.EPOCH));
+
+        mockMvc.perform(post("/analytics/tiers/simulate?from=2025-01-01")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"version": "v2", "defaultTier": "Silver",
+                                 "tiers": [{"name": "Gold", "minSpend": 500, "withinMonths": 24}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.candidate.Gold").value(2))
+                .andExpect(jsonPath("$.shifts[0].from").value("Silver"))
+                .andExpect(jsonPath("$.shifts[0].to").value("Gold"));
+    }
+
+    @Test
+    void testUnbuiltSnapshotAndThrottledRefresh() throws Exception {
+        Mockito.when(analytics.tierDistribution(null, null, null))
+                .thenThrow(new SnapshotUnavailableException("The analytics snapshot is still being built"));
+        Mockito.when(analytics.requestRefresh())
+                .thenThrow(new RefreshThrottledException("The analytics snapshot was refreshed recently", 42));
+
+        mockMvc.perform(get("/analytics/tiers"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+        mockMvc.perform(post("/analytics/snapshot"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"))
+                .andExpect(jsonPath("$.message").value("The analytics snapshot was refreshed recently"));
+        Mockito.verify(analytics, Mockito.never()).refresh();
+    }
+}
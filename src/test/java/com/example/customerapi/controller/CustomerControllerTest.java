@@ -1,8 +1,15 @@
 package com.example.customerapi.controller;
 
+import com.example.customerapi.dto.CustomerField;
 import com.example.customerapi.dto.CustomerRequest;
 import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.dto.SparseCustomerResponse;
+import com.example.customerapi.exception.DuplicateEmailException;
+import com.example.customerapi.exception.NoSuchElementException;
+import com.example.customerapi.exception.LookupTimeoutException;
+import com.example.customerapi.exception.NotFoundException;
 import com.example.customerapi.service.CustomerService;
+import com.example.customerapi.service.IdempotencyStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +19,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -24,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CustomerController.class)
+@Import(IdempotencyStore.class)
 public class CustomerControllerTest {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerControllerTest.class);
@@ -148,4 +160,115 @@ public class CustomerControllerTest {
                         .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that a missing customer gets the JSON error body.
+     */
+    @Test
+    public void testGetCustomerById_NotFound() throws Exception {
+        Mockito.when(customerService.getCustomerById(eq(customerId))).thenThrow(new NotFoundException("Customer not found"));
+
+        mockMvc.perform(get("/customers/{id}", customerId))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"status\":404,\"error\":\"Not Found\",\"message\":\"Customer not found\"}", true));
+    }
+
+    /**
+     * Test that a timed-out coalesced lookup is a retryable 503, not a server error.
+     */
+    @Test
+    public void testGetCustomerById_LookupTimeout() throws Exception {
+        Mockito.when(customerService.getCustomerById(eq(customerId)))
+                .thenThrow(new LookupTimeoutException("Timed out waiting for customer lookup"));
+
+        mockMvc.perform(get("/customers/{id}", customerId))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(content().json("{\"status\":503,\"error\":\"Service Unavailable\","
+                        + "\"message\":\"Timed out waiting for customer lookup\"}", true));
+    }
+
+    /**
+     * Test that NoSuchElementException maps to 404 as well.
+     */
+    @Test
+    public void testGetCustomerByNameAndEmail_NotFound() throws Exception {
+        Mockito.when(customerService.getByNameAndEmail("Alice", "alice@example.com"))
+                .thenThrow(new NoSuchElementException("Customer not found with name and email"));
+
+        mockMvc.perform(get("/customers?name=Alice&email=alice@example.com"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Customer not found with name and email"));
+    }
+
+    /**
+     * Test that a duplicate email is reported as a conflict.
+     */
+    @Test
+    public void testCreateCustomer_DuplicateEmail() throws Exception {
+        Mockito.when(customerService.createCustomer(any(CustomerRequest.class)))
+                .thenThrow(new DuplicateEmailException("Customer with this email already exists"));
+
+        mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+
+    /**
+     * Test the error bodies for rejected input.
+     */
+    @Test
+    public void testBadRequestBodies() throws Exception {
+        mockMvc.perform(get("/customers"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Name or email must be provided"));
+
+        mockMvc.perform(get("/customers/{id}", "not-a-uuid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for parameter id"));
+
+        mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Malformed request body"));
+    }
+
+    /**
+     * Test that ?fields= returns only the requested fields.
+     */
+    @Test
+    public void testGetCustomerFields() throws Exception {
+        Set<CustomerField> fields = EnumSet.of(CustomerField.ID, CustomerField.TIER);
+        Mockito.when(customerService.getFieldsById(eq(customerId), eq(fields))).thenReturn(new SparseCustomerResponse(
+                fields, new CustomerResponse(customerId, null, null, new BigDecimal("12000"), LocalDate.now(), "Platinum")));
+        Mockito.when(customerService.getFieldsByEmail(eq("alice@example.com"), eq(EnumSet.of(CustomerField.NAME))))
+                .thenReturn(new SparseCustomerResponse(EnumSet.of(CustomerField.NAME),
+                        new CustomerResponse(null, "Alice", null, null, null, null)));
+
+        mockMvc.perform(get("/customers/{id}", customerId).param("fields", "tier, id"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":\"" + customerId + "\",\"tier\":\"Platinum\"}", true));
+
+        mockMvc.perform(get("/customers").param("email", "alice@example.com").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"name\":\"Alice\"}", true));
+    }
+
+    /**
+     * Test that unknown or empty field lists are rejected.
+     */
+    @Test
+    public void testGetCustomerFields_Invalid() throws Exception {
+        mockMvc.perform(get("/customers/{id}", customerId).param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field: password"));
+
+        mockMvc.perform(get("/customers").param("name", "Alice").param("fields", ""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("fields must name at least one field"));
+    }
+}
@@ -2,18 +2,24 @@ package com.example.customerapi.controller;
 
 import com.example.customerapi.dto.CustomerRequest;
 import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.exception.DuplicateEmailException;
+import com.example.customerapi.exception.GlobalExceptionHandler;
 import com.example.customerapi.service.CustomerService;
+import com.example.customerapi.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +29,9 @@ class MockCustomerControllerTest {
     @Mock
     private CustomerService customerService;
 
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60, 1);
+
     @InjectMocks
     private CustomerController controller;
 
@@ -41,7 +50,7 @@ class MockCustomerControllerTest {
     @Test
     void testCreateCustomerValidEmail() {
         when(customerService.createCustomer(request)).thenReturn(response);
-        ResponseEntity<CustomerResponse> result = controller.createCustomer(request);
+        ResponseEntity<CustomerResponse> result = controller.createCustomer(request, null);
         assertEquals(HttpStatus.CREATED, result.getStatusCode());
         assertEquals("Test User", result.getBody().getName());
     }
@@ -49,8 +58,36 @@ class MockCustomerControllerTest {
     @Test
     void testCreateCustomerInvalidEmail() {
         request.setEmail("invalid-email");
-        ResponseEntity<CustomerResponse> result = controller.createCustomer(request);
-        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertThrows(IllegalArgumentException.class, () -> controller.createCustomer(request, null));
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    void testCreateCustomerReplaysIdempotencyKey() {
+        when(customerService.createCustomer(request)).thenReturn(response);
+        ResponseEntity<CustomerResponse> first = controller.createCustomer(request, "key-1");
+        ResponseEntity<CustomerResponse> retry = controller.createCustomer(request, "key-1");
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertSame(first.getBody(), retry.getBody());
+        verify(customerService, times(1)).createCustomer(request);
+    }
+
+    @Test
+    void testCreateCustomerWaitsForGroupCommit() {
+        when(customerService.isGroupCommitEnabled()).thenReturn(true);
+        when(customerService.submitCustomer(request)).thenReturn(CompletableFuture.completedFuture(response));
+        ResponseEntity<CustomerResponse> result = controller.createCustomer(request, null);
+        assertEquals(HttpStatus.CREATED, result.getStatusCode());
+        assertSame(response, result.getBody());
+        verify(customerService, never()).createCustomer(request);
+    }
+
+    @Test
+    void testCreateCustomerGroupCommitFailureIsUnwrapped() {
+        when(customerService.isGroupCommitEnabled()).thenReturn(true);
+        when(customerService.submitCustomer(request)).thenReturn(
+                CompletableFuture.failedFuture(new DuplicateEmailException("Customer with this email already exists")));
+        assertThrows(DuplicateEmailException.class, () -> controller.createCustomer(request, null));
     }
 
     @Test
@@ -84,8 +121,7 @@ class MockCustomerControllerTest {
 
     @Test
     void testGetCustomerWithNoParams() {
-        ResponseEntity<CustomerResponse> result = controller.getCustomer(null, null);
-        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertThrows(IllegalArgumentException.class, () -> controller.getCustomer(null, null));
     }
 
     @Test
@@ -104,9 +140,10 @@ class MockCustomerControllerTest {
     }
 
     @Test
-    void testHandleIllegalArgumentException() {
-        ResponseEntity<String> result = controller.handleIllegalArgumentException(new IllegalArgumentException("Invalid input"));
+    void testHandleIllegalArgumentException() throws Exception {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(new ObjectMapper());
+        ResponseEntity<byte[]> result = handler.handleIllegalArgumentException(new IllegalArgumentException("Invalid input"));
         assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
-        assertEquals("Invalid input", result.getBody());
+        assertEquals("Invalid input", new ObjectMapper().readTree(result.getBody()).get("message").asText());
     }
 }
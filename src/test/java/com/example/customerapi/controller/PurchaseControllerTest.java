@@ -0,0 +1,74 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.service.CustomerService;
+import com.example.customerapi.service.PurchaseRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PurchaseController.class)
+class PurchaseControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerService customerService;
+
+    @MockBean
+    private PurchaseRecorder purchaseRecorder;
+
+    private final UUID customerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(customerService.customerExists(customerId)).thenReturn(true);
+    }
+
+    @Test
+    void testRecordPurchaseIsAccepted() throws Exception {
+        mockMvc.perform(post("/customers/{id}/purchases", customerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":49.99,\"purchaseDate\":\"2024-06-01\"}"))
+                .andExpect(status().isAccepted());
+
+        Mockito.verify(purchaseRecorder).record(customerId, new BigDecimal("49.99"), LocalDate.of(2024, 6, 1));
+    }
+
+    @Test
+    void testRecordPurchaseForUnknownCustomer() throws Exception {
+        Mockito.when(customerService.customerExists(customerId)).thenReturn(false);
+
+        mockMvc.perform(post("/customers/{id}/purchases", customerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":49.99}"))
+                .andExpect(status().isNotFound());
+
+        Mockito.verifyNoInteractions(purchaseRecorder);
+    }
+
+    @Test
+    void testRecordPurchaseWithInvalidAmount() throws Exception {
+        Mockito.doThrow(new IllegalArgumentException("Purchase amount must be positive"))
+                .when(purchaseRecorder).record(eq(customerId), any(), any());
+
+        mockMvc.perform(post("/customers/{id}/purchases", customerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":-1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Purchase amount must be positive"));
+    }
+}
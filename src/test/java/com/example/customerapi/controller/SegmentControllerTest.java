@@ -0,0 +1,88 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.dto.SegmentPage;
+import com.example.customerapi.dto.SegmentQuery;
+import com.example.customerapi.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SegmentController.class)
+class SegmentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerService customerService;
+
+    private final CustomerResponse alice = new CustomerResponse(UUID.randomUUID(), "Alice", "alice@example.com",
+            new BigDecimal("1500.00"), LocalDate.of(2025, 3, 1), "Gold");
+
+    @Test
+    void testPageBindsBoundsAndCursor() throws Exception {
+        SegmentQuery query = new SegmentQuery(LocalDate.of(2025, 1, 1), null, new BigDecimal("1000"), new BigDecimal("5000"));
+        Mockito.when(customerService.getSegment(query, "abc", 50)).thenReturn(new SegmentPage(List.of(alice), "def"));
+
+        mockMvc.perform(get("/customers/segment?from=2025-01-01&minSpend=1000&maxSpend=5000&limit=50&after=abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].email").value("alice@example.com"))
+                .andExpect(jsonPath("$.customers[0].tier").value("Gold"))
+                .andExpect(jsonPath("$.next").value("def"));
+        mockMvc.perform(get("/customers/segment/count?from=2025-01-01&minSpend=1000&maxSpend=5000"))
+                .andExpect(status().isOk());
+        Mockito.verify(customerService).countSegment(query);
+    }
+
+    @Test
+    void testStreamWritesOneCustomerPerLine() throws Exception {
+        SegmentQuery query = new SegmentQuery(null, null, new BigDecimal("1000"), null);
+        CustomerResponse bob = new CustomerResponse(UUID.randomUUID(), "Bob", "bob@example.com",
+                new BigDecimal("2500.00"), LocalDate.of(2025, 4, 1), "Gold");
+        Mockito.when(customerService.streamSegment(eq(query), any())).thenAnswer(invocation -> {
+            Consumer<List<CustomerResponse>> sink = invocation.getArgument(1);
+            sink.accept(List.of(alice));
+            sink.accept(List.of(bob));
+            return 2L;
+        });
+
+        MvcResult started = mockMvc.perform(get("/customers/segment/stream?minSpend=1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"email\":\"bob@example.com\""), lines[1]);
+    }
+
+    @Test
+    void testInvalidBoundsAreRejected() throws Exception {
+        mockMvc.perform(get("/customers/segment/stream?minSpend=5000&maxSpend=1000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/customers/segment/count?from=last-week"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(customerService, Mockito.never()).streamSegment(any(), any());
+    }
+}
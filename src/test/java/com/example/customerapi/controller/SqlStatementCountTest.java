@@ -0,0 +1,213 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.service.CustomerCreatePipeline;
+import com.example.customerapi.service.DeduplicationJob;
+import com.example.customerapi.service.PurchaseRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the exact SQL each endpoint sends. A new query, a lost batch or a changed fetch strategy after an
+ * upgrade fails here even when the responses are still right.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements",
+        "customer.grpc.enabled=false",
+        // Purchases are flushed by the tests, on the test thread
+        "customer.purchases.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.class)
+class SqlStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementCounter sql;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PurchaseRecorder purchaseRecorder;
+
+    @Autowired
+    private DeduplicationJob deduplicationJob;
+
+    @BeforeEach
+    void setUp() {
+        sql.reset();
+    }
+
+    @Test
+    void testCreateCustomer() throws Exception {
+        mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Create Test", "create.test@example.com")))
+                .andExpect(status().isCreated());
+
+        // The email filter rules out a duplicate without the existsByEmail query
+        assertEquals(List.of("INSERT"), sql.statements());
+    }
+
+    @Test
+    void testGetCustomerById() throws Exception {
+        String id = createCustomer("By Id", "by.id@example.com");
+        sql.reset();
+
+        mockMvc.perform(get("/customers/" + id)).andExpect(status().isOk());
+
+        assertEquals(List.of("SELECT"), sql.statements());
+    }
+
+    @Test
+    void testGetCustomerByNameOrEmail() throws Exception {
+        createCustomer("By Email", "by.email@example.com");
+        sql.reset();
+
+        mockMvc.perform(get("/customers").param("email", "by.email@example.com")).andExpect(status().isOk());
+        mockMvc.perform(get("/customers").param("name", "By Email")).andExpect(status().isOk());
+        mockMvc.perform(get("/customers").param("name", "By Email").param("email", "by.email@example.com"))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("SELECT", "SELECT", "SELECT"), sql.statements());
+    }
+
+    @Test
+    void testUnknownEmailIsAnsweredWithoutQuery() throws Exception {
+        mockMvc.perform(get("/customers").param("email", "never.created@example.com")).andExpect(status().isNotFound());
+
+        assertEquals(List.of(), sql.statements());
+    }
+
+    @Test
+    void testGetCustomerFields() throws Exception {
+        String id = createCustomer("Fields", "fields@example.com");
+        sql.reset();
+
+        mockMvc.perform(get("/customers/" + id).param("fields", "id,tier")).andExpect(status().isOk());
+        mockMvc.perform(get("/customers").param("email", "fields@example.com").param("fields", "name"))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("SELECT", "SELECT"), sql.statements());
+    }
+
+    @Test
+    void testUpdateCustomer() throws Exception {
+        String id = createCustomer("Update", "update@example.com");
+        sql.reset();
+
+        mockMvc.perform(put("/customers/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Updated", "update@example.com")))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("SELECT", "UPDATE"), sql.statements());
+    }
+
+    @Test
+    void testDeleteCustomer() throws Exception {
+        String id = createCustomer("Delete", "delete@example.com");
+        sql.reset();
+
+        mockMvc.perform(delete("/customers/" + id)).andExpect(status().isNoContent());
+
+        assertEquals(List.of("SELECT", "DELETE"), sql.statements());
+    }
+
+    @Test
+    void testPurchasesAreAppliedAsOneBatch() throws Exception {
+        List<String> ids = List.of(createCustomer("Buyer One", "buyer1@example.com"),
+                createCustomer("Buyer Two", "buyer2@example.com"), createCustomer("Buyer Three", "buyer3@example.com"));
+        sql.reset();
+
+        for (String id : ids) {
+            mockMvc.perform(post("/customers/" + id + "/purchases")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"amount\": 10.00}"))
+                    .andExpect(status().isAccepted());
+        }
+        // Each request only checks that its customer exists
+        assertEquals(List.of("SELECT", "SELECT", "SELECT"), sql.statements());
+        sql.reset();
+
+        purchaseRecorder.flush();
+
+        assertEquals(List.of("UPDATE batch(3)"), sql.statements());
+    }
+
+    @Test
+    void testGroupCommitInsertsAsOneBatch() throws Exception {
+        CustomerCreatePipeline pipeline = new CustomerCreatePipeline(jdbcTemplate, transactionTemplate, 100, 500, 1000);
+        try {
+            List<CompletableFuture<Customer>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(pipeline.submit(new Customer(null, "Batched", "batched" + i + "@example.com",
+                        BigDecimal.TEN, LocalDate.of(2024, 1, 1))));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        } finally {
+            pipeline.close();
+        }
+
+        assertEquals(List.of("SELECT", "INSERT batch(3)"), sql.statementsOn("customer-create-writer"));
+    }
+
+    @Test
+    void testDeduplicationMergesInBatches() throws Exception {
+        createCustomer("Twin Alpha", "twin.alpha@example.com");
+        createCustomer("Alpha Twin", "twin.alpha+shop@example.com");
+        createCustomer("Twin Beta", "twin.beta@example.com");
+        createCustomer("Twin Beta", "Twin.Beta+x@example.com");
+        sql.reset();
+
+        assertEquals(2, deduplicationJob.run(true).getDuplicatesMerged());
+
+        // Count, scan, candidate load, then one locked read and two batches for both groups
+        assertEquals(List.of("SELECT", "SELECT", "SELECT", "SELECT", "UPDATE batch(2)", "DELETE batch(2)"),
+                sql.statements());
+    }
+
+    private String createCustomer(String name, String email) throws Exception {
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(name, email)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        return created.get("id").asText();
+    }
+
+    private static String body(String name, String email) {
+        return "{\"name\": \"" + name + "\", \"email\": \"" + email + "\", "
+                + "\"annualSpend\": 2500.00, \"lastPurchaseDate\": \"2024-06-01\"}";
+    }
+}
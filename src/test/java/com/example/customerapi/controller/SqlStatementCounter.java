@@ -0,0 +1,87 @@
+package com.example.customerapi.controller;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Test configuration that wraps the application's {@link DataSource} in a proxy recording every statement
+ * sent to the database, as {@code "SELECT"}, {@code "UPDATE"} and so on, or {@code "UPDATE batch(3)"} for a
+ * JDBC batch of three. Statements are kept per thread, so scheduled background work does not show up in a
+ * request's list.
+ */
+@TestConfiguration
+public class SqlStatementCounter implements BeanPostProcessor, QueryExecutionListener {
+
+    private final Queue<Executed> executed = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(this).build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Called on the thread that ran the statement
+        String threadName = Thread.currentThread().getName();
+        for (QueryInfo query : queryInfoList) {
+            String type = type(query.getQuery());
+            if (execInfo.isBatch()) {
+                // A prepared statement batch is one query with a parameter set per row
+                int rows = execInfo.getStatementType() == StatementType.PREPARED
+                        ? query.getParametersList().size() : execInfo.getBatchSize();
+                executed.add(new Executed(threadName, type + " batch(" + rows + ")"));
+            } else {
+                executed.add(new Executed(threadName, type));
+            }
+        }
+    }
+
+    public void reset() {
+        executed.clear();
+    }
+
+    /**
+     * Statements sent from the calling thread since the last {@link #reset()}, in order.
+     */
+    public List<String> statements() {
+        return statementsOn(Thread.currentThread().getName());
+    }
+
+    public List<String> statementsOn(String threadName) {
+        return executed.stream()
+                .filter(e -> e.threadName().equals(threadName))
+                .map(Executed::statement)
+                .toList();
+    }
+
+    private static String type(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    private record Executed(String threadName, String statement) {
+    }
+}
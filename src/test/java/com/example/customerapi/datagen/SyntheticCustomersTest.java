@@ -0,0 +1,78 @@
+package com.example.customerapi.datagen;
+
+import com.example.customerapi.entity.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticCustomersTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+
+    private final SyntheticCustomers customers = new SyntheticCustomers(42, AS_OF);
+
+    @Test
+    void testSameSeedAndIndexGiveSameCustomer() {
+        Customer first = customers.customer(12_345);
+        Customer again = new SyntheticCustomers(42, AS_OF).customer(12_345);
+        Customer otherSeed = new SyntheticCustomers(7, AS_OF).customer(12_345);
+
+        assertEquals(first.getId(), again.getId());
+        assertEquals(first.getEmail(), again.getEmail());
+        assertEquals(first.getAnnualSpend(), again.getAnnualSpend());
+        assertEquals(first.getLastPurchaseDate(), again.getLastPurchaseDate());
+        assertNotEquals(first.getId(), otherSeed.getId());
+    }
+
+    @Test
+    void testIdsAreTimeOrderedAndEmailsUnique() {
+        Set<String> emails = new HashSet<>();
+        UUID previous = null;
+        for (long n = 0; n < 20_000; n++) {
+            Customer customer = customers.customer(n);
+            assertEquals(7, customer.getId().version());
+            if (previous != null) {
+                assertTrue(customer.getId().compareTo(previous) > 0, "id of customer " + n);
+            }
+            previous = customer.getId();
+            assertTrue(emails.add(customer.getEmail()), customer.getEmail());
+            assertTrue(customer.getEmail().matches("[a-z._]+\\d+@[a-z.-]+"), customer.getEmail());
+        }
+    }
+
+    @Test
+    void testSpendIsSkewedAndDatesSpreadOverYears() {
+        int rows = 50_000;
+        int neverPurchased = 0;
+        int atLeastTenThousand = 0;
+        int atLeastOneThousand = 0;
+        int olderThanTwoYears = 0;
+        for (long n = 0; n < rows; n++) {
+            Customer customer = customers.customer(n);
+            BigDecimal spend = customer.getAnnualSpend();
+            if (spend == null) {
+                assertNull(customer.getLastPurchaseDate());
+                neverPurchased++;
+                continue;
+            }
+            assertTrue(spend.signum() > 0);
+            atLeastTenThousand += spend.compareTo(BigDecimal.valueOf(10_000)) >= 0 ? 1 : 0;
+            atLeastOneThousand += spend.compareTo(BigDecimal.valueOf(1_000)) >= 0 ? 1 : 0;
+            LocalDate date = customer.getLastPurchaseDate();
+            assertFalse(date.isAfter(AS_OF));
+            assertFalse(date.isBefore(AS_OF.minusYears(6).minusDays(2)));
+            olderThanTwoYears += date.isBefore(AS_OF.minusYears(2)) ? 1 : 0;
+        }
+
+        assertEquals(0.08, neverPurchased / (double) rows, 0.01);
+        assertEquals(0.03, atLeastTenThousand / (double) rows, 0.01);
+        assertEquals(0.52, atLeastOneThousand / (double) rows, 0.03);
+        assertEquals(0.18, olderThanTwoYears / (double) rows, 0.03);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.customerapi.datagen;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.service.CustomerService;
+import com.example.customerapi.service.EmailMembershipFilter;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataLoaderTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:datagen-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void testParallelLoadInsertsEveryCustomerOnce() {
+        // Three producers over three chunks, the last one partial
+        SyntheticDataLoader loader = new SyntheticDataLoader(jdbcTemplate, 25_001, 42, AS_OF, 3, 700);
+
+        assertEquals(25_001, loader.load());
+
+        assertEquals(25_001, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Long.class));
+        assertEquals(25_001, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT email) FROM customer", Long.class));
+        Customer expected = new SyntheticCustomers(42, AS_OF).customer(25_000);
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM customer WHERE id = ?", expected.getId());
+        assertEquals(expected.getName(), row.get("NAME"));
+        assertEquals(expected.getEmail(), row.get("EMAIL"));
+        BigDecimal spend = (BigDecimal) row.get("ANNUAL_SPEND");
+        assertEquals(expected.getAnnualSpend() == null, spend == null);
+        if (spend != null) {
+            assertEquals(0, expected.getAnnualSpend().compareTo(spend));
+        }
+    }
+
+    @Test
+    void testLoadIsSkippedWhenTableIsFull() {
+        new SyntheticDataLoader(jdbcTemplate, 1_000, 42, AS_OF, 1, 1000).load();
+
+        assertEquals(0, new SyntheticDataLoader(jdbcTemplate, 1_000, 42, AS_OF, 2, 1000).load());
+        assertEquals(1_000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Long.class));
+    }
+
+    @Test
+    void testLoadAfterDeleteDoesNotRegenerate() {
+        SyntheticCustomers customers = new SyntheticCustomers(42, AS_OF);
+        new SyntheticDataLoader(jdbcTemplate, 15_000, 42, AS_OF, 2, 1000).load();
+        jdbcTemplate.update("DELETE FROM customer WHERE id = ?", customers.customer(7).getId());
+
+        assertEquals(0, new SyntheticDataLoader(jdbcTemplate, 15_000, 42, AS_OF, 2, 1000).load());
+        assertEquals(14_999, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Long.class));
+    }
+
+    @Test
+    void testLoadContinuesWithMissingRows() {
+        new SyntheticDataLoader(jdbcTemplate, 12_345, 42, AS_OF, 2, 1000).load();
+
+        // The partial last chunk is completed and the next one added
+        assertEquals(12_655, new SyntheticDataLoader(jdbcTemplate, 25_000, 42, AS_OF, 2, 1000).load());
+        assertEquals(25_000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Long.class));
+    }
+
+    @Test
+    void testFailedLoadIsReported() {
+        jdbcTemplate.execute("ALTER TABLE customer ADD CONSTRAINT short_email CHECK (LENGTH(email) < 20)");
+
+        assertThrows(RuntimeException.class,
+                () -> new SyntheticDataLoader(jdbcTemplate, 30_000, 42, AS_OF, 2, 1000).load());
+    }
+
+    @Test
+    void testSyntheticProfileLoadsBeforeEmailFilterIsBuilt() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("synthetic")
+                .run("--spring.datasource.url=jdbc:h2:mem:synthetic-app-" + UUID.randomUUID(),
+                        "--customer.datagen.rows=5000", "--customer.grpc.enabled=false")) {
+            Customer expected = new SyntheticCustomers(42, LocalDate.now()).customer(4321);
+
+            assertEquals(5000, context.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT COUNT(*) FROM customer", Long.class));
+            assertEquals(5000, context.getBean(EmailMembershipFilter.class).stats().getInsertions());
+            assertEquals(expected.getId(), context.getBean(CustomerService.class).getByEmail(expected.getEmail()).getId());
+        }
+    }
+}
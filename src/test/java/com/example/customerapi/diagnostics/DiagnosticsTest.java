@@ -0,0 +1,141 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.dto.DiagnosticsReport;
+import com.example.customerapi.dto.RequestSpan;
+import com.example.customerapi.dto.SlowRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:diagnostics",
+        "customer.grpc.enabled=false",
+        // Every request counts as slow
+        "customer.diagnostics.slow-request-ms=0",
+        "customer.diagnostics.max-recording-seconds=5",
+        "customer.diagnostics.recording-dir=${java.io.tmpdir}/customer-api-diagnostics-test",
+        "management.endpoints.web.exposure.include=health,diagnostics"
+})
+@AutoConfigureMockMvc
+class DiagnosticsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DiagnosticsEndpoint endpoint;
+
+    @Test
+    void testSlowRequestsKeepTheirBreakdown() throws Exception {
+        String id = aliceId();
+
+        mockMvc.perform(get("/customers/" + id)).andExpect(status().isOk());
+
+        DiagnosticsReport report = endpoint.diagnostics();
+        SlowRequest request = report.slowestRequests().stream()
+                .filter(r -> r.path().equals("/customers/" + id))
+                .findFirst().orElseThrow();
+        assertEquals("GET", request.method());
+        assertEquals(200, request.status());
+        assertEquals(id, request.customerId());
+        List<String> calls = request.breakdown().stream().map(s -> s.layer() + ":" + s.operation()).toList();
+        assertEquals(List.of("service:getCustomerById", "repository:findById"), calls);
+        RequestSpan lookup = request.breakdown().get(1);
+        assertEquals(1, lookup.rowCount());
+        assertTrue(lookup.startMillis() >= request.breakdown().get(0).startMillis());
+        assertTrue(request.durationMillis() >= lookup.durationMillis());
+
+        JsonNode json = objectMapper.readTree(mockMvc.perform(get("/actuator/diagnostics"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertEquals(0, json.get("slowRequestThresholdMillis").asLong());
+        assertTrue(json.get("slowestRequests").size() > 0);
+    }
+
+    @Test
+    void testRequestsEmitFlightRecorderEvents(@TempDir Path dir) throws Exception {
+        String id = aliceId();
+        Path file = dir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.customerapi.Request");
+            recording.enable("com.example.customerapi.ServiceOperation");
+            recording.enable("com.example.customerapi.RepositoryCall");
+            recording.start();
+            mockMvc.perform(get("/customers/" + id)).andExpect(status().isOk());
+            mockMvc.perform(get("/customers").param("email", "nobody@example.com")).andExpect(status().isNotFound());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+        RecordedEvent request = events.get("com.example.customerapi.Request").stream()
+                .filter(e -> id.equals(e.getString("customerId"))).findFirst().orElseThrow();
+        assertEquals("GET", request.getString("method"));
+        assertEquals(200, request.getInt("status"));
+        assertTrue(events.get("com.example.customerapi.Request").stream().anyMatch(e -> e.getInt("status") == 404));
+        RecordedEvent lookup = events.get("com.example.customerapi.RepositoryCall").stream()
+                .filter(e -> e.getString("operation").equals("findById")).findFirst().orElseThrow();
+        assertEquals(id, lookup.getString("customerId"));
+        assertEquals(1, lookup.getInt("rowCount"));
+        assertFalse(lookup.getBoolean("failed"));
+        RecordedEvent miss = events.get("com.example.customerapi.ServiceOperation").stream()
+                .filter(e -> e.getString("operation").equals("getByEmail")).findFirst().orElseThrow();
+        assertTrue(miss.getBoolean("failed"));
+        assertEquals(-1, miss.getInt("rowCount"));
+    }
+
+    @Test
+    void testOnDemandRecordingIsBoundedAndExclusive() throws Exception {
+        JsonNode started = objectMapper.readTree(mockMvc.perform(post("/actuator/diagnostics")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"recordSeconds\": 600}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertEquals("RUNNING", started.get("state").asText());
+        // Capped at customer.diagnostics.max-recording-seconds
+        assertEquals(5, started.get("durationSeconds").asLong());
+
+        mockMvc.perform(post("/actuator/diagnostics").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isConflict());
+
+        long deadline = System.currentTimeMillis() + 20_000;
+        // RUNNING, then briefly STOPPED while the file is written, then CLOSED
+        while (!"CLOSED".equals(endpoint.diagnostics().recording().state()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        Path file = Paths.get(endpoint.diagnostics().recording().destination());
+        // Written and closed by the JVM when its time is up
+        assertEquals("CLOSED", endpoint.diagnostics().recording().state());
+        assertTrue(Files.size(file) > 0);
+        Files.delete(file);
+    }
+
+    private String aliceId() throws Exception {
+        JsonNode alice = objectMapper.readTree(mockMvc.perform(get("/customers").param("email", "alice@example.com"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        return alice.get("id").asText();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.customerapi.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testOldestRecordingsAreDeletedOnStart() throws Exception {
+        for (String time : new String[] {"20240101-000000", "20240102-000000", "20240103-000000"}) {
+            Files.createFile(directory.resolve("customer-api-" + time + ".jfr"));
+        }
+        Files.createFile(directory.resolve("notes.txt"));
+        FlightRecordings recordings = new FlightRecordings(directory.toString(), 1, "default", 2);
+        try {
+            assertTrue(recordings.start(1).isPresent());
+        } finally {
+            recordings.close();
+        }
+
+        // The newest old file and the new recording remain; files that are not recordings are left alone
+        assertTrue(Files.exists(directory.resolve("customer-api-20240103-000000.jfr")));
+        assertFalse(Files.exists(directory.resolve("customer-api-20240102-000000.jfr")));
+        assertFalse(Files.exists(directory.resolve("customer-api-20240101-000000.jfr")));
+        assertTrue(Files.exists(directory.resolve("notes.txt")));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.filter(file -> file.toString().endsWith(".jfr")).count());
+        }
+    }
+
+    @Test
+    void testAtLeastOneFileMustBeKept() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FlightRecordings(directory.toString(), 1, "default", 0));
+    }
+}
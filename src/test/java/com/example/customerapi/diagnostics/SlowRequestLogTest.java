@@ -0,0 +1,63 @@
+package com.example.customerapi.diagnostics;
+
+import com.example.customerapi.dto.SlowRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestLogTest {
+
+    @Test
+    void testOnlyRequestsOverThresholdAreSlow() {
+        SlowRequestLog log = new SlowRequestLog(100, 4);
+
+        assertFalse(log.isSlow(TimeUnit.MILLISECONDS.toNanos(99)));
+        assertTrue(log.isSlow(TimeUnit.MILLISECONDS.toNanos(100)));
+    }
+
+    @Test
+    void testKeepsMostRecentSlowestFirst() {
+        SlowRequestLog log = new SlowRequestLog(0, 3);
+        for (double millis : new double[]{500, 120, 300, 200, 150}) {
+            log.add(request(millis));
+        }
+
+        // The 500 ms and 120 ms requests were overwritten
+        assertEquals(List.of(300.0, 200.0, 150.0), log.slowest().stream().map(SlowRequest::durationMillis).toList());
+        assertEquals(5, log.seen());
+    }
+
+    @Test
+    void testTraceBreakdownIsInStartOrderAndBounded() {
+        RequestTrace trace = RequestTrace.start();
+        try {
+            assertSame(trace, RequestTrace.current());
+            long now = System.nanoTime();
+            // The inner call ends, and is recorded, before the outer one
+            trace.add("repository", "findById", now + 2_000_000, 1_000_000, 1, false);
+            trace.add("service", "getCustomerById", now + 1_000_000, 3_000_000, 1, false);
+            for (int i = 0; i < RequestTrace.MAX_SPANS; i++) {
+                trace.add("repository", "count", now + 5_000_000, 1000, -1, false);
+            }
+        } finally {
+            trace.finish();
+        }
+
+        SlowRequest request = trace.toSlowRequest("GET", "/customers", 200, null, 10_000_000);
+
+        assertNull(RequestTrace.current());
+        assertEquals(RequestTrace.MAX_SPANS, request.breakdown().size());
+        assertEquals(2, request.droppedSpans());
+        assertEquals("getCustomerById", request.breakdown().get(0).operation());
+        assertEquals("findById", request.breakdown().get(1).operation());
+        assertEquals(10.0, request.durationMillis());
+    }
+
+    private static SlowRequest request(double millis) {
+        return new SlowRequest(Instant.now(), "GET", "/customers", 200, null, millis, List.of(), 0);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.customerapi.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void testGeneratesVersion7Uuid() {
+        UUID uuid = TimeOrderedUuidGenerator.next();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testTimestampIsStoredInLeadingBits() {
+        long millis = 1_730_000_000_000L;
+        UUID uuid = TimeOrderedUuidGenerator.fromMillis(millis);
+        assertEquals(millis, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testIdsFromLaterMillisecondsSortAfterEarlierOnes() {
+        UUID earlier = TimeOrderedUuidGenerator.fromMillis(1_730_000_000_000L);
+        UUID later = TimeOrderedUuidGenerator.fromMillis(1_730_000_000_001L);
+        // Compare as the database does: unsigned, byte by byte
+        assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+    }
+}
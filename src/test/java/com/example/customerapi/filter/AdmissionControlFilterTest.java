@@ -0,0 +1,214 @@
+package com.example.customerapi.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    @Test
+    void testRequestsWithinQuotaPassThrough() throws Exception {
+        AdmissionControlFilter filter = filter(1, 3, 10, 1000, 100);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = perform(filter, request("10.0.0.1"));
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void testClientOverQuotaGets429WithRetryAfter() throws Exception {
+        AdmissionControlFilter filter = filter(1, 2, 10, 1000, 100);
+        perform(filter, request("10.0.0.1"));
+        perform(filter, request("10.0.0.1"));
+
+        MockHttpServletResponse response = perform(filter, request("10.0.0.1"));
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testQuotaIsPerClient() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10, 1000, 100);
+        perform(filter, request("10.0.0.1"));
+
+        assertEquals(429, perform(filter, request("10.0.0.1")).getStatus());
+        assertEquals(200, perform(filter, request("10.0.0.2")).getStatus());
+
+        MockHttpServletRequest withApiKey = request("10.0.0.1");
+        withApiKey.addHeader(AdmissionControlFilter.API_KEY_HEADER, "batch-client");
+        assertEquals(200, perform(filter, withApiKey).getStatus());
+    }
+
+    @Test
+    void testUnknownApiKeysShareTheIpQuota() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10, 1000, 100);
+        perform(filter, request("10.0.0.1"));
+
+        for (int i = 0; i < 1000; i++) {
+            MockHttpServletRequest request = request("10.0.0.1");
+            request.addHeader(AdmissionControlFilter.API_KEY_HEADER, "random-" + i);
+            assertEquals(429, perform(filter, request).getStatus());
+        }
+        assertEquals(1, filter.trackedClients());
+    }
+
+    @Test
+    void testUnmeteredKeySkipsQuotaUntilRemoved() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10, 1000, 100);
+        filter.addUnmeteredKey("warm-up");
+
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletRequest request = request("127.0.0.1");
+            request.addHeader(AdmissionControlFilter.API_KEY_HEADER, "warm-up");
+            assertEquals(200, perform(filter, request).getStatus());
+        }
+        assertEquals(0, filter.trackedClients());
+
+        filter.removeUnmeteredKey("warm-up");
+        for (int expected : new int[]{200, 429}) {
+            MockHttpServletRequest request = request("127.0.0.1");
+            request.addHeader(AdmissionControlFilter.API_KEY_HEADER, "warm-up");
+            assertEquals(expected, perform(filter, request).getStatus());
+        }
+    }
+
+    @Test
+    void testTrackedClientsAreCapped() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10, 1000, 100);
+
+        for (int i = 0; i < 1000; i++) {
+            perform(filter, request("10.0." + (i / 256) + "." + (i % 256)));
+        }
+
+        assertTrue(filter.trackedClients() <= 100, "tracked " + filter.trackedClients());
+        assertTrue(filter.trackedClients() >= 75, "tracked " + filter.trackedClients());
+    }
+
+    @Test
+    void testManyThreadsAndClientsStayWithinCap() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 10_000, 1000, 500);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int passed = 0;
+                    for (int i = 0; i < 5000; i++) {
+                        // Half the requests come from a few regular clients, half from ever new ones
+                        String ip = i % 2 == 0 ? "10.0.0." + (i % 8) : "10." + thread + "." + (i / 256 % 256) + "." + (i % 256);
+                        if (perform(filter, request(ip)).getStatus() == 200) {
+                            passed++;
+                        }
+                    }
+                    return passed;
+                }));
+            }
+            start.countDown();
+            int passed = 0;
+            for (Future<Integer> result : results) {
+                passed += result.get(30, TimeUnit.SECONDS);
+            }
+            assertTrue(passed > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(filter.trackedClients() <= 500, "tracked " + filter.trackedClients());
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void testRejectionHasJsonErrorBody() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10, 1000, 100);
+        perform(filter, request("10.0.0.1"));
+
+        MockHttpServletResponse response = perform(filter, request("10.0.0.1"));
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded\"}",
+                response.getContentAsString());
+    }
+
+    @Test
+    void testLoadIsShedWhenTooManyRequestsInFlight() throws Exception {
+        AdmissionControlFilter filter = filter(100, 100, 1, 1000, 100);
+        AtomicInteger nestedStatus = new AtomicInteger();
+
+        // The nested request arrives while the outer one still holds the only in-flight slot
+        FilterChain chain = (req, res) -> nestedStatus.set(perform(filter, request("10.0.0.2")).getStatus());
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("10.0.0.1"), outer, chain);
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nestedStatus.get());
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void testRequestQueuedTooLongIsShed() throws Exception {
+        AdmissionControlFilter filter = filter(100, 100, 10, 500, 100);
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader(AdmissionControlFilter.REQUEST_START_HEADER, "t=" + (System.currentTimeMillis() - 2000));
+
+        MockHttpServletResponse response = perform(filter, request);
+
+        assertEquals(503, response.getStatus());
+        assertNotNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testOtherPathsAreNotLimited() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10, 1000, 100);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/swagger-ui.html");
+        request.setRemoteAddr("10.0.0.1");
+        perform(filter, request);
+
+        MockHttpServletRequest again = new MockHttpServletRequest("GET", "/swagger-ui.html");
+        again.setRemoteAddr("10.0.0.1");
+        assertEquals(200, perform(filter, again).getStatus());
+    }
+
+    private static AdmissionControlFilter filter(double ratePerSecond, int burst, int maxInFlight,
+                                                 long maxQueueMillis, int maxClients) {
+        return new AdmissionControlFilter(true, ratePerSecond, burst, maxInFlight, maxQueueMillis, maxClients,
+                List.of("batch-client"), new ObjectMapper());
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static MockHttpServletResponse perform(AdmissionControlFilter filter, MockHttpServletRequest request)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
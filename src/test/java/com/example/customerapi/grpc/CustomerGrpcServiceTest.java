@@ -0,0 +1,200 @@
+package com.example.customerapi.grpc;
+
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.exception.DuplicateEmailException;
+import com.example.customerapi.exception.NotFoundException;
+import com.example.customerapi.grpc.proto.CreateCustomerRequest;
+import com.example.customerapi.grpc.proto.Customer;
+import com.example.customerapi.grpc.proto.CustomerApiGrpc;
+import com.example.customerapi.grpc.proto.CustomerInput;
+import com.example.customerapi.grpc.proto.DeleteCustomerRequest;
+import com.example.customerapi.grpc.proto.GetCustomerRequest;
+import com.example.customerapi.grpc.proto.LookupRequest;
+import com.example.customerapi.grpc.proto.LookupResponse;
+import com.example.customerapi.service.CustomerService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CustomerGrpcServiceTest {
+
+    private CustomerService customerService;
+    private CustomerGrpcService grpcService;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        customerService = mock(CustomerService.class);
+        grpcService = new CustomerGrpcService(customerService, 4, 8);
+        String name = "customers-" + UUID.randomUUID();
+        server = InProcessServerBuilder.forName(name).addService(grpcService).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        grpcService.destroy();
+    }
+
+    @Test
+    void testCreateAndGetCustomer() {
+        UUID id = UUID.randomUUID();
+        CustomerResponse response = response(id, "alice@example.com");
+        when(customerService.createCustomer(new CustomerRequest("Alice", "alice@example.com",
+                new BigDecimal("12000.50"), LocalDate.of(2024, 10, 1)))).thenReturn(response);
+        when(customerService.getCustomerById(id)).thenReturn(response);
+        CustomerApiGrpc.CustomerApiBlockingStub stub = CustomerApiGrpc.newBlockingStub(channel);
+
+        Customer created = stub.createCustomer(CreateCustomerRequest.newBuilder()
+                .setCustomer(CustomerInput.newBuilder()
+                        .setName("Alice")
+                        .setEmail("alice@example.com")
+                        .setAnnualSpend("12000.50")
+                        .setLastPurchaseDate("2024-10-01"))
+                .build());
+        Customer found = stub.getCustomer(GetCustomerRequest.newBuilder().setId(id.toString()).build());
+
+        assertEquals(id.toString(), created.getId());
+        assertEquals("12000.50", created.getAnnualSpend());
+        assertEquals("2024-10-01", created.getLastPurchaseDate());
+        assertEquals("Platinum", created.getTier());
+        assertEquals(created, found);
+    }
+
+    @Test
+    void testErrorsMapToStatusCodes() {
+        UUID missing = UUID.randomUUID();
+        when(customerService.getCustomerById(missing)).thenThrow(new NotFoundException("Customer not found"));
+        when(customerService.createCustomer(any())).thenThrow(new DuplicateEmailException("Customer with this email already exists"));
+        CustomerApiGrpc.CustomerApiBlockingStub stub = CustomerApiGrpc.newBlockingStub(channel);
+
+        assertCode(Status.Code.NOT_FOUND, () -> stub.getCustomer(GetCustomerRequest.newBuilder().setId(missing.toString()).build()));
+        assertCode(Status.Code.INVALID_ARGUMENT, () -> stub.getCustomer(GetCustomerRequest.newBuilder().setId("nope").build()));
+        assertCode(Status.Code.INVALID_ARGUMENT, () -> stub.deleteCustomer(DeleteCustomerRequest.newBuilder().build()));
+        assertCode(Status.Code.INVALID_ARGUMENT, () -> stub.createCustomer(CreateCustomerRequest.newBuilder()
+                .setCustomer(CustomerInput.newBuilder().setAnnualSpend("lots")).build()));
+        assertCode(Status.Code.ALREADY_EXISTS, () -> stub.createCustomer(CreateCustomerRequest.newBuilder()
+                .setCustomer(CustomerInput.newBuilder().setName("Alice").setEmail("alice@example.com")).build()));
+    }
+
+    @Test
+    void testDeleteCustomer() {
+        UUID id = UUID.randomUUID();
+
+        CustomerApiGrpc.newBlockingStub(channel).deleteCustomer(DeleteCustomerRequest.newBuilder().setId(id.toString()).build());
+
+        verify(customerService).deleteCustomer(id);
+    }
+
+    @Test
+    void testLookupCustomersStreamsEveryAnswer() throws Exception {
+        when(customerService.getCustomerById(any())).thenAnswer(call -> response(call.getArgument(0), "x@example.com"));
+        when(customerService.getByEmail(anyString())).thenAnswer(call -> {
+            String email = call.getArgument(0);
+            if (email.startsWith("missing")) {
+                throw new NotFoundException("Customer not found");
+            }
+            return response(UUID.randomUUID(), email);
+        });
+        int lookups = 2000;
+        Map<Long, LookupResponse> answers = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        StreamObserver<LookupRequest> requests = CustomerApiGrpc.newStub(channel).lookupCustomers(new StreamObserver<>() {
+            @Override
+            public void onNext(LookupResponse response) {
+                assertNull(answers.put(response.getRequestId(), response));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                failure.set(t);
+                done.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        });
+        for (long i = 0; i < lookups; i++) {
+            LookupRequest.Builder request = LookupRequest.newBuilder().setRequestId(i);
+            if (i % 3 == 0) {
+                request.setId(UUID.randomUUID().toString());
+            } else if (i % 3 == 1) {
+                request.setEmail("customer" + i + "@example.com");
+            } else {
+                request.setEmail("missing" + i + "@example.com");
+            }
+            requests.onNext(request.build());
+        }
+        requests.onNext(LookupRequest.newBuilder().setRequestId(lookups).build());
+        requests.onCompleted();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNull(failure.get());
+        assertEquals(lookups + 1, answers.size());
+        assertEquals("customer1@example.com", answers.get(1L).getCustomer().getEmail());
+        assertEquals("NOT_FOUND", answers.get(2L).getError().getCode());
+        assertEquals("INVALID_ARGUMENT", answers.get((long) lookups).getError().getCode());
+        assertTrue(answers.get(0L).hasCustomer());
+    }
+
+    @Test
+    void testEmptyLookupStreamCompletes() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        StreamObserver<LookupRequest> requests = CustomerApiGrpc.newStub(channel).lookupCustomers(new StreamObserver<>() {
+            @Override
+            public void onNext(LookupResponse response) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        });
+
+        requests.onCompleted();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void assertCode(Status.Code expected, Runnable call) {
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, call::run);
+        assertEquals(expected, ex.getStatus().getCode());
+    }
+
+    private static CustomerResponse response(UUID id, String email) {
+        return new CustomerResponse(id, "Alice", email, new BigDecimal("12000.50"), LocalDate.of(2024, 10, 1), "Platinum");
+    }
+}
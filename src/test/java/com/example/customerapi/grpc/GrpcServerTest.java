@@ -0,0 +1,59 @@
+package com.example.customerapi.grpc;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.grpc.proto.CreateCustomerRequest;
+import com.example.customerapi.grpc.proto.Customer;
+import com.example.customerapi.grpc.proto.CustomerApiGrpc;
+import com.example.customerapi.grpc.proto.CustomerInput;
+import com.example.customerapi.grpc.proto.GetCustomerRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrpcServerTest {
+
+    @Test
+    void testServesCustomerApiOverNetwork() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--customer.grpc.enabled=true", "--customer.grpc.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:grpc-" + UUID.randomUUID())) {
+            GrpcServer server = context.getBean(GrpcServer.class);
+            ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+            try {
+                CustomerApiGrpc.CustomerApiBlockingStub stub = CustomerApiGrpc.newBlockingStub(channel);
+
+                Customer created = stub.createCustomer(CreateCustomerRequest.newBuilder()
+                        .setCustomer(CustomerInput.newBuilder()
+                                .setName("Grace")
+                                .setEmail("grace.grpc@example.com")
+                                .setAnnualSpend("1500.00")
+                                .setLastPurchaseDate("2020-01-01"))
+                        .build());
+
+                assertEquals("Silver", created.getTier());
+                assertEquals(created, stub.getCustomer(GetCustomerRequest.newBuilder().setId(created.getId()).build()));
+            } finally {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void testServiceAndServerAreOffByDefault() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(CustomerGrpcService.class, GrpcServer.class)
+                .run(context -> {
+                    assertEquals(0, context.getBeanNamesForType(CustomerGrpcService.class).length);
+                    assertEquals(0, context.getBeanNamesForType(GrpcServer.class).length);
+                });
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.customerapi.json;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.dto.SparseCustomerResponse;
+import com.example.customerapi.entity.TimeOrderedUuidGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written mapping must stay byte-identical to what the default bean serializers produce.
+ */
+@JsonTest
+class CustomerJsonTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Spring Boot's defaults for the application's mapper, without CustomerJson
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void testCustomSerializerIsRegistered() throws Exception {
+        assertInstanceOf(CustomerJson.Serializer.class,
+                objectMapper.getSerializerProviderInstance().findValueSerializer(CustomerResponse.class));
+    }
+
+    @Test
+    void testResponsesAreByteIdentical() throws Exception {
+        List<CustomerResponse> responses = List.of(
+                new CustomerResponse(UUID.randomUUID(), "Alice", "alice@example.com",
+                        new BigDecimal("12000.00"), LocalDate.of(2024, 1, 5), "Platinum"),
+                new CustomerResponse(UUID.fromString("00000000-0000-0000-0000-000000000000"), "Bob", "bob@example.com",
+                        BigDecimal.ZERO, LocalDate.of(1, 12, 31), "Silver"),
+                new CustomerResponse(UUID.fromString("ffffffff-ffff-7fff-bfff-ffffffffffff"), "Carol", "carol@example.com",
+                        new BigDecimal("1E+3"), LocalDate.of(9999, 2, 28), "Gold"),
+                new CustomerResponse(TimeOrderedUuidGenerator.next(), "Zoë \"Z\" O'Neil\t ", "zoe+tag@example.com",
+                        new BigDecimal("-0.005"), LocalDate.of(2024, 2, 29), "Diamond"),
+                new CustomerResponse(UUID.randomUUID(), "Far Future", "future@example.com",
+                        new BigDecimal("1"), LocalDate.of(10000, 1, 1), "Silver"),
+                new CustomerResponse(UUID.randomUUID(), "Far Past", "past@example.com",
+                        new BigDecimal("1"), LocalDate.of(-1, 6, 15), "Silver"),
+                new CustomerResponse(null, null, null, null, null, null));
+
+        for (CustomerResponse response : responses) {
+            assertEquals(defaultMapper.writeValueAsString(response), objectMapper.writeValueAsString(response));
+            assertArrayEquals(defaultMapper.writeValueAsBytes(response), objectMapper.writeValueAsBytes(response),
+                    () -> "differs for " + response);
+            assertEquals(defaultMapper.writeValueAsString(response), objectMapper.writeValueAsString(response));
+        }
+    }
+
+    @Test
+    void testResponseListsAreByteIdentical() throws Exception {
+        List<CustomerResponse> responses = List.of(
+                new CustomerResponse(UUID.randomUUID(), "Alice", "alice@example.com",
+                        new BigDecimal("12000"), LocalDate.of(2024, 1, 5), "Platinum"),
+                new CustomerResponse(UUID.randomUUID(), "Bob", "bob@example.com",
+                        new BigDecimal("500.50"), LocalDate.of(2023, 10, 1), "Silver"));
+
+        assertArrayEquals(defaultMapper.writeValueAsBytes(responses), objectMapper.writeValueAsBytes(responses));
+    }
+
+    @Test
+    void testSparseResponsesKeepOnlyRequestedFields() throws Exception {
+        CustomerResponse response = new CustomerResponse(UUID.randomUUID(), "Alice", "alice@example.com",
+                new BigDecimal("12000.00"), LocalDate.of(2024, 1, 5), "Platinum");
+        Map<String, Object> full = new LinkedHashMap<>();
+        full.put("id", response.getId());
+        full.put("name", response.getName());
+        full.put("email", response.getEmail());
+        full.put("annualSpend", response.getAnnualSpend());
+        full.put("lastPurchaseDate", response.getLastPurchaseDate());
+        full.put("tier", response.getTier());
+
+        for (Set<CustomerField> fields : List.of(EnumSet.of(CustomerField.ID, CustomerField.TIER),
+                EnumSet.of(CustomerField.LAST_PURCHASE_DATE, CustomerField.NAME), EnumSet.allOf(CustomerField.class))) {
+            Map<String, Object> expected = new LinkedHashMap<>(full);
+            expected.keySet().retainAll(fields.stream().map(CustomerField::jsonName).toList());
+            assertEquals(defaultMapper.writeValueAsString(expected),
+                    objectMapper.writeValueAsString(new SparseCustomerResponse(fields, response)));
+        }
+    }
+
+    @Test
+    void testTimestampDatesFollowMapperConfiguration() throws Exception {
+        ObjectMapper timestampMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper customTimestampMapper = Jackson2ObjectMapperBuilder.json()
+                .serializerByType(CustomerResponse.class, new CustomerJson.Serializer())
+                .build();
+        CustomerResponse response = new CustomerResponse(UUID.randomUUID(), "Alice", "alice@example.com",
+                new BigDecimal("12000"), LocalDate.of(2024, 1, 5), "Platinum");
+
+        assertArrayEquals(timestampMapper.writeValueAsBytes(response), customTimestampMapper.writeValueAsBytes(response));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"name\":\"Alice\",\"email\":\"alice@example.com\",\"annualSpend\":12000.50,\"lastPurchaseDate\":\"2024-01-05\"}",
+            "{\"lastPurchaseDate\":\"2024-02-29\",\"annualSpend\":1E+3,\"email\":\"a@b.c\",\"name\":\"Zoë \\\"Z\\\"\"}",
+            "{\"name\":null,\"email\":null,\"annualSpend\":null,\"lastPurchaseDate\":null}",
+            "{\"name\":\"Bob\",\"annualSpend\":\"250.75\",\"lastPurchaseDate\":[2023,10,1]}",
+            "{\"name\":42,\"email\":\"bob@example.com\",\"annualSpend\":7,\"unknown\":{\"nested\":[1,2]},\"tier\":\"Gold\"}",
+            "{\"name\":\"Far\",\"lastPurchaseDate\":\"+10000-01-01\"}",
+            "{}"
+    })
+    void testRequestsMatchDefaultDeserializer(String json) throws Exception {
+        assertEquals(defaultMapper.readValue(json, CustomerRequest.class), objectMapper.readValue(json, CustomerRequest.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"lastPurchaseDate\":\"2023-02-29\"}",
+            "{\"lastPurchaseDate\":\"2023-13-01\"}",
+            "{\"lastPurchaseDate\":\"2023/01/01\"}",
+            "{\"annualSpend\":\"lots\"}",
+            "{\"annualSpend\":true}",
+            "[]"
+    })
+    void testInvalidRequestsFailLikeDefaultDeserializer(String json) {
+        assertThrows(JsonProcessingException.class, () -> defaultMapper.readValue(json, CustomerRequest.class));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readValue(json, CustomerRequest.class));
+    }
+
+    @Test
+    void testNullBodyReadsAsNull() throws Exception {
+        assertNull(objectMapper.readValue("null", CustomerRequest.class));
+    }
+}
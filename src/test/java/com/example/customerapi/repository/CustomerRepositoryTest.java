@@ -1,6 +1,9 @@
 package com.example.customerapi.repository;
 
+import com.example.customerapi.dto.CustomerView;
 import com.example.customerapi.entity.Customer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +21,9 @@ class CustomerRepositoryTest {
     @Autowired
     private CustomerRepository repository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Customer testCustomer;
 
     @BeforeEach
@@ -69,4 +75,32 @@ class CustomerRepositoryTest {
         Optional<Customer> found = repository.findByNameAndEmail("Bob", "bob@example.com");
         assertFalse(found.isPresent());
     }
+
+    @Test
+    void testFindViewByEmailSelectsResponseColumns() {
+        Optional<CustomerView> found = repository.findViewByEmail("alice@example.com");
+        assertTrue(found.isPresent());
+        assertEquals(testCustomer.getId(), found.get().id());
+        assertEquals("Alice", found.get().name());
+        assertEquals("alice@example.com", found.get().email());
+        assertEquals(0, BigDecimal.valueOf(5000).compareTo(found.get().annualSpend()));
+        assertEquals(testCustomer.getLastPurchaseDate(), found.get().lastPurchaseDate());
+    }
+
+    @Test
+    void testFindViewDoesNotManageEntities() {
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(repository.findViewByEmail("alice@example.com").isPresent());
+        assertTrue(repository.findViewByName("Alice").isPresent());
+        assertTrue(repository.findViewByNameAndEmail("Alice", "alice@example.com").isPresent());
+
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testFindViewByEmailNotFound() {
+        assertFalse(repository.findViewByEmail("bob@example.com").isPresent());
+    }
 }
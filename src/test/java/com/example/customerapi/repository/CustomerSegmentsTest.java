@@ -0,0 +1,134 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.datagen.SyntheticCustomers;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.dto.SegmentQuery;
+import com.example.customerapi.entity.Customer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerSegmentsTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+    private static final int ROWS = 5_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private CustomerSegments segments;
+    private List<Customer> customers;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:segments-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        segments = new CustomerSegments(jdbcTemplate);
+        SyntheticCustomers generator = new SyntheticCustomers(7, AS_OF);
+        customers = LongStream.range(0, ROWS).mapToObj(generator::customer).toList();
+        jdbcTemplate.batchUpdate(CustomerRows.MERGE_SQL, customers, 1000, (ps, c) -> {
+            ps.setObject(1, c.getId());
+            ps.setString(2, c.getName());
+            ps.setString(3, c.getEmail());
+            ps.setBigDecimal(4, c.getAnnualSpend());
+            ps.setObject(5, c.getLastPurchaseDate());
+        });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void testPagesCoverSegmentInOrder() {
+        SegmentQuery query = new SegmentQuery(AS_OF.minusYears(1), AS_OF.minusMonths(1),
+                new BigDecimal("500"), new BigDecimal("5000"));
+
+        List<CustomerView> read = new ArrayList<>();
+        CustomerSegments.Key after = null;
+        List<CustomerView> page;
+        do {
+            page = segments.page(query, after, 97);
+            read.addAll(page);
+            after = page.isEmpty() ? null : CustomerSegments.Key.of(page.get(page.size() - 1));
+        } while (page.size() == 97);
+
+        List<Customer> expected = customers.stream().filter(matches(query)).toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), read.size());
+        assertEquals(new HashSet<>(expected.stream().map(Customer::getId).toList()),
+                new HashSet<>(read.stream().map(CustomerView::id).toList()));
+        Comparator<CustomerView> order = Comparator.comparing(CustomerView::lastPurchaseDate)
+                .thenComparing(CustomerView::annualSpend);
+        for (int i = 1; i < read.size(); i++) {
+            assertTrue(order.compare(read.get(i - 1), read.get(i)) <= 0);
+        }
+        assertEquals(expected.size(), segments.count(query));
+    }
+
+    @Test
+    void testOpenBoundsSkipCustomersWithoutPurchase() {
+        SegmentQuery all = new SegmentQuery(null, null, null, null);
+        long purchased = customers.stream().filter(c -> c.getLastPurchaseDate() != null && c.getAnnualSpend() != null).count();
+
+        assertTrue(purchased < ROWS);
+        assertEquals(purchased, segments.count(all));
+        assertEquals(customers.stream().filter(matches(new SegmentQuery(null, null, new BigDecimal("10000"), null))).count(),
+                segments.count(new SegmentQuery(null, null, new BigDecimal("10000"), null)));
+    }
+
+    @Test
+    void testQueriesUseSegmentIndex() {
+        CustomerSegments.Key after = new CustomerSegments.Key(AS_OF.minusMonths(3), new BigDecimal("250.00"), UUID.randomUUID());
+        List<SegmentQuery> queries = List.of(
+                new SegmentQuery(AS_OF.minusMonths(6), null, null, null),
+                new SegmentQuery(AS_OF.minusYears(1), AS_OF, new BigDecimal("1000"), new BigDecimal("2000")),
+                new SegmentQuery(null, null, new BigDecimal("10000"), null));
+        for (SegmentQuery query : queries) {
+            for (CustomerSegments.Key key : new CustomerSegments.Key[]{null, after}) {
+                String plan = explain(segments.pageSql(query, key, new ArrayList<>()) .replace("FETCH FIRST ? ROWS", "FETCH FIRST 100 ROWS"));
+                assertTrue(plan.contains("IDX_CUSTOMER_SEGMENT"), plan);
+                assertFalse(plan.contains("tableScan"), plan);
+                // Pages come off the index in order, with no sort of the matching rows
+                assertTrue(plan.contains("index sorted"), plan);
+            }
+            String count = explain(segments.countSql(query, new ArrayList<>()));
+            assertTrue(count.contains("IDX_CUSTOMER_SEGMENT"), count);
+            assertFalse(count.contains("tableScan"), count);
+        }
+        String bounded = explain(segments.pageSql(queries.get(0), null, new ArrayList<>()).replace("FETCH FIRST ? ROWS", "FETCH FIRST 100 ROWS"));
+        assertTrue(bounded.contains("IDX_CUSTOMER_SEGMENT: LAST_PURCHASE_DATE >= ?"), bounded);
+    }
+
+    @Test
+    void testCursorRoundTrip() {
+        CustomerSegments.Key key = new CustomerSegments.Key(AS_OF, new BigDecimal("1234.50"), UUID.randomUUID());
+
+        assertEquals(key, CustomerSegments.Key.decode(key.encode()));
+        assertThrows(IllegalArgumentException.class, () -> CustomerSegments.Key.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> CustomerSegments.Key.decode("%%%"));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    private static Predicate<Customer> matches(SegmentQuery query) {
+        return c -> c.getLastPurchaseDate() != null && c.getAnnualSpend() != null
+                && (query.from() == null || !c.getLastPurchaseDate().isBefore(query.from()))
+                && (query.to() == null || !c.getLastPurchaseDate().isAfter(query.to()))
+                && (query.minSpend() == null || c.getAnnualSpend().compareTo(query.minSpend()) >= 0)
+                && (query.maxSpend() == null || c.getAnnualSpend().compareTo(query.maxSpend()) <= 0);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.entity.Customer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every {@link CustomerStore} operation through both {@link JdbcCustomerStore} and the JPA
+ * {@link CustomerRepository} on the same database and expects the same answers.
+ */
+@DataJpaTest
+class JdbcCustomerStoreTest {
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcCustomerStore store;
+    private Customer alice;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcCustomerStore(new JdbcTemplate(dataSource));
+        repository.deleteAll();
+        alice = repository.save(customer("Alice", "alice@example.com"));
+        repository.save(new Customer(null, "Bob", "bob@example.com", null, null));
+        syncJpa();
+    }
+
+    @Test
+    void testFindByIdMatchesJpa() {
+        Customer jdbc = store.findById(alice.getId()).orElseThrow();
+        Customer jpa = repository.findById(alice.getId()).orElseThrow();
+
+        assertSameCustomer(jpa, jdbc);
+        assertEquals(repository.findById(UUID.randomUUID()), store.findById(UUID.randomUUID()));
+    }
+
+    @Test
+    void testViewLookupsMatchJpa() {
+        for (String name : List.of("Alice", "Bob", "Nobody")) {
+            assertEquals(repository.findViewByName(name), store.findViewByName(name));
+        }
+        for (String email : List.of("alice@example.com", "bob@example.com", "nobody@example.com")) {
+            assertEquals(repository.findViewByEmail(email), store.findViewByEmail(email));
+            assertEquals(repository.existsByEmail(email), store.existsByEmail(email));
+        }
+        assertEquals(repository.findViewByNameAndEmail("Alice", "alice@example.com"),
+                store.findViewByNameAndEmail("Alice", "alice@example.com"));
+        assertEquals(Optional.empty(), store.findViewByNameAndEmail("Alice", "bob@example.com"));
+        assertEquals(repository.findViewByNameAndEmail("Alice", "bob@example.com"),
+                store.findViewByNameAndEmail("Alice", "bob@example.com"));
+    }
+
+    @Test
+    void testFieldLookupsMatchJpa() {
+        List<Set<CustomerField>> columnSets = List.of(
+                EnumSet.of(CustomerField.ID),
+                EnumSet.of(CustomerField.EMAIL, CustomerField.ANNUAL_SPEND),
+                CustomerField.columnsFor(EnumSet.of(CustomerField.ID, CustomerField.TIER)),
+                CustomerField.columnsFor(EnumSet.allOf(CustomerField.class)));
+        for (Set<CustomerField> columns : columnSets) {
+            assertEquals(repository.findFieldsById(alice.getId(), columns), store.findFieldsById(alice.getId(), columns));
+            assertEquals(repository.findFieldsByName("Bob", columns), store.findFieldsByName("Bob", columns));
+            assertEquals(repository.findFieldsByEmail("alice@example.com", columns),
+                    store.findFieldsByEmail("alice@example.com", columns));
+            assertEquals(repository.findFieldsByNameAndEmail("Alice", "alice@example.com", columns),
+                    store.findFieldsByNameAndEmail("Alice", "alice@example.com", columns));
+            assertEquals(Optional.empty(), store.findFieldsByEmail("nobody@example.com", columns));
+            assertEquals(Optional.empty(), repository.findFieldsByEmail("nobody@example.com", columns));
+        }
+        CustomerView partial = store.findFieldsById(alice.getId(), EnumSet.of(CustomerField.ID)).orElseThrow();
+        assertEquals(new CustomerView(alice.getId(), null, null, null, null), partial);
+        assertEquals(store.findViewByEmail("alice@example.com"),
+                store.findFieldsByEmail("alice@example.com", EnumSet.range(CustomerField.ID, CustomerField.LAST_PURCHASE_DATE)));
+    }
+
+    @Test
+    void testNullColumnsMatchJpa() {
+        assertEquals(repository.findViewByEmail("bob@example.com").orElseThrow(),
+                store.findViewByEmail("bob@example.com").orElseThrow());
+        assertNull(store.findViewByEmail("bob@example.com").orElseThrow().annualSpend());
+    }
+
+    @Test
+    void testAmbiguousNameFailsLikeJpa() {
+        repository.save(customer("Alice", "alice2@example.com"));
+        syncJpa();
+
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> repository.findViewByName("Alice"));
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> store.findViewByName("Alice"));
+    }
+
+    @Test
+    void testSaveAssignsIdAndIsVisibleToJpa() {
+        Customer saved = store.save(customer("Carol", "carol@example.com"));
+        syncJpa();
+
+        assertNotNull(saved.getId());
+        assertEquals(7, saved.getId().version());
+        assertSameCustomer(saved, repository.findById(saved.getId()).orElseThrow());
+        assertEquals(repository.count(), store.count());
+    }
+
+    @Test
+    void testSaveExistingUpdatesInPlace() {
+        Customer changed = store.findById(alice.getId()).orElseThrow();
+        changed.setEmail("alice@example.org");
+        changed.setAnnualSpend(new BigDecimal("12000.00"));
+        store.save(changed);
+        syncJpa();
+
+        assertEquals(2, store.count());
+        assertSameCustomer(changed, repository.findById(alice.getId()).orElseThrow());
+    }
+
+    @Test
+    void testDeleteMatchesJpa() {
+        store.deleteById(alice.getId());
+        store.deleteById(UUID.randomUUID());
+        repository.deleteById(UUID.randomUUID());
+        syncJpa();
+
+        assertTrue(repository.findById(alice.getId()).isEmpty());
+        assertEquals(repository.count(), store.count());
+    }
+
+    @Test
+    void testStreamAllEmailsMatchesJpa() {
+        try (Stream<String> jdbc = store.streamAllEmails(); Stream<String> jpa = repository.streamAllEmails()) {
+            assertEquals(jpa.sorted().toList(), jdbc.sorted().toList());
+        }
+    }
+
+    // Writes go to the database before the JDBC side reads, and JPA reads come from the database
+    private void syncJpa() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static void assertSameCustomer(Customer expected, Customer actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(0, expected.getAnnualSpend().compareTo(actual.getAnnualSpend()));
+        assertEquals(expected.getLastPurchaseDate(), actual.getLastPurchaseDate());
+    }
+
+    private static Customer customer(String name, String email) {
+        return new Customer(null, name, email, new BigDecimal("5000.00"), LocalDate.of(2024, 6, 1));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.dto.CustomerField;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.dto.ShardStats;
+import com.example.customerapi.entity.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedCustomerStoreTest {
+
+    private List<String> urls;
+    private ShardedCustomerStore store;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = "shard-test-" + UUID.randomUUID();
+        urls = IntStream.range(0, 3).mapToObj(i -> "jdbc:h2:mem:" + prefix + "-" + i + ";DB_CLOSE_DELAY=-1").toList();
+        store = new ShardedCustomerStore(urls, "sa", "", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    void testSaveAssignsIdAndFindsOnOwningShard() {
+        Customer saved = store.save(customer("Alice", "alice@example.com"));
+
+        assertNotNull(saved.getId());
+        Customer found = store.findById(saved.getId()).orElseThrow();
+        assertEquals("alice@example.com", found.getEmail());
+        assertEquals(1, store.stats().get(store.shardFor(saved.getId())).getCustomers());
+    }
+
+    @Test
+    void testCustomersAreSpreadOverShards() {
+        for (int i = 0; i < 300; i++) {
+            store.save(customer("Customer " + i, "customer" + i + "@example.com"));
+        }
+
+        assertEquals(300, store.count());
+        for (ShardStats shard : store.stats()) {
+            assertTrue(shard.getCustomers() > 50, "shard " + shard.getShard() + " has " + shard.getCustomers());
+        }
+    }
+
+    @Test
+    void testEmailLookupsUseIndex() {
+        Customer saved = store.save(customer("Alice", "alice@example.com"));
+
+        assertTrue(store.existsByEmail("alice@example.com"));
+        assertFalse(store.existsByEmail("bob@example.com"));
+        assertEquals(saved.getId(), store.findViewByEmail("alice@example.com").orElseThrow().id());
+        assertEquals(saved.getId(), store.findViewByNameAndEmail("Alice", "alice@example.com").orElseThrow().id());
+        assertTrue(store.findViewByNameAndEmail("Bob", "alice@example.com").isEmpty());
+        assertTrue(store.findViewByEmail("bob@example.com").isEmpty());
+    }
+
+    @Test
+    void testNameLookupFansOutToAllShards() {
+        for (int i = 0; i < 30; i++) {
+            store.save(customer("Customer " + i, "customer" + i + "@example.com"));
+        }
+
+        for (int i = 0; i < 30; i++) {
+            Optional<CustomerView> found = store.findViewByName("Customer " + i);
+            assertEquals("customer" + i + "@example.com", found.orElseThrow().email());
+        }
+        assertTrue(store.findViewByName("Nobody").isEmpty());
+    }
+
+    @Test
+    void testDuplicateNamesAcrossShardsAreRejectedLikeJpa() {
+        for (int i = 0; i < 10; i++) {
+            store.save(customer("Same Name", "same" + i + "@example.com"));
+        }
+
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> store.findViewByName("Same Name"));
+    }
+
+    @Test
+    void testUpdateMovesEmailInIndex() {
+        Customer saved = store.save(customer("Alice", "alice@example.com"));
+        saved.setEmail("alice@example.org");
+        saved.setAnnualSpend(new BigDecimal("2500.00"));
+
+        store.save(saved);
+
+        assertFalse(store.existsByEmail("alice@example.com"));
+        assertEquals(0, new BigDecimal("2500").compareTo(
+                store.findViewByEmail("alice@example.org").orElseThrow().annualSpend()));
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    void testDeleteRemovesRowAndIndexEntry() {
+        Customer saved = store.save(customer("Alice", "alice@example.com"));
+
+        store.deleteById(saved.getId());
+
+        assertTrue(store.findById(saved.getId()).isEmpty());
+        assertFalse(store.existsByEmail("alice@example.com"));
+        assertEquals(0, store.count());
+    }
+
+    @Test
+    void testIndexIsRebuiltFromShardsOnStartup() {
+        for (int i = 0; i < 20; i++) {
+            store.save(customer("Customer " + i, "customer" + i + "@example.com"));
+        }
+
+        ShardedCustomerStore reopened = new ShardedCustomerStore(urls, "sa", "", 4);
+        try {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(reopened.findViewByEmail("customer" + i + "@example.com").isPresent());
+            }
+            try (Stream<String> emails = reopened.streamAllEmails()) {
+                assertEquals(20, emails.count());
+            }
+        } finally {
+            reopened.destroy();
+        }
+    }
+
+    @Test
+    void testEmailMissingFromIndexIsFoundOnItsShard() {
+        ShardedCustomerStore other = new ShardedCustomerStore(urls, "sa", "", 4);
+        Customer saved;
+        try {
+            // Written by another instance after this one built its index
+            saved = other.save(customer("Alice", "alice@example.com"));
+        } finally {
+            other.destroy();
+        }
+
+        assertTrue(store.existsByEmail("alice@example.com"));
+        assertEquals(saved.getId(), store.findViewByEmail("alice@example.com").orElseThrow().id());
+        assertEquals(saved.getId(), store.findViewByNameAndEmail("Alice", "alice@example.com").orElseThrow().id());
+        assertTrue(store.findViewByNameAndEmail("Bob", "alice@example.com").isEmpty());
+        assertFalse(store.existsByEmail("bob@example.com"));
+    }
+
+    @Test
+    void testFieldLookupsSelectOnlyRequestedColumns() {
+        for (int i = 0; i < 10; i++) {
+            store.save(customer("Customer " + i, "customer" + i + "@example.com"));
+        }
+        Customer saved = store.save(customer("Alice", "alice@example.com"));
+        Set<CustomerField> columns = EnumSet.of(CustomerField.ID, CustomerField.EMAIL);
+        CustomerView expected = new CustomerView(saved.getId(), null, "alice@example.com", null, null);
+
+        assertEquals(Optional.of(expected), store.findFieldsById(saved.getId(), columns));
+        assertEquals(Optional.of(expected), store.findFieldsByName("Alice", columns));
+        assertEquals(Optional.of(expected), store.findFieldsByEmail("alice@example.com", columns));
+        assertEquals(Optional.of(expected), store.findFieldsByNameAndEmail("Alice", "alice@example.com", columns));
+        assertEquals(Optional.empty(), store.findFieldsByEmail("nobody@example.com", columns));
+    }
+
+    private static Customer customer(String name, String email) {
+        return new Customer(null, name, email, new BigDecimal("1500.00"), LocalDate.now().minusMonths(1));
+    }
+}
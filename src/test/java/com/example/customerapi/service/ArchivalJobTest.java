@@ -0,0 +1,131 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.ArchivalReport;
+import com.example.customerapi.repository.CustomerArchive;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivalJobTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactions;
+    private CustomerArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:archival-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        archive = new CustomerArchive(jdbcTemplate);
+    }
+
+    @Test
+    void testMovesOnlyCustomersPastTheHorizon() {
+        UUID dormant = insert("Dormant", "dormant@example.com", LocalDate.now().minusDays(800));
+        UUID active = insert("Active", "active@example.com", LocalDate.now().minusDays(10));
+        UUID never = insert("Never", "never@example.com", null);
+
+        ArchivalReport report = job(100, 0).run();
+
+        assertTrue(report.finished());
+        assertFalse(report.resumed());
+        assertEquals(1, report.archived());
+        assertEquals(LocalDate.now().minusDays(730), report.cutoff());
+        assertEquals(Set.of(active, never), Set.copyOf(hotIds()));
+        assertEquals("dormant@example.com", archive.findById(dormant).orElseThrow().email());
+        assertTrue(archive.existsByEmail("dormant@example.com"));
+        assertFalse(archive.existsByEmail("active@example.com"));
+    }
+
+    @Test
+    void testPassResumesFromCheckpoint() {
+        List<UUID> dormant = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            dormant.add(insert("Dormant " + i, "dormant" + i + "@example.com", LocalDate.now().minusYears(3)));
+        }
+        ArchivalJob job = job(2, 2);
+
+        ArchivalReport first = job.run();
+        assertFalse(first.finished());
+        assertEquals(4, first.archived());
+        assertEquals(3, count("customer"));
+
+        ArchivalReport second = job.run();
+        assertTrue(second.resumed());
+        assertFalse(second.finished());
+        assertEquals(3, second.archived());
+        assertEquals(7, second.archivedInPass());
+        ArchivalReport third = job.run();
+        assertTrue(third.finished());
+        assertEquals(0, third.archived());
+        assertEquals(0, count("customer"));
+        assertEquals(7, archive.count());
+
+        ArchivalReport next = job.run();
+        assertFalse(next.resumed());
+        assertEquals(0, next.archivedInPass());
+    }
+
+    @Test
+    void testRestoreMovesCustomerBack() {
+        UUID id = insert("Dormant", "dormant@example.com", LocalDate.now().minusYears(3));
+        job(100, 0).run();
+
+        assertEquals(Boolean.TRUE, transactions.execute(status -> archive.restore(id)));
+
+        assertEquals(List.of(id), hotIds());
+        assertEquals(0, archive.count());
+        assertEquals(Boolean.FALSE, transactions.execute(status -> archive.restore(id)));
+    }
+
+    @Test
+    void testPurchaseForArchivedCustomerRestoresIt() {
+        UUID id = insert("Dormant", "dormant@example.com", LocalDate.now().minusYears(3));
+        job(100, 0).run();
+        PurchaseRecorder recorder = new PurchaseRecorder(jdbcTemplate, transactions, "", true);
+        recorder.setCustomerArchive(archive);
+
+        recorder.record(id, new BigDecimal("25.00"), LocalDate.now());
+        recorder.flush();
+
+        assertEquals(List.of(id), hotIds());
+        assertEquals(0, archive.count());
+        assertEquals(0, new BigDecimal("1025.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT annual_spend FROM customer WHERE id = ?", BigDecimal.class, id)));
+    }
+
+    private ArchivalJob job(int batchSize, int maxBatchesPerRun) {
+        return new ArchivalJob(jdbcTemplate, transactions, archive, 730, batchSize, maxBatchesPerRun);
+    }
+
+    private UUID insert(String name, String email, LocalDate lastPurchaseDate) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) VALUES (?, ?, ?, ?, ?)",
+                id, name, email, new BigDecimal("1000.00"), lastPurchaseDate);
+        return id;
+    }
+
+    private List<UUID> hotIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM customer", UUID.class);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
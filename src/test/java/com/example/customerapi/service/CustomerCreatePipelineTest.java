@@ -0,0 +1,116 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.entity.Customer;
+import com.example.customerapi.exception.DuplicateEmailException;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCreatePipelineTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private CustomerCreatePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:creates-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // A long window so that everything submitted below lands in one batch
+        pipeline = new CustomerCreatePipeline(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), 100, 200, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void testConcurrentCreatesShareOneCommit() throws Exception {
+        List<CompletableFuture<Customer>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(pipeline.submit(customer("customer" + i + "@example.com")));
+        }
+
+        for (CompletableFuture<Customer> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(1, pipeline.batchesWritten());
+        assertEquals(20, pipeline.customersWritten());
+        assertEquals(20, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Integer.class));
+    }
+
+    @Test
+    void testBatchIsSplitAtMaxSize() throws Exception {
+        List<CompletableFuture<Customer>> results = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            results.add(pipeline.submit(customer("customer" + i + "@example.com")));
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(3, pipeline.batchesWritten());
+    }
+
+    @Test
+    void testDuplicateEmailsAreRejected() throws Exception {
+        jdbcTemplate.update("INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) VALUES (?, ?, ?, ?, ?)",
+                UUID.randomUUID(), "Existing", "existing@example.com", BigDecimal.TEN, LocalDate.of(2024, 1, 1));
+
+        CompletableFuture<Customer> existing = pipeline.submit(customer("existing@example.com"));
+        CompletableFuture<Customer> first = pipeline.submit(customer("new@example.com"));
+        CompletableFuture<Customer> second = pipeline.submit(customer("new@example.com"));
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getId());
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> existing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DuplicateEmailException.class, ex.getCause());
+        ex = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DuplicateEmailException.class, ex.getCause());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customer WHERE email = 'new@example.com'", Integer.class));
+    }
+
+    @Test
+    void testEmailOfArchivedCustomerIsRejected() throws Exception {
+        jdbcTemplate.update("INSERT INTO customer_archive (id, name, email, annual_spend, last_purchase_date, archived_at) "
+                        + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                UUID.randomUUID(), "Dormant", "dormant@example.com", BigDecimal.TEN, LocalDate.of(2020, 1, 1));
+
+        CompletableFuture<Customer> result = pipeline.submit(customer("dormant@example.com"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DuplicateEmailException.class, ex.getCause());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Integer.class));
+    }
+
+    @Test
+    void testQueuedCreatesAreWrittenOnClose() throws Exception {
+        CompletableFuture<Customer> result = pipeline.submit(customer("late@example.com"));
+
+        pipeline.close();
+
+        assertNotNull(result.get(5, TimeUnit.SECONDS).getId());
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(customer("after@example.com")));
+    }
+
+    private static Customer customer(String email) {
+        return new Customer(null, "Customer", email, new BigDecimal("2500.00"), LocalDate.of(2024, 6, 1));
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.customerapi.service;
 
+import com.example.customerapi.dto.CustomerField;
 import com.example.customerapi.dto.CustomerRequest;
 import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.dto.CustomerView;
+import com.example.customerapi.dto.SegmentPage;
+import com.example.customerapi.dto.SegmentQuery;
+import com.example.customerapi.dto.SparseCustomerResponse;
 import com.example.customerapi.entity.Customer;
+import com.example.customerapi.exception.DuplicateEmailException;
 import com.example.customerapi.exception.NoSuchElementException;
 import com.example.customerapi.exception.NotFoundException;
+import com.example.customerapi.repository.CustomerArchive;
 import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.CustomerSegments;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -13,11 +21,23 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -192,6 +212,13 @@ public class CustomerServiceTest {
         assertThrows(NotFoundException.class, () -> service.getCustomerById(uuid));
     }
 
+    @Test
+    void testNotFoundCapturesNoStackTrace() {
+        when(repository.findById(uuid)).thenReturn(Optional.empty());
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.getCustomerById(uuid));
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
     @Test
     void testGetCustomerByIdNull() {
         assertThrows(IllegalArgumentException.class, () -> service.getCustomerById(null));
@@ -209,33 +236,33 @@ public class CustomerServiceTest {
 
     @Test
     void testGetByNameAndEmailFound() {
-        when(repository.findByNameAndEmail("John Doe", "john@example.com")).thenReturn(Optional.of(customer));
+        when(repository.findViewByNameAndEmail("John Doe", "john@example.com")).thenReturn(Optional.of(CustomerView.of(customer)));
         CustomerResponse response = service.getByNameAndEmail("John Doe", "john@example.com");
         assertEquals("John Doe", response.getName());
     }
 
     @Test
     void testGetByNameAndEmailNotFound() {
-        when(repository.findByNameAndEmail("Test User", "test@example.com")).thenReturn(Optional.empty());
+        when(repository.findViewByNameAndEmail("Test User", "test@example.com")).thenReturn(Optional.empty());
         assertThrows(NoSuchElementException.class, () -> service.getByNameAndEmail("Test User", "test@example.com"));
     }
 
     @Test
     void testGetByNameFound() {
-        when(repository.findByName("John Doe")).thenReturn(Optional.of(customer));
+        when(repository.findViewByName("John Doe")).thenReturn(Optional.of(CustomerView.of(customer)));
         CustomerResponse response = service.getByName("John Doe");
         assertEquals("John Doe", response.getName());
     }
 
     @Test
     void testGetByNameNotFound() {
-        when(repository.findByName("Test User")).thenReturn(Optional.empty());
+        when(repository.findViewByName("Test User")).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> service.getByName("Test User"));
     }
 
     @Test
     void testGetByEmailFound() {
-        when(repository.findByEmail("john@example.com")).thenReturn(Optional.of(customer));
+        when(repository.findViewByEmail("john@example.com")).thenReturn(Optional.of(CustomerView.of(customer)));
         CustomerResponse response = service.getByEmail("john@example.com");
         assertEquals("John Doe", response.getName());
     }
@@ -287,4 +314,200 @@ public class CustomerServiceTest {
         CustomerRequest badRequest = new CustomerRequest("User", "user@example.com", BigDecimal.ONE, null);
         assertThrows(IllegalArgumentException.class, () -> service.createCustomer(badRequest));
     }
+
+    /**
+     * Concurrent lookups of the same customer are coalesced into a single repository call.
+     */
+    @Test
+    void testConcurrentLookupsShareOneRepositoryCall() throws Exception {
+        int callers = 16;
+        CountDownLatch ready = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findById(uuid)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(customer);
+        });
+        when(repository.findViewByEmail("john@example.com")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(CustomerView.of(customer));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<CustomerResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                boolean byEmail = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    return byEmail ? service.getByEmail("john@example.com") : service.getCustomerById(uuid);
+                }));
+            }
+            assertTrue(ready.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<CustomerResponse> result : results) {
+                assertEquals("John Doe", result.get(5, TimeUnit.SECONDS).getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(repository, times(1)).findById(uuid);
+        verify(repository, times(1)).findViewByEmail("john@example.com");
+    }
+
+    @Test
+    void testCreateCustomerDuplicateEmail() {
+        when(repository.existsByEmail("john@example.com")).thenReturn(true);
+        assertThrows(DuplicateEmailException.class, () -> service.createCustomer(validRequest));
+        verify(repository, never()).save(any());
+    }
+
+    /**
+     * An email the filter has never seen is answered without touching the repository.
+     */
+    @Test
+    void testGetByEmailDefiniteMissSkipsRepository() {
+        EmailMembershipFilter filter = new EmailMembershipFilter(repository, TransactionOperations.withoutTransaction(), 100, 0.01);
+        when(repository.streamAllEmails()).thenReturn(Stream.of("john@example.com"));
+        filter.rebuild();
+        service.setEmailFilter(filter);
+
+        assertThrows(NotFoundException.class, () -> service.getByEmail("nobody@example.com"));
+        verify(repository, never()).findViewByEmail("nobody@example.com");
+    }
+
+    @Test
+    void testCreateCustomerWithNewEmailSkipsDuplicateQuery() {
+        EmailMembershipFilter filter = new EmailMembershipFilter(repository, TransactionOperations.withoutTransaction(), 100, 0.01);
+        when(repository.streamAllEmails()).thenReturn(Stream.empty());
+        filter.rebuild();
+        service.setEmailFilter(filter);
+        when(repository.save(any(Customer.class))).thenReturn(customer);
+
+        service.createCustomer(validRequest);
+
+        verify(repository, never()).existsByEmail(any());
+        assertTrue(filter.mightContain("john@example.com"));
+    }
+
+    @Test
+    void testSubmitCustomerGoesThroughPipeline() throws Exception {
+        CustomerCreatePipeline pipeline = mock(CustomerCreatePipeline.class);
+        when(pipeline.submit(any(Customer.class))).thenReturn(CompletableFuture.completedFuture(customer));
+        service.setCreatePipeline(pipeline);
+
+        CustomerResponse response = service.submitCustomer(validRequest).get(5, TimeUnit.SECONDS);
+
+        assertTrue(service.isGroupCommitEnabled());
+        assertEquals(uuid, response.getId());
+        assertEquals("Gold", response.getTier());
+        verify(repository, never()).save(any());
+        assertThrows(IllegalArgumentException.class, () -> service.submitCustomer(null));
+    }
+
+    @Test
+    void testGetFieldsLoadsOnlyNeededColumns() {
+        Set<CustomerField> idOnly = EnumSet.of(CustomerField.ID);
+        when(repository.findFieldsById(uuid, idOnly))
+                .thenReturn(Optional.of(new CustomerView(uuid, null, null, null, null)));
+
+        SparseCustomerResponse response = service.getFieldsById(uuid, idOnly);
+
+        assertEquals(uuid, response.customer().getId());
+        assertNull(response.customer().getTier());
+        assertEquals(idOnly, response.fields());
+    }
+
+    @Test
+    void testGetFieldsCalculatesTierOnlyWhenRequested() {
+        Set<CustomerField> idAndTier = EnumSet.of(CustomerField.ID, CustomerField.TIER);
+        when(repository.findFieldsByName("John Doe",
+                EnumSet.of(CustomerField.ID, CustomerField.ANNUAL_SPEND, CustomerField.LAST_PURCHASE_DATE)))
+                .thenReturn(Optional.of(new CustomerView(uuid, null, null, new BigDecimal("5000"), LocalDate.now().minusMonths(5))));
+
+        SparseCustomerResponse response = service.getFieldsByName("John Doe", idAndTier);
+
+        assertEquals("Gold", response.customer().getTier());
+        assertThrows(NotFoundException.class, () -> service.getFieldsById(UUID.randomUUID(), idAndTier));
+    }
+
+    @Test
+    void testReturnedCustomersAreRecordedAsRecent() {
+        RecentCustomers recent = new RecentCustomers(8, "");
+        service.setRecentCustomers(recent);
+        UUID other = UUID.randomUUID();
+        when(repository.findById(uuid)).thenReturn(Optional.of(customer));
+        when(repository.findViewByEmail("other@example.com"))
+                .thenReturn(Optional.of(new CustomerView(other, "Other", "other@example.com", null, null)));
+
+        service.getCustomerById(uuid);
+        service.getByEmail("other@example.com");
+        assertThrows(NotFoundException.class, () -> service.getCustomerById(UUID.randomUUID()));
+
+        assertEquals(List.of(other, uuid), recent.snapshot());
+    }
+
+    @Test
+    void testLookupsFallBackToArchive() {
+        CustomerArchive archive = mock(CustomerArchive.class);
+        service.setCustomerArchive(archive);
+        CustomerView archived = new CustomerView(uuid, "John Doe", "john@example.com",
+                new BigDecimal("5000"), LocalDate.now().minusYears(3));
+        when(archive.findById(uuid)).thenReturn(Optional.of(archived));
+        when(archive.findByEmail("john@example.com")).thenReturn(Optional.of(archived));
+        when(archive.existsByEmail("john@example.com")).thenReturn(true);
+        when(archive.existsById(uuid)).thenReturn(true);
+
+        assertEquals("Silver", service.getCustomerById(uuid).getTier());
+        assertTrue(service.customerExists(uuid));
+        assertFalse(service.customerExists(UUID.randomUUID()));
+        assertEquals(uuid, service.getByEmail("john@example.com").getId());
+        assertThrows(NotFoundException.class, () -> service.getCustomerById(UUID.randomUUID()));
+        assertThrows(DuplicateEmailException.class, () -> service.createCustomer(validRequest));
+        verify(repository, never()).save(any(Customer.class));
+    }
+
+    @Test
+    void testUpdateAndDeleteOfArchivedCustomer() {
+        CustomerArchive archive = mock(CustomerArchive.class);
+        service.setCustomerArchive(archive);
+        when(archive.restore(uuid)).thenReturn(true);
+        when(repository.findById(uuid)).thenReturn(Optional.empty(), Optional.of(customer));
+        when(repository.save(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals("Gold", service.updateCustomer(uuid, validRequest).getTier());
+        verify(archive).restore(uuid);
+
+        UUID archivedId = UUID.randomUUID();
+        when(repository.findById(archivedId)).thenReturn(Optional.empty());
+        service.deleteCustomer(archivedId);
+        verify(archive).delete(archivedId);
+        verify(repository, never()).deleteById(archivedId);
+    }
+
+    @Test
+    void testSegmentPagesContinueFromCursor() {
+        CustomerSegments segments = mock(CustomerSegments.class);
+        service.setCustomerSegments(segments);
+        SegmentQuery query = new SegmentQuery(LocalDate.now().minusYears(1), null, new BigDecimal("1000"), null);
+        CustomerView first = new CustomerView(uuid, "John Doe", "john@example.com", new BigDecimal("5000"), LocalDate.now().minusMonths(5));
+        CustomerView second = new CustomerView(UUID.randomUUID(), "Jane Doe", "jane@example.com", new BigDecimal("6000"), LocalDate.now().minusMonths(4));
+        when(segments.page(query, null, 2)).thenReturn(List.of(first, second));
+        CustomerSegments.Key afterFirst = CustomerSegments.Key.of(first);
+        when(segments.page(query, afterFirst, 2)).thenReturn(List.of(second));
+
+        SegmentPage page = service.getSegment(query, null, 1);
+        assertEquals(List.of(uuid), page.customers().stream().map(CustomerResponse::getId).toList());
+        assertEquals("Gold", page.customers().get(0).getTier());
+        assertEquals(afterFirst.encode(), page.next());
+
+        SegmentPage last = service.getSegment(query, page.next(), 1);
+        assertEquals(second.id(), last.customers().get(0).getId());
+        assertNull(last.next());
+
+        assertThrows(IllegalArgumentException.class, () -> service.getSegment(query, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getSegment(
+                new SegmentQuery(null, null, new BigDecimal("10"), new BigDecimal("1")), null, 10));
+    }
 }
@@ -0,0 +1,175 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.DeduplicationReport;
+import com.example.customerapi.dto.MergeCandidate;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeduplicationJobTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DeduplicationJob job;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:dedup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // One group per transaction so that the batching is exercised
+        job = new DeduplicationJob(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                2, 100, 0.8, 1, 100);
+    }
+
+    @Test
+    void testNormalizeEmail() {
+        assertEquals("alice@example.com", DeduplicationJob.normalizeEmail(" Alice+News@Example.COM "));
+        assertEquals("bobsmith@gmail.com", DeduplicationJob.normalizeEmail("Bob.Smith+shop@googlemail.com"));
+        assertEquals("bob.smith@example.com", DeduplicationJob.normalizeEmail("bob.smith@example.com"));
+        assertEquals("+tag@example.com", DeduplicationJob.normalizeEmail("+tag@example.com"));
+        assertEquals("", DeduplicationJob.normalizeEmail(null));
+    }
+
+    @Test
+    void testNameKeyIgnoresOrderCaseAndAccents() {
+        assertEquals("jose smith", DeduplicationJob.nameKey("Smith, José"));
+        assertEquals("jose smith", DeduplicationJob.nameKey("jose  SMITH"));
+        assertEquals("anne marie", DeduplicationJob.nameKey("Anne-Marie Anne"));
+        assertEquals("", DeduplicationJob.nameKey("  "));
+    }
+
+    @Test
+    void testScoreWeighsEmailAboveName() {
+        DeduplicationJob.Row alice = row("Alice Smith", "alice@example.com");
+
+        assertEquals(1.0, DeduplicationJob.score(alice, row("smith alice", "Alice+x@example.com")));
+        assertEquals(0.8, DeduplicationJob.score(alice, row("Alice", "alice@example.com")));
+        assertEquals(0.6, DeduplicationJob.score(alice, row("Bob", "alice@example.com")));
+        assertEquals(0.4, DeduplicationJob.score(alice, row("Alice Smith", "asmith@example.com")));
+        assertEquals(0.0, DeduplicationJob.score(alice, row("Bob", "bob@example.com")));
+    }
+
+    @Test
+    void testDryRunReportsWithoutWriting() {
+        UUID older = insert("Alice Smith", "alice@example.com", "100.00", LocalDate.of(2024, 1, 1));
+        UUID newer = insert("smith alice", "Alice+news@example.com", "50.00", LocalDate.of(2024, 6, 1));
+        insert("Bob", "bob@example.com", "10.00", null);
+
+        DeduplicationReport report = job.run(false);
+
+        assertFalse(report.isApplied());
+        assertEquals(3, report.getCustomersScanned());
+        assertEquals(1, report.getMergeGroups());
+        assertEquals(1, report.getDuplicatesMerged());
+        assertEquals(List.of(new MergeCandidate(newer, older, 1.0, true)), report.getCandidates());
+        assertEquals(3, count());
+        assertSame(report, job.lastReport());
+    }
+
+    @Test
+    void testApplyMergesIntoMostRecentCustomer() {
+        UUID first = insert("Alice Smith", "alice@example.com", "100.00", LocalDate.of(2024, 1, 1));
+        UUID latest = insert("Alice Smith", "alice+shop@example.com", "50.00", LocalDate.of(2024, 6, 1));
+        UUID third = insert("ALICE SMITH", "ALICE@example.com", null, null);
+        UUID bob = insert("Bob Jones", "bob.jones@gmail.com", null, LocalDate.of(2023, 3, 1));
+        UUID bobAgain = insert("Jones Bob", "bobjones@gmail.com", "20.00", null);
+
+        DeduplicationReport report = job.run(true);
+
+        assertTrue(report.isApplied());
+        assertEquals(2, report.getMergeGroups());
+        assertEquals(3, report.getDuplicatesMerged());
+        assertEquals(2, count());
+        Map<String, Object> alice = jdbcTemplate.queryForMap("SELECT * FROM customer WHERE id = ?", latest);
+        assertEquals("alice+shop@example.com", alice.get("EMAIL"));
+        assertEquals(0, new BigDecimal("150.00").compareTo((BigDecimal) alice.get("ANNUAL_SPEND")));
+        assertEquals(LocalDate.of(2024, 6, 1), ((java.sql.Date) alice.get("LAST_PURCHASE_DATE")).toLocalDate());
+        Map<String, Object> jones = jdbcTemplate.queryForMap("SELECT * FROM customer WHERE id = ?", bob);
+        assertEquals(0, new BigDecimal("20.00").compareTo((BigDecimal) jones.get("ANNUAL_SPEND")));
+        assertEquals(0, count(first) + count(third) + count(bobAgain));
+
+        assertEquals(0, job.run(true).getDuplicatesMerged());
+    }
+
+    @Test
+    void testWeakMatchesAreOnlyReportedForReview() {
+        insert("John Smith", "john@example.com", "10.00", null);
+        insert("Smith John", "jsmith@example.com", "10.00", null);
+        insert("Carol", "shared@example.com", "10.00", null);
+        insert("Dave", "shared@example.com", "10.00", null);
+        insert("Erin", "erin@example.com", "10.00", null);
+
+        DeduplicationReport report = job.run(true);
+
+        assertEquals(0, report.getDuplicatesMerged());
+        assertEquals(2, report.getReviewCandidates());
+        assertTrue(report.getCandidates().stream().noneMatch(MergeCandidate::isMerge));
+        assertEquals(List.of(0.4, 0.6), report.getCandidates().stream().map(MergeCandidate::getScore).sorted().toList());
+        assertEquals(5, count());
+    }
+
+    @Test
+    void testChainedMatchesFormOneGroup() {
+        // a~b by email, b~c by email under Gmail rules; one group of three
+        insert("Ann Lee", "ann.lee@gmail.com", "1.00", LocalDate.of(2024, 1, 1));
+        insert("Ann Lee", "annlee+x@gmail.com", "2.00", LocalDate.of(2024, 2, 1));
+        UUID kept = insert("Lee Ann", "AnnLee@googlemail.com", "3.00", LocalDate.of(2024, 3, 1));
+
+        DeduplicationReport report = job.run(true);
+
+        assertEquals(1, report.getMergeGroups());
+        assertEquals(2, report.getDuplicatesMerged());
+        assertEquals(1, count());
+        assertEquals(0, new BigDecimal("6.00").compareTo(
+                jdbcTemplate.queryForObject("SELECT annual_spend FROM customer WHERE id = ?", BigDecimal.class, kept)));
+    }
+
+    @Test
+    void testOversizedBlocksAreSkipped() {
+        job = new DeduplicationJob(jdbcTemplate, new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource())), 2, 3, 0.8, 500, 100);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(insert("Same Name", "same+" + i + "@example.com", "1.00", null));
+        }
+
+        DeduplicationReport report = job.run(true);
+
+        assertEquals(2, report.getOversizedBlocks());
+        assertEquals(0, report.getDuplicatesMerged());
+        assertEquals(4, count());
+    }
+
+    private UUID insert(String name, String email, String spend, LocalDate lastPurchaseDate) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) VALUES (?, ?, ?, ?, ?)",
+                id, name, email, spend == null ? null : new BigDecimal(spend), lastPurchaseDate);
+        return id;
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Integer.class);
+    }
+
+    private int count(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer WHERE id = ?", Integer.class, id);
+    }
+
+    private static DeduplicationJob.Row row(String name, String email) {
+        return DeduplicationJob.Row.of(UUID.randomUUID(), name, email, null, null);
+    }
+}
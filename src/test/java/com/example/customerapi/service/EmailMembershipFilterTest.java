@@ -0,0 +1,137 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.EmailFilterStats;
+import com.example.customerapi.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class EmailMembershipFilterTest {
+
+    @Mock
+    private CustomerRepository repository;
+
+    private EmailMembershipFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new EmailMembershipFilter(repository, TransactionOperations.withoutTransaction(), 10_000, 0.01);
+    }
+
+    @Test
+    void testEverythingMightExistBeforeFirstBuild() {
+        assertTrue(filter.mightContain("anyone@example.com"));
+        assertFalse(filter.stats().isReady());
+    }
+
+    @Test
+    void testRebuildLoadsExistingEmails() {
+        when(repository.streamAllEmails()).thenReturn(Stream.of("alice@example.com", "bob@example.com"));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("alice@example.com"));
+        assertTrue(filter.mightContain("bob@example.com"));
+        assertFalse(filter.mightContain("nobody@example.com"));
+        assertEquals(2, filter.stats().getInsertions());
+    }
+
+    @Test
+    void testAddedEmailsAreFound() {
+        when(repository.streamAllEmails()).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        filter.add("carol@example.com");
+
+        assertTrue(filter.mightContain("carol@example.com"));
+    }
+
+    @Test
+    void testRebuildDropsDeletedEmails() {
+        when(repository.streamAllEmails()).thenReturn(Stream.of("alice@example.com", "bob@example.com"));
+        filter.rebuild();
+        when(repository.streamAllEmails()).thenReturn(Stream.of("alice@example.com"));
+
+        filter.rebuild();
+
+        assertFalse(filter.mightContain("bob@example.com"));
+    }
+
+    @Test
+    void testNoFalseNegativesAndFalsePositiveRateNearTarget() {
+        when(repository.streamAllEmails()).thenReturn(Stream.empty());
+        filter.rebuild();
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("customer" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("customer" + i + "@example.com"));
+            if (filter.mightContain("absent" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        EmailFilterStats stats = filter.stats();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(stats.getEstimatedFalsePositiveRate() < 0.03);
+        assertTrue(stats.getBitSize() > 0);
+    }
+
+    @Test
+    void testEmailsAddedDuringRebuildAreKept() throws Exception {
+        List<String> existing = IntStream.range(0, 20_000).mapToObj(i -> "existing" + i + "@example.com").toList();
+        List<String> added = Collections.synchronizedList(new ArrayList<>());
+        // The scan sees rows committed before it starts, but none committed while it runs
+        when(repository.streamAllEmails()).thenAnswer(invocation ->
+                Stream.concat(snapshot(added).stream(), existing.stream()));
+        filter.rebuild();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        int rebuilds = 0;
+        try {
+            // Commit the row, then add the email as the after-commit hook does
+            Future<?> adder = executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    String email = "new" + i + "@example.com";
+                    added.add(email);
+                    filter.add(email);
+                }
+            });
+            while (!adder.isDone()) {
+                filter.rebuild();
+                rebuilds++;
+            }
+            adder.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(rebuilds > 0);
+        for (String email : added) {
+            assertTrue(filter.mightContain(email), email);
+        }
+    }
+
+    private static List<String> snapshot(List<String> synchronizedList) {
+        synchronized (synchronizedList) {
+            return new ArrayList<>(synchronizedList);
+        }
+    }
+}
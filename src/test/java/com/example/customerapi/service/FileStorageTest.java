@@ -0,0 +1,84 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.dto.BackupResponse;
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStorageTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testRestartKeepsDataWithoutReseeding() {
+        UUID id;
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(0, context.getBean(CustomerRepository.class).count());
+            id = context.getBean(CustomerService.class).createCustomer(new CustomerRequest("Alice", "alice@example.com",
+                    new BigDecimal("1500"), LocalDate.now())).getId();
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(1, context.getBean(CustomerRepository.class).count());
+            CustomerResponse reloaded = context.getBean(CustomerService.class).getCustomerById(id);
+            assertEquals("alice@example.com", reloaded.getEmail());
+        }
+    }
+
+    @Test
+    void testRecordedPurchasesSurviveRestart() {
+        UUID id;
+        try (ConfigurableApplicationContext context = start()) {
+            id = context.getBean(CustomerService.class).createCustomer(new CustomerRequest("Alice", "alice@example.com",
+                    new BigDecimal("1500"), LocalDate.now().minusYears(1))).getId();
+            context.getBean(PurchaseRecorder.class).record(id, new BigDecimal("250.50"), LocalDate.now());
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            CustomerResponse reloaded = context.getBean(CustomerService.class).getCustomerById(id);
+            assertEquals(0, new BigDecimal("1750.50").compareTo(reloaded.getAnnualSpend()));
+            assertEquals(LocalDate.now(), reloaded.getLastPurchaseDate());
+            assertTrue(Files.exists(dataDir.resolve("customers-wal")));
+        }
+    }
+
+    @Test
+    void testOnlineBackupKeepsConfiguredNumberOfFiles() {
+        try (ConfigurableApplicationContext context = start()) {
+            StorageBackupService backupService = context.getBean(StorageBackupService.class);
+            for (int i = 0; i < 3; i++) {
+                BackupResponse backup = backupService.backup();
+                assertTrue(backup.getSizeBytes() > 0);
+                assertTrue(Files.exists(dataDir.resolve("backups").resolve(backup.getFile())));
+            }
+
+            List<BackupResponse> backups = backupService.listBackups();
+            assertEquals(2, backups.size());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("file")
+                .run("--customer.storage.path=" + dataDir.resolve("customers"),
+                        "--customer.storage.backup-dir=" + dataDir.resolve("backups"),
+                        "--customer.storage.backup-retention=2");
+    }
+}
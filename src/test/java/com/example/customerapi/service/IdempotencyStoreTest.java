@@ -0,0 +1,215 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.exception.IdempotencyConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final CustomerResponse response = new CustomerResponse(UUID.randomUUID(), "Alice", "alice@example.com",
+            new BigDecimal("1500"), LocalDate.now(), "Gold");
+
+    @Test
+    void testRetryReturnsOriginalResponse() {
+        IdempotencyStore store = new IdempotencyStore(10, 60, 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CustomerResponse first = store.execute("key", "body", () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        CustomerResponse retry = store.execute("key", "body", () -> {
+            calls.incrementAndGet();
+            return null;
+        });
+
+        assertSame(first, retry);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() {
+        IdempotencyStore store = new IdempotencyStore(10, 60, 1);
+        store.execute("key", "body", () -> response);
+
+        assertThrows(IllegalArgumentException.class, () -> store.execute("key", "other body", () -> response));
+    }
+
+    @Test
+    void testFailedRequestIsNotRemembered() {
+        IdempotencyStore store = new IdempotencyStore(10, 60, 1);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("key", "body", () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        assertSame(response, store.execute("key", "body", () -> response));
+    }
+
+    @Test
+    void testExpiredEntryIsExecutedAgain() {
+        IdempotencyStore store = new IdempotencyStore(10, 0, 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute("key", "body", () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        store.execute("key", "body", () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testStoreIsBounded() {
+        IdempotencyStore store = new IdempotencyStore(3, 60, 1);
+        for (int i = 0; i < 10; i++) {
+            store.execute("key-" + i, "body", () -> response);
+        }
+
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void testInFlightEntrySurvivesStoreFillingUp() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(3, 60, 5);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CustomerResponse> first = executor.submit(() -> store.execute("slow", "body", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return response;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // Completed keys past capacity push each other out, never the request still in flight
+            for (int i = 0; i < 10; i++) {
+                store.execute("key-" + i, "body", () -> response);
+            }
+            assertEquals(3, store.size());
+
+            Future<CustomerResponse> retry = executor.submit(() -> store.execute("slow", "body", () -> {
+                calls.incrementAndGet();
+                return null;
+            }));
+            release.countDown();
+
+            assertSame(response, first.get(5, TimeUnit.SECONDS));
+            assertSame(response, retry.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNewKeyIsRejectedWhenAllEntriesAreInFlight() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(1, 60, 5);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CustomerResponse> first = executor.submit(() -> store.execute("slow", "body", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return response;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(IdempotencyConflictException.class, () -> store.execute("other", "body", () -> response));
+
+            release.countDown();
+            assertSame(response, first.get(5, TimeUnit.SECONDS));
+            assertSame(response, store.execute("other", "body", () -> response));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExpiredEntriesAreEvictedBehindInFlightRequest() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(10, 0, 5);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CustomerResponse> first = executor.submit(() -> store.execute("slow", "body", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return response;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 5; i++) {
+                store.execute("key-" + i, "body", () -> response);
+            }
+            store.execute("last", "body", () -> response);
+
+            // Only the request in flight and the latest (already expired, evicted on the next call) remain
+            assertTrue(store.size() <= 2, "size " + store.size());
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentDuplicatesWaitForFirstRequest() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(10, 60, 5);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<CustomerResponse> first = executor.submit(() -> store.execute("key", "body", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return response;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?>[] duplicates = new Future<?>[7];
+            for (int i = 0; i < duplicates.length; i++) {
+                duplicates[i] = executor.submit(() -> store.execute("key", "body", () -> {
+                    calls.incrementAndGet();
+                    return null;
+                }));
+            }
+            release.countDown();
+
+            assertSame(response, first.get(5, TimeUnit.SECONDS));
+            for (Future<?> duplicate : duplicates) {
+                assertSame(response, duplicate.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
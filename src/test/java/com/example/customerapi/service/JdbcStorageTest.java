@@ -0,0 +1,49 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.exception.DuplicateEmailException;
+import com.example.customerapi.exception.NotFoundException;
+import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.CustomerStore;
+import com.example.customerapi.repository.JdbcCustomerStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcStorageTest {
+
+    @Test
+    void testServiceRunsOnJdbcStore() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("jdbc")
+                .run("--spring.datasource.url=jdbc:h2:mem:jdbc-app-" + UUID.randomUUID())) {
+            CustomerService service = context.getBean(CustomerService.class);
+            assertInstanceOf(JdbcCustomerStore.class, context.getBean(CustomerStore.class));
+
+            CustomerResponse created = service.createCustomer(new CustomerRequest("Dana", "dana@example.com",
+                    new BigDecimal("1500"), LocalDate.now()));
+            service.updateCustomer(created.getId(), new CustomerRequest("Dana", "dana@example.org",
+                    new BigDecimal("12000"), LocalDate.now()));
+
+            assertEquals("Platinum", service.getByEmail("dana@example.org").getTier());
+            assertEquals(created.getId(), service.getByName("Dana").getId());
+            assertThrows(DuplicateEmailException.class, () -> service.createCustomer(new CustomerRequest("Other",
+                    "dana@example.org", BigDecimal.ONE, LocalDate.now())));
+            // Same table as the JPA repository
+            assertTrue(context.getBean(CustomerRepository.class).findById(created.getId()).isPresent());
+
+            service.deleteCustomer(created.getId());
+            assertThrows(NotFoundException.class, () -> service.getCustomerById(created.getId()));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.customerapi.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseRecorderTest {
+
+    @TempDir
+    Path walDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactions;
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:purchases-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        customerId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customer (id, name, email, annual_spend, last_purchase_date) VALUES (?, ?, ?, ?, ?)",
+                customerId, "Alice", "alice@example.com", new BigDecimal("1000.00"), LocalDate.of(2024, 1, 1));
+    }
+
+    @Test
+    void testPurchasesAreCoalescedIntoOneUpdate() {
+        PurchaseRecorder recorder = new PurchaseRecorder(jdbcTemplate, transactions, "", true);
+        recorder.record(customerId, new BigDecimal("10.50"), LocalDate.of(2024, 3, 1));
+        recorder.record(customerId, new BigDecimal("20.25"), LocalDate.of(2024, 2, 1));
+        assertEquals(1, recorder.pendingCustomers());
+        assertSpend("1000.00");
+
+        recorder.flush();
+
+        assertSpend("1030.75");
+        assertEquals(LocalDate.of(2024, 3, 1), lastPurchaseDate());
+        assertEquals(0, recorder.pendingCustomers());
+    }
+
+    @Test
+    void testConcurrentPurchasesAreAllApplied() throws Exception {
+        PurchaseRecorder recorder = new PurchaseRecorder(jdbcTemplate, transactions, walDir.toString(), false);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        recorder.record(customerId, BigDecimal.ONE, LocalDate.of(2024, 5, 1));
+                        if (i % 25 == 0) {
+                            recorder.flush();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        recorder.flush();
+
+        assertSpend("1800.00");
+    }
+
+    @Test
+    void testUnflushedPurchasesAreRecoveredFromLog() {
+        PurchaseRecorder crashed = new PurchaseRecorder(jdbcTemplate, transactions, walDir.toString(), true);
+        crashed.record(customerId, new BigDecimal("100"), LocalDate.of(2024, 6, 1));
+        crashed.record(customerId, new BigDecimal("50"), LocalDate.of(2024, 6, 2));
+
+        PurchaseRecorder restarted = new PurchaseRecorder(jdbcTemplate, transactions, walDir.toString(), true);
+        assertEquals(1, restarted.pendingCustomers());
+        restarted.flush();
+
+        assertSpend("1150.00");
+        assertEquals(LocalDate.of(2024, 6, 2), lastPurchaseDate());
+    }
+
+    @Test
+    void testSegmentAppliedBeforeCrashIsNotAppliedAgain() throws Exception {
+        UUID batchId = UUID.randomUUID();
+        Files.writeString(walDir.resolve("purchases-" + batchId + ".wal"), customerId + " 100 2024-06-01\n");
+        jdbcTemplate.update("INSERT INTO purchase_batch (id, applied_at) VALUES (?, CURRENT_TIMESTAMP)", batchId);
+
+        PurchaseRecorder restarted = new PurchaseRecorder(jdbcTemplate, transactions, walDir.toString(), true);
+        restarted.flush();
+
+        assertSpend("1000.00");
+        assertFalse(Files.exists(walDir.resolve("purchases-" + batchId + ".wal")));
+    }
+
+    @Test
+    void testSealedSegmentIsAppliedAfterCrash() throws Exception {
+        UUID batchId = UUID.randomUUID();
+        Files.writeString(walDir.resolve("purchases-" + batchId + ".wal"), customerId + " 100 2024-06-01\n");
+
+        PurchaseRecorder restarted = new PurchaseRecorder(jdbcTemplate, transactions, walDir.toString(), true);
+        restarted.flush();
+        restarted.flush();
+
+        assertSpend("1100.00");
+    }
+
+    @Test
+    void testTornLastLineIsIgnored() throws Exception {
+        Files.writeString(walDir.resolve("purchases.wal"), customerId + " 100 2024-06-01\n" + customerId + " 5");
+
+        PurchaseRecorder restarted = new PurchaseRecorder(jdbcTemplate, transactions, walDir.toString(), true);
+        restarted.record(customerId, new BigDecimal("1"), LocalDate.of(2024, 6, 3));
+        PurchaseRecorder again = new PurchaseRecorder(jdbcTemplate, transactions, walDir.toString(), true);
+        again.flush();
+
+        assertSpend("1101.00");
+    }
+
+    @Test
+    void testNonPositiveAmountIsRejected() {
+        PurchaseRecorder recorder = new PurchaseRecorder(jdbcTemplate, transactions, "", true);
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(customerId, BigDecimal.ZERO, null));
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(customerId, null, null));
+    }
+
+    private void assertSpend(String expected) {
+        BigDecimal spend = jdbcTemplate.queryForObject("SELECT annual_spend FROM customer WHERE id = ?", BigDecimal.class, customerId);
+        assertEquals(0, new BigDecimal(expected).compareTo(spend), "annual spend " + spend);
+    }
+
+    private LocalDate lastPurchaseDate() {
+        return jdbcTemplate.queryForObject("SELECT last_purchase_date FROM customer WHERE id = ?", LocalDate.class, customerId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.customerapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentCustomersTest {
+
+    @Test
+    void testSnapshotIsDistinctMostRecentFirst() {
+        RecentCustomers recent = new RecentCustomers(3, "");
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID d = UUID.randomUUID();
+
+        recent.record(a);
+        recent.record(b);
+        recent.record(a);
+        assertEquals(List.of(a, b), recent.snapshot());
+
+        // The ring holds the last three: b, a, c are overwritten in turn
+        recent.record(c);
+        recent.record(d);
+        recent.record(null);
+        assertEquals(List.of(d, c, a), recent.snapshot());
+    }
+
+    @Test
+    void testSnapshotSurvivesRestart(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("hot/customers.txt");
+        RecentCustomers before = new RecentCustomers(16, file.toString());
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        before.record(a);
+        before.record(b);
+
+        assertEquals(List.of(), before.loadSnapshot());
+        before.save();
+
+        assertEquals(List.of(b, a), new RecentCustomers(16, file.toString()).loadSnapshot());
+        Files.writeString(file, "not-a-uuid\n");
+        assertEquals(List.of(), new RecentCustomers(16, file.toString()).loadSnapshot());
+    }
+}
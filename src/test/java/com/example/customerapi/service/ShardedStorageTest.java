@@ -0,0 +1,48 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.DemoApplication;
+import com.example.customerapi.dto.CustomerRequest;
+import com.example.customerapi.dto.CustomerResponse;
+import com.example.customerapi.exception.DuplicateEmailException;
+import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.ShardedCustomerStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedStorageTest {
+
+    @Test
+    void testServiceStoresCustomersInShards() {
+        String prefix = "sharded-app-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("sharded")
+                .run("--customer.store.shard-urls=jdbc:h2:mem:" + prefix + "-0,jdbc:h2:mem:" + prefix + "-1")) {
+            CustomerService service = context.getBean(CustomerService.class);
+            ShardedCustomerStore store = context.getBean(ShardedCustomerStore.class);
+            long seeded = context.getBean(CustomerRepository.class).count();
+
+            for (int i = 0; i < 20; i++) {
+                service.createCustomer(new CustomerRequest("Customer " + i, "customer" + i + "@example.com",
+                        new BigDecimal("1500"), LocalDate.now()));
+            }
+            CustomerResponse byEmail = service.getByEmail("customer7@example.com");
+
+            assertEquals("Customer 7", service.getCustomerById(byEmail.getId()).getName());
+            assertEquals("customer3@example.com", service.getByName("Customer 3").getEmail());
+            assertThrows(DuplicateEmailException.class, () -> service.createCustomer(new CustomerRequest("Other",
+                    "customer7@example.com", BigDecimal.ONE, LocalDate.now())));
+            assertEquals(20, store.count());
+            assertEquals(seeded, context.getBean(CustomerRepository.class).count());
+            assertTrue(store.stats().stream().allMatch(shard -> shard.getCustomers() > 0));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.exception.LookupTimeoutException;
+import com.example.customerapi.exception.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(8, () -> singleFlight.execute("key", 5000, () -> {
+            loads.incrementAndGet();
+            awaitQuietly(release);
+            return "value";
+        }));
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testFailureIsPropagatedToAllWaiters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(4, () -> singleFlight.execute("key", 5000, () -> {
+            awaitQuietly(release);
+            throw new NotFoundException("Customer not found");
+        }));
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NotFoundException.class, ex.getCause());
+        }
+    }
+
+    @Test
+    void testWaiterGivesUpAfterTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", 5000, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "value";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(LookupTimeoutException.class, () -> singleFlight.execute("key", 50, () -> "other"));
+
+        release.countDown();
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testResultsAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        singleFlight.execute("key", 100, () -> "value-" + loads.incrementAndGet());
+
+        assertEquals("value-2", singleFlight.execute("key", 100, () -> "value-" + loads.incrementAndGet()));
+    }
+
+    private List<Future<String>> submitConcurrently(int callers, Callable<String> call)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(callers);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                return call.call();
+            }));
+        }
+        assertTrue(ready.await(5, TimeUnit.SECONDS));
+        // Give every caller time to reach the in-flight call before it is released
+        Thread.sleep(200);
+        return results;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
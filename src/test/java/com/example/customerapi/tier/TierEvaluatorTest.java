@@ -0,0 +1,74 @@
+package com.example.customerapi.tier;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TierEvaluatorTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+
+    @Test
+    void testDefaultRulesMatchFormerThresholds() {
+        TierEvaluator.Day rules = TierEvaluator.compile(TierRuleSet.DEFAULT).on(AS_OF);
+
+        assertEquals("Platinum", rules.tier(new BigDecimal("10000.00"), AS_OF.minusMonths(6).plusDays(1)));
+        assertEquals("Silver", rules.tier(new BigDecimal("10000.00"), AS_OF.minusMonths(6)));
+        assertEquals("Gold", rules.tier(new BigDecimal("9999.99"), AS_OF.minusMonths(6)));
+        assertEquals("Gold", rules.tier(new BigDecimal("1000"), AS_OF.minusMonths(12).plusDays(1)));
+        // Platinum spend that is no longer recent enough for Platinum is not Gold either
+        assertEquals("Silver", rules.tier(new BigDecimal("12000"), AS_OF.minusMonths(8)));
+        assertEquals("Silver", rules.tier(new BigDecimal("999.99"), AS_OF));
+        assertEquals("Silver", rules.tier(null, AS_OF));
+        assertEquals("Silver", rules.tier(new BigDecimal("50000"), null));
+    }
+
+    @Test
+    void testCentsAndDecimalEvaluationAgree() {
+        TierRuleSet rules = TierRuleSet.parse("test", "Top:2500.005-:3,Mid:100.5-2500.005:9,Any:20-100.5:", "None");
+        TierEvaluator evaluator = TierEvaluator.compile(rules);
+        TierEvaluator.Day day = evaluator.on(AS_OF);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 100_000; i++) {
+            long cents = random.nextLong(400_000);
+            boolean dated = random.nextInt(10) > 0;
+            LocalDate date = dated ? AS_OF.minusDays(random.nextInt(400)) : null;
+            int tier = day.tier(cents, dated ? (int) date.toEpochDay() : Integer.MIN_VALUE);
+            assertEquals(day.tier(BigDecimal.valueOf(cents, 2), date), evaluator.name(tier), cents + " " + date);
+        }
+        assertEquals(List.of("Top", "Mid", "Any", "None"), evaluator.names());
+        assertEquals("Any", day.tier(new BigDecimal("20"), null));
+    }
+
+    @Test
+    void testInvalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TierRuleSet.parse("v", "Gold:1000", "Silver"));
+        assertThrows(IllegalArgumentException.class, () -> TierRuleSet.parse("v", "Gold:abc-:6", "Silver"));
+        assertThrows(IllegalArgumentException.class, () -> compile("Gold:1000-500:6", "Silver"));
+        assertThrows(IllegalArgumentException.class, () -> compile("Gold:1000-:0", "Silver"));
+        assertThrows(IllegalArgumentException.class, () -> compile("Gold:1000-:6,Gold:10-:6", "Silver"));
+        assertThrows(IllegalArgumentException.class, () -> compile("Silver:1000-:6", "Silver"));
+        assertThrows(IllegalArgumentException.class, () -> TierEvaluator.compile(
+                new TierRuleSet(" ", TierRuleSet.DEFAULT.tiers(), "Silver")));
+        assertEquals("v", compile("Gold:1000-:6", "Silver").version());
+    }
+
+    @Test
+    void testConfiguredRulesAreUsedForToday() {
+        TierRules rules = new TierRules("2025-07", "Gold:500-:", "Basic");
+
+        assertEquals("Gold", rules.tier(new BigDecimal("500"), null));
+        assertEquals("Basic", rules.tier(new BigDecimal("499.99"), LocalDate.now()));
+        assertEquals("2025-07", rules.ruleSet().version());
+        assertEquals("Silver", TierRules.defaults().tier(new BigDecimal("1000"), LocalDate.now().minusYears(1)));
+    }
+
+    private static TierEvaluator compile(String rules, String defaultTier) {
+        return TierEvaluator.compile(TierRuleSet.parse("v", rules, defaultTier));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.customerapi.warmup;
+
+import com.example.customerapi.DemoApplication;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmup",
+        "customer.grpc.enabled=false",
+        "customer.warmup.enabled=true",
+        "customer.warmup.iterations=50",
+        "customer.warmup.connections=4",
+        // Not in the database: skipped, and the warm-up falls back to sampled customers
+        "customer.warmup.customer-ids=00000000-0000-7000-8000-000000000001"
+})
+class StartupWarmUpTest {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Autowired
+    private StartupWarmUp warmUp;
+
+    @Test
+    void testWarmUpExercisesLookups() {
+        StartupWarmUp.WarmUpResult result = warmUp.result();
+
+        assertEquals(4, result.connectionsPrimed());
+        assertEquals(0, result.hotCustomersLoaded());
+        assertEquals(200, result.requests());
+    }
+
+    @Test
+    void testNotReadyWhileWarmingUp() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger port = new AtomicInteger();
+        // Holds the first warm-up request, and with it run(), until the probes have been checked
+        Filter holdWarmUp = (request, response, chain) -> {
+            if (((HttpServletRequest) request).getRequestURI().startsWith("/customers") && held.getCount() > 0) {
+                port.set(request.getLocalPort());
+                held.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            chain.doFilter(request, response);
+        };
+        CompletableFuture<ConfigurableApplicationContext> started = CompletableFuture.supplyAsync(() ->
+                new SpringApplicationBuilder(DemoApplication.class)
+                        .initializers(context -> ((GenericApplicationContext) context)
+                                .registerBean("holdWarmUp", Filter.class, () -> holdWarmUp))
+                        .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:warmup-" + UUID.randomUUID(),
+                                "--customer.grpc.enabled=false", "--customer.warmup.enabled=true",
+                                "--customer.warmup.iterations=10"));
+        try {
+            assertTrue(held.await(60, TimeUnit.SECONDS));
+            assertEquals(503, status(port.get(), "/actuator/health/readiness"));
+            assertEquals(200, status(port.get(), "/actuator/health/liveness"));
+
+            release.countDown();
+            started.get(60, TimeUnit.SECONDS);
+            assertEquals(200, status(port.get(), "/actuator/health/readiness"));
+        } finally {
+            release.countDown();
+            started.get(60, TimeUnit.SECONDS).close();
+        }
+    }
+
+    private int status(int port, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}